@@ -0,0 +1,136 @@
+package com.example.stockanalyzer.marketdata.aggregation;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * One full session of ticks through a fresh {@link TickCandleAggregator}. Ticks are held in
+ * primitive arrays built up front, so the measured pass is aggregation only.
+ *
+ * With {@code tickFile} set, ticks are read from a CSV of {@code token,price,cumulativeVolume,epochMillis}
+ * lines ({@code -p tickFile=/path/ticks.csv}); otherwise a random walk of {@code ticks} ticks over
+ * {@code instruments} tokens is spread across an NSE session (09:15 IST).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TickAggregationBenchmark {
+
+    private static final long NSE_SESSION_OPEN_OFFSET_MILLIS = (3 * 60 + 45) * 60_000L;
+    private static final long IST_OFFSET_MILLIS = (5 * 60 + 30) * 60_000L;
+    private static final long SESSION_OPEN_MILLIS = 1_735_703_100_000L; // 2025-01-01T03:45:00Z
+    private static final long SESSION_MILLIS = 375 * 60_000L;
+
+    @Param({""})
+    public String tickFile;
+
+    @Param({"500"})
+    public int instruments;
+
+    @Param({"1000000"})
+    public int ticks;
+
+    private long[] tokens;
+    private double[] prices;
+    private long[] volumes;
+    private long[] timestamps;
+    private int size;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        if (tickFile.isBlank()) {
+            generate();
+        } else {
+            load(Path.of(tickFile));
+        }
+    }
+
+    @Benchmark
+    public long replay() {
+        TickCandleAggregator aggregator = new TickCandleAggregator(
+                (instrumentId, intervalType, start, end, open, high, low, close, volume) -> { },
+                1024);
+        for (int i = 0; i < size; i++) {
+            aggregator.register(tokens[i], tokens[i], NSE_SESSION_OPEN_OFFSET_MILLIS, IST_OFFSET_MILLIS);
+        }
+        for (int i = 0; i < size; i++) {
+            aggregator.onTick(tokens[i], prices[i], volumes[i], timestamps[i]);
+        }
+        aggregator.closeAll();
+        return aggregator.barsEmitted();
+    }
+
+    private void generate() {
+        SplittableRandom random = new SplittableRandom(42);
+        double[] lastPrice = new double[instruments];
+        long[] cumulativeVolume = new long[instruments];
+        for (int i = 0; i < instruments; i++) {
+            lastPrice[i] = 100 + random.nextInt(5_000);
+        }
+        allocate(ticks);
+        for (int u = 0; u < ticks; u++) {
+            int i = u % instruments;
+            lastPrice[i] = Math.max(1, lastPrice[i] + (random.nextInt(101) - 50) * 0.05);
+            cumulativeVolume[i] += 1 + random.nextInt(2_000);
+            tokens[u] = 100_000L + i;
+            prices[u] = lastPrice[i];
+            volumes[u] = cumulativeVolume[i];
+            timestamps[u] = SESSION_OPEN_MILLIS + u * SESSION_MILLIS / ticks;
+        }
+        size = ticks;
+    }
+
+    private void load(Path file) throws IOException {
+        allocate(1 << 16);
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.US_ASCII)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank() || !Character.isDigit(line.charAt(0))) {
+                    continue;
+                }
+                if (size == tokens.length) {
+                    int capacity = size << 1;
+                    tokens = Arrays.copyOf(tokens, capacity);
+                    prices = Arrays.copyOf(prices, capacity);
+                    volumes = Arrays.copyOf(volumes, capacity);
+                    timestamps = Arrays.copyOf(timestamps, capacity);
+                }
+                String[] fields = line.split(",");
+                tokens[size] = Long.parseLong(fields[0].trim());
+                prices[size] = Double.parseDouble(fields[1].trim());
+                volumes[size] = Long.parseLong(fields[2].trim());
+                timestamps[size] = Long.parseLong(fields[3].trim());
+                size++;
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        tokens = new long[capacity];
+        prices = new double[capacity];
+        volumes = new long[capacity];
+        timestamps = new long[capacity];
+        size = 0;
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.stockanalyzer.marketdata.mapper;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import com.example.stockanalyzer.marketdata.entites.Candle;
+import com.example.stockanalyzer.marketdata.entites.Exchange;
+import com.example.stockanalyzer.marketdata.entites.Instrument;
+import com.example.stockanalyzer.marketdata.entites.IntervalType;
+import com.zerodhatech.models.HistoricalData;
+
+/**
+ * Mapping one Kite historical bar to a {@link Candle}, per timestamp shape the mapper accepts:
+ * {@code kite} is what the historical API returns, {@code local} resolves in the exchange zone.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class KiteCandleMapperBenchmark {
+
+    @Param({"kite", "iso", "local"})
+    public String timestampShape;
+
+    private final ZoneOffsets exchangeZone = ZoneOffsets.of("Asia/Kolkata");
+    private Instrument instrument;
+    private HistoricalData bar;
+
+    @Setup
+    public void setUp() {
+        Exchange exchange = new Exchange();
+        exchange.setCode("NSE");
+        exchange.setTimezone("Asia/Kolkata");
+        instrument = new Instrument();
+        instrument.setId(1L);
+        instrument.setSymbol("INFY");
+        instrument.setExchange(exchange);
+
+        bar = new HistoricalData();
+        bar.timeStamp = switch (timestampShape) {
+            case "kite" -> "2025-01-02T09:15:00+0530";
+            case "iso" -> "2025-01-02T09:15:00+05:30";
+            default -> "2025-01-02 09:15:00";
+        };
+        bar.open = 1890.05;
+        bar.high = 1894.6;
+        bar.low = 1888.0;
+        bar.close = 1893.35;
+        bar.volume = 125_430;
+    }
+
+    @Benchmark
+    public long parseTimestamp() {
+        return KiteTimestampParser.toEpochSecond(bar.timeStamp, exchangeZone);
+    }
+
+    @Benchmark
+    public Candle toCandle() {
+        return KiteCandleMapper.toCandle(instrument, IntervalType.ONE_MINUTE, bar, exchangeZone);
+    }
+}
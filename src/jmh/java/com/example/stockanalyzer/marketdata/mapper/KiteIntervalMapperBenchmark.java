@@ -0,0 +1,45 @@
+package com.example.stockanalyzer.marketdata.mapper;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import com.example.stockanalyzer.marketdata.entites.IntervalType;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class KiteIntervalMapperBenchmark {
+
+    @Param({"ONE_MINUTE", "ONE_DAY"})
+    public IntervalType intervalType;
+
+    private final Instant candleStart = Instant.parse("2025-01-02T03:45:00Z");
+
+    @Benchmark
+    public String toKiteInterval() {
+        return KiteIntervalMapper.toKiteInterval(intervalType);
+    }
+
+    @Benchmark
+    public Instant candleEnd() {
+        return KiteIntervalMapper.candleEnd(candleStart, intervalType);
+    }
+
+    @Benchmark
+    public Duration maxRequestRange() {
+        return KiteIntervalMapper.maxRequestRange(intervalType);
+    }
+}
@@ -0,0 +1,175 @@
+package com.example.stockanalyzer.marketdata.repository;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import com.example.stockanalyzer.marketdata.entites.Candle;
+import com.example.stockanalyzer.marketdata.entites.Instrument;
+import com.example.stockanalyzer.marketdata.entites.IntervalType;
+import com.example.stockanalyzer.marketdata.ingestion.CandleBatch;
+
+/**
+ * Writing one session of one-minute candles, where {@code duplicatePercent} of the batch is
+ * already stored, with the strategies ingestion has used:
+ * <ul>
+ *   <li>{@code lookupThenInsert}: the original {@code saveNewCandles}, one existence query and
+ *   one insert per candle</li>
+ *   <li>{@code multiRowInsertIgnore}: {@link CandleBulkRepositoryImpl#insertIgnoreAll}</li>
+ *   <li>{@code multiRowUpsert}: {@link CandleBulkRepositoryImpl#upsertAll}</li>
+ * </ul>
+ * Runs against in-memory H2 in MySQL mode, so it compares round trips and statement shapes rather
+ * than InnoDB behaviour.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CandlePersistenceBenchmark {
+
+    private static final String SCHEMA = "CREATE TABLE candles ("
+            + "id BIGINT AUTO_INCREMENT PRIMARY KEY, "
+            + "instrument_id BIGINT NOT NULL, "
+            + "interval_type VARCHAR(20) NOT NULL, "
+            + "candle_start DATETIME(6) NOT NULL, "
+            + "candle_end DATETIME(6) NOT NULL, "
+            + "open_price DECIMAL(19,4) NOT NULL, "
+            + "high_price DECIMAL(19,4) NOT NULL, "
+            + "low_price DECIMAL(19,4) NOT NULL, "
+            + "close_price DECIMAL(19,4) NOT NULL, "
+            + "volume BIGINT NOT NULL, "
+            + "trade_count BIGINT, "
+            + "vwap DECIMAL(19,4), "
+            + "created_at DATETIME(6) NOT NULL, "
+            + "updated_at DATETIME(6) NOT NULL, "
+            + "CONSTRAINT uk_candles_instrument_interval_start UNIQUE (instrument_id, interval_type, candle_start))";
+
+    private static final String EXISTS = "SELECT COUNT(*) FROM candles "
+            + "WHERE instrument_id = ? AND interval_type = ? AND candle_start = ?";
+
+    private static final String INSERT = "INSERT INTO candles ("
+            + "instrument_id, interval_type, candle_start, candle_end, "
+            + "open_price, high_price, low_price, close_price, "
+            + "volume, trade_count, vwap, created_at, updated_at) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    @Param({"375"})
+    public int batchSize;
+
+    @Param({"0", "50"})
+    public int duplicatePercent;
+
+    private SingleConnectionDataSource dataSource;
+    private JdbcTemplate jdbcTemplate;
+    private CandleBulkRepositoryImpl bulkRepository;
+    private Instrument instrument;
+    private long sessionStartSecond = Instant.parse("2025-01-02T03:45:00Z").getEpochSecond();
+    private List<Candle> batch;
+    private CandleBatch rows;
+
+    @Setup(Level.Trial)
+    public void openDatabase() {
+        dataSource = new SingleConnectionDataSource(
+                "jdbc:h2:mem:candles-" + System.nanoTime() + ";MODE=MySQL;DB_CLOSE_DELAY=-1", true);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute(SCHEMA);
+        bulkRepository = new CandleBulkRepositoryImpl(jdbcTemplate, new CandleBlockRepository(jdbcTemplate, List.of()));
+        instrument = new Instrument();
+        instrument.setId(1L);
+    }
+
+    /**
+     * Each invocation writes a fresh session whose first {@code duplicatePercent} bars overlap the
+     * previous one, so the table grows like a real series instead of turning into all duplicates.
+     */
+    @Setup(Level.Invocation)
+    public void nextBatch() {
+        int overlap = batchSize * duplicatePercent / 100;
+        sessionStartSecond += (long) (batchSize - overlap) * 60;
+        batch = new ArrayList<>(batchSize);
+        for (int i = 0; i < batchSize; i++) {
+            Instant start = Instant.ofEpochSecond(sessionStartSecond - overlap * 60L + i * 60L);
+            Candle candle = new Candle();
+            candle.setInstrument(instrument);
+            candle.setIntervalType(IntervalType.ONE_MINUTE);
+            candle.setCandleStart(start);
+            candle.setCandleEnd(start.plusSeconds(60));
+            candle.setOpenPrice(new BigDecimal("1890.0500"));
+            candle.setHighPrice(new BigDecimal("1894.6000"));
+            candle.setLowPrice(new BigDecimal("1888.0000"));
+            candle.setClosePrice(new BigDecimal("1893.3500"));
+            candle.setVolume(125_430L + i);
+            batch.add(candle);
+        }
+        rows = CandleBatch.of(batch);
+    }
+
+    @TearDown(Level.Iteration)
+    public void truncate() {
+        jdbcTemplate.execute("TRUNCATE TABLE candles");
+    }
+
+    @TearDown(Level.Trial)
+    public void closeDatabase() {
+        dataSource.destroy();
+    }
+
+    @Benchmark
+    public int lookupThenInsert() {
+        int inserted = 0;
+        Timestamp now = Timestamp.from(Instant.now());
+        for (Candle candle : batch) {
+            Integer existing = jdbcTemplate.queryForObject(EXISTS, Integer.class,
+                    candle.getInstrument().getId(),
+                    candle.getIntervalType().name(),
+                    Timestamp.from(candle.getCandleStart()));
+            if (existing == null || existing == 0) {
+                inserted += jdbcTemplate.update(INSERT,
+                        candle.getInstrument().getId(),
+                        candle.getIntervalType().name(),
+                        Timestamp.from(candle.getCandleStart()),
+                        Timestamp.from(candle.getCandleEnd()),
+                        candle.getOpenPrice(),
+                        candle.getHighPrice(),
+                        candle.getLowPrice(),
+                        candle.getClosePrice(),
+                        candle.getVolume(),
+                        candle.getTradeCount(),
+                        candle.getVwap(),
+                        now,
+                        now);
+            }
+        }
+        return inserted;
+    }
+
+    @Benchmark
+    public int multiRowInsertIgnore() {
+        return bulkRepository.insertIgnoreAll(rows);
+    }
+
+    @Benchmark
+    public CandleBatch multiRowUpsert() {
+        bulkRepository.upsertAll(rows);
+        return rows;
+    }
+}
@@ -0,0 +1,140 @@
+package com.example.stockanalyzer.marketdata.websocket;
+
+import java.nio.ByteBuffer;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import com.example.stockanalyzer.marketdata.dto.CandleMessage;
+import com.example.stockanalyzer.marketdata.entites.IntervalType;
+import tools.jackson.databind.json.JsonMapper;
+
+/**
+ * JSON against {@link CandleFrameCodec} frames on a synthetic feed shaped like live ticking: many
+ * updates to each instrument's bar in progress, with a new bar every {@code updatesPerBar} updates.
+ * Each operation encodes the whole feed; the {@code bytes} and {@code frames} counters give the
+ * wire size per frame of each format.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CandleFeedEncodingBenchmark {
+
+    private static final long SESSION_OPEN_MILLIS = 1_735_703_100_000L; // 2025-01-01T03:45:00Z
+
+    @Param({"500"})
+    public int instruments;
+
+    @Param({"200000"})
+    public int updates;
+
+    @Param({"30"})
+    public int updatesPerBar;
+
+    private final JsonMapper jsonMapper = JsonMapper.builder().build();
+    private final ByteBuffer buffer = ByteBuffer.allocate(CandleFrameCodec.MAX_FRAME_BYTES);
+    private CandleFrame[] frames;
+    private CandleMessage[] messages;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class WireSize {
+        public long bytes;
+        public long frames;
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        frames = generate();
+        messages = new CandleMessage[frames.length];
+        for (int i = 0; i < frames.length; i++) {
+            messages[i] = frames[i].toMessage();
+            messages[i].setSymbol("SYM" + frames[i].instrumentId());
+            messages[i].setExchangeCode("NSE");
+        }
+    }
+
+    @Benchmark
+    public long json(WireSize size) {
+        long bytes = 0;
+        for (CandleMessage message : messages) {
+            bytes += jsonMapper.writeValueAsBytes(message).length;
+        }
+        return count(size, bytes);
+    }
+
+    @Benchmark
+    public long binaryFull(WireSize size) {
+        long bytes = 0;
+        for (CandleFrame frame : frames) {
+            buffer.clear();
+            CandleFrameCodec.encode(frame, null, buffer);
+            bytes += buffer.position();
+        }
+        return count(size, bytes);
+    }
+
+    @Benchmark
+    public long binaryDelta(WireSize size) {
+        Map<CandleTopic, CandleFrame> previous = new HashMap<>();
+        long bytes = 0;
+        for (CandleFrame frame : frames) {
+            buffer.clear();
+            CandleFrameCodec.encode(frame, previous.put(new CandleTopic(frame.instrumentId(), frame.intervalType()), frame),
+                    buffer);
+            bytes += buffer.position();
+        }
+        return count(size, bytes);
+    }
+
+    private long count(WireSize size, long bytes) {
+        size.bytes += bytes;
+        size.frames += frames.length;
+        return bytes;
+    }
+
+    private CandleFrame[] generate() {
+        SplittableRandom random = new SplittableRandom(42);
+        long[] close = new long[instruments];
+        long[] open = new long[instruments];
+        long[] high = new long[instruments];
+        long[] low = new long[instruments];
+        long[] volume = new long[instruments];
+        for (int i = 0; i < instruments; i++) {
+            close[i] = open[i] = high[i] = low[i] = 1_000_000L + random.nextLong(50_000_000L);
+        }
+        CandleFrame[] generated = new CandleFrame[updates];
+        for (int u = 0; u < updates; u++) {
+            int i = u % instruments;
+            long bar = (u / instruments) / updatesPerBar;
+            if ((u / instruments) % updatesPerBar == 0) {
+                open[i] = high[i] = low[i] = close[i];
+                volume[i] = 0;
+            }
+            close[i] += random.nextLong(-500, 501);
+            high[i] = Math.max(high[i], close[i]);
+            low[i] = Math.min(low[i], close[i]);
+            volume[i] += random.nextLong(1, 2_000);
+            long start = SESSION_OPEN_MILLIS + bar * 60_000L;
+            generated[u] = new CandleFrame(100_000L + i, IntervalType.ONE_MINUTE,
+                    start, start + 60_000L, open[i], high[i], low[i], close[i], volume[i]);
+        }
+        return generated;
+    }
+}
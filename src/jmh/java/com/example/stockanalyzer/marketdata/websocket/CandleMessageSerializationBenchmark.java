@@ -0,0 +1,68 @@
+package com.example.stockanalyzer.marketdata.websocket;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import com.example.stockanalyzer.marketdata.dto.CandleMessage;
+import com.example.stockanalyzer.marketdata.entites.IntervalType;
+import tools.jackson.databind.json.JsonMapper;
+
+/**
+ * Cost of rendering one live candle update in each wire format the WebSocket feed offers.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CandleMessageSerializationBenchmark {
+
+    private final JsonMapper jsonMapper = JsonMapper.builder().build();
+    private final ByteBuffer buffer = ByteBuffer.allocate(CandleFrameCodec.MAX_FRAME_BYTES);
+    private CandleMessage message;
+    private CandleFrame previous;
+    private CandleFrame frame;
+
+    @Setup
+    public void setUp() {
+        long start = 1_735_789_500_000L;
+        previous = new CandleFrame(408_065L, IntervalType.ONE_MINUTE, start, start + 60_000L,
+                18_900_500L, 18_946_000L, 18_880_000L, 18_933_500L, 125_430L);
+        frame = new CandleFrame(408_065L, IntervalType.ONE_MINUTE, start, start + 60_000L,
+                18_900_500L, 18_946_000L, 18_880_000L, 18_935_000L, 125_911L);
+        message = frame.toMessage();
+        message.setId(90_125_431L);
+        message.setSymbol("INFY");
+        message.setExchangeCode("NSE");
+        message.setInstrumentName("INFOSYS LIMITED");
+    }
+
+    @Benchmark
+    public byte[] json() {
+        return jsonMapper.writeValueAsBytes(message);
+    }
+
+    @Benchmark
+    public ByteBuffer binaryFull() {
+        buffer.clear();
+        CandleFrameCodec.encode(frame, null, buffer);
+        return buffer;
+    }
+
+    @Benchmark
+    public ByteBuffer binaryDelta() {
+        buffer.clear();
+        CandleFrameCodec.encode(frame, previous, buffer);
+        return buffer;
+    }
+}
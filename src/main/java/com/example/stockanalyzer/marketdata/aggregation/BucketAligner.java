@@ -0,0 +1,54 @@
+package com.example.stockanalyzer.marketdata.aggregation;
+
+import java.time.Instant;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import com.example.stockanalyzer.marketdata.entites.Exchange;
+import com.example.stockanalyzer.marketdata.entites.IntervalType;
+
+/**
+ * Bar boundaries aligned to an exchange session: intraday buckets start at the session open
+ * (09:15, 09:20, ... for NSE 5-minute bars; 09:15, 10:15, ... for hourly bars) and daily buckets
+ * start at local midnight, matching the bars the provider returns.
+ *
+ * Works on epoch millis so it can sit on the tick path. Every intraday interval divides a day, so
+ * one offset per exchange is enough.
+ */
+public final class BucketAligner {
+
+    private static final long MILLIS_PER_DAY = 86_400_000L;
+
+    private BucketAligner() {
+    }
+
+    /**
+     * Session open expressed as millis after UTC midnight, e.g. 09:15 IST -> 03:45 UTC.
+     */
+    public static long sessionOpenOffsetMillis(Exchange exchange) {
+        ZoneOffset offset = zoneOffset(exchange);
+        LocalTime open = exchange.getOpenTime().toLocalTime();
+        long localMillis = open.toSecondOfDay() * 1000L;
+        return Math.floorMod(localMillis - offset.getTotalSeconds() * 1000L, MILLIS_PER_DAY);
+    }
+
+    public static long zoneOffsetMillis(Exchange exchange) {
+        return zoneOffset(exchange).getTotalSeconds() * 1000L;
+    }
+
+    public static long bucketStart(long epochMillis, IntervalType intervalType, long sessionOpenOffsetMillis, long zoneOffsetMillis) {
+        if (intervalType == IntervalType.ONE_DAY) {
+            return Math.floorDiv(epochMillis + zoneOffsetMillis, MILLIS_PER_DAY) * MILLIS_PER_DAY - zoneOffsetMillis;
+        }
+        long length = intervalType.getMinutes() * 60_000L;
+        return Math.floorDiv(epochMillis - sessionOpenOffsetMillis, length) * length + sessionOpenOffsetMillis;
+    }
+
+    public static long bucketEnd(long bucketStartMillis, IntervalType intervalType) {
+        return bucketStartMillis + intervalType.getMinutes() * 60_000L;
+    }
+
+    private static ZoneOffset zoneOffset(Exchange exchange) {
+        return ZoneId.of(exchange.getTimezone()).getRules().getOffset(Instant.now());
+    }
+}
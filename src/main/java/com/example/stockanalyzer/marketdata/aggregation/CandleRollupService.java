@@ -0,0 +1,235 @@
+package com.example.stockanalyzer.marketdata.aggregation;
+
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import com.example.stockanalyzer.marketdata.entites.Exchange;
+import com.example.stockanalyzer.marketdata.entites.Instrument;
+import com.example.stockanalyzer.marketdata.entites.IntervalType;
+import com.example.stockanalyzer.marketdata.ingestion.CandleBatch;
+import com.example.stockanalyzer.marketdata.ingestion.CandleBatchPersister;
+import com.example.stockanalyzer.marketdata.ingestion.CandlesPersistedEvent;
+import com.example.stockanalyzer.marketdata.repository.CandleSeriesScanRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Derives higher intervals from stored one-minute candles, so ingestion only needs to fetch
+ * {@link IntervalType#ONE_MINUTE} from the provider (one call per instrument instead of six).
+ *
+ * Rollups are incremental: for each batch of new minutes only the buckets those minutes fall into
+ * are recomputed, from the minutes stored for that bucket, and upserted. Buckets are aligned to the
+ * exchange session via {@link BucketAligner}, so they match the provider's own bars.
+ *
+ * Rollups run on one virtual thread, off the persisting thread. Minutes committed while a rollup
+ * runs are coalesced per instrument into one pending range, so a burst of small commits costs one
+ * read and one upsert per instrument. Minutes are read as primitive rows and aggregated in
+ * {@code PriceScale} longs.
+ */
+@Slf4j
+@Service
+public class CandleRollupService {
+
+    private static final long NO_BUCKET = Long.MIN_VALUE;
+
+    private final CandleSeriesScanRepository candleSeriesScanRepository;
+    private final CandleBatchPersister candleBatchPersister;
+    private final boolean enabled;
+    private final Set<IntervalType> targetIntervals;
+    private final IntervalType[] targets;
+    private final Map<Long, MinuteRange> pending = new ConcurrentHashMap<>();
+    private final Semaphore pendingSignal = new Semaphore(0);
+    private final Thread rollupThread;
+
+    public CandleRollupService(
+            CandleSeriesScanRepository candleSeriesScanRepository,
+            CandleBatchPersister candleBatchPersister,
+            @Value("${ingestion.rollup.enabled:true}") boolean enabled,
+            @Value("${ingestion.rollup.target-intervals:FIVE_MINUTE,FIFTEEN_MINUTE,THIRTY_MINUTE,ONE_HOUR,ONE_DAY}")
+            List<IntervalType> targetIntervals) {
+        this.candleSeriesScanRepository = candleSeriesScanRepository;
+        this.candleBatchPersister = candleBatchPersister;
+        this.enabled = enabled;
+        this.targetIntervals = targetIntervals.isEmpty()
+                ? EnumSet.noneOf(IntervalType.class)
+                : EnumSet.copyOf(targetIntervals);
+        this.targetIntervals.remove(IntervalType.ONE_MINUTE);
+        this.targets = this.targetIntervals.toArray(new IntervalType[0]);
+        this.rollupThread = isEnabled() ? Thread.ofVirtual().name("candle-rollup").start(this::rollupLoop) : null;
+    }
+
+    public boolean isEnabled() {
+        return enabled && !targetIntervals.isEmpty();
+    }
+
+    @EventListener
+    public void onCandlesPersisted(CandlesPersistedEvent event) {
+        if (!isEnabled()) {
+            return;
+        }
+        CandleBatch candles = event.candles();
+        boolean queued = false;
+        for (int i = 0; i < candles.size(); i++) {
+            if (candles.intervalType(i) != IntervalType.ONE_MINUTE) {
+                continue;
+            }
+            long start = candles.startSecond(i) * 1000L;
+            pending.merge(
+                    candles.instrumentId(i),
+                    new MinuteRange(candles.instrument(i), start, start),
+                    MinuteRange::span);
+            queued = true;
+        }
+        if (queued) {
+            pendingSignal.release();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (rollupThread != null) {
+            rollupThread.interrupt();
+        }
+    }
+
+    private void rollupLoop() {
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                pendingSignal.acquire();
+                pendingSignal.drainPermits();
+                for (Long instrumentId : pending.keySet()) {
+                    MinuteRange range = pending.remove(instrumentId);
+                    if (range == null) {
+                        continue;
+                    }
+                    try {
+                        rollUp(range.instrument(), range.earliest(), range.latest());
+                    } catch (RuntimeException e) {
+                        log.warn("Rollup failed for {}: {}", range.instrument().getSymbol(), e.getMessage());
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Recomputes every target-interval bucket touched by new minutes of {@code instrument} starting
+     * between {@code earliest} and {@code latest} (epoch millis, inclusive).
+     */
+    public void rollUp(Instrument instrument, long earliest, long latest) {
+        Exchange exchange = instrument.getExchange();
+        long openOffset = BucketAligner.sessionOpenOffsetMillis(exchange);
+        long zoneOffset = BucketAligner.zoneOffsetMillis(exchange);
+
+        // One read covers every affected bucket: from the earliest bucket start to the latest bucket end.
+        long readFrom = earliest;
+        long readTo = latest;
+        long[] firstBucket = new long[targets.length];
+        long[] lastBucket = new long[targets.length];
+        for (int t = 0; t < targets.length; t++) {
+            firstBucket[t] = BucketAligner.bucketStart(earliest, targets[t], openOffset, zoneOffset);
+            lastBucket[t] = BucketAligner.bucketStart(latest, targets[t], openOffset, zoneOffset);
+            readFrom = Math.min(readFrom, firstBucket[t]);
+            readTo = Math.max(readTo, BucketAligner.bucketEnd(lastBucket[t], targets[t]));
+        }
+
+        Buckets buckets = new Buckets(instrument, targets.length);
+        candleSeriesScanRepository.scan(
+                instrument.getId(),
+                IntervalType.ONE_MINUTE,
+                Math.floorDiv(readFrom, 1000L) - 1,
+                Math.floorDiv(readTo - 1, 1000L),
+                (instrumentId, intervalType, startSecond, endSecond, open, high, low, close, volume) -> {
+                    for (int t = 0; t < targets.length; t++) {
+                        long bucket = BucketAligner.bucketStart(startSecond * 1000L, targets[t], openOffset, zoneOffset);
+                        if (bucket >= firstBucket[t] && bucket <= lastBucket[t]) {
+                            buckets.add(t, bucket, open, high, low, close, volume);
+                        }
+                    }
+                });
+        buckets.flushAll();
+        candleBatchPersister.upsert(buckets.rolledUp);
+    }
+
+    private record MinuteRange(Instrument instrument, long earliest, long latest) {
+
+        MinuteRange span(MinuteRange other) {
+            return new MinuteRange(instrument, Math.min(earliest, other.earliest), Math.max(latest, other.latest));
+        }
+    }
+
+    /**
+     * The bucket being built for each target interval. Minutes arrive in start order, so a bucket
+     * is complete once a minute of the next one arrives, and the latest minute carries the close.
+     */
+    private final class Buckets {
+
+        private final Instrument instrument;
+        private final long[] start;
+        private final long[] open;
+        private final long[] high;
+        private final long[] low;
+        private final long[] close;
+        private final long[] volume;
+        private final CandleBatch rolledUp = new CandleBatch();
+
+        Buckets(Instrument instrument, int targetCount) {
+            this.instrument = instrument;
+            this.start = new long[targetCount];
+            this.open = new long[targetCount];
+            this.high = new long[targetCount];
+            this.low = new long[targetCount];
+            this.close = new long[targetCount];
+            this.volume = new long[targetCount];
+            Arrays.fill(start, NO_BUCKET);
+        }
+
+        void add(int t, long bucket, long minuteOpen, long minuteHigh, long minuteLow, long minuteClose,
+                 long minuteVolume) {
+            if (start[t] != bucket) {
+                flush(t);
+                start[t] = bucket;
+                open[t] = minuteOpen;
+                high[t] = minuteHigh;
+                low[t] = minuteLow;
+                volume[t] = 0;
+            }
+            high[t] = Math.max(high[t], minuteHigh);
+            low[t] = Math.min(low[t], minuteLow);
+            close[t] = minuteClose;
+            volume[t] += minuteVolume;
+        }
+
+        void flushAll() {
+            for (int t = 0; t < start.length; t++) {
+                flush(t);
+            }
+        }
+
+        private void flush(int t) {
+            if (start[t] == NO_BUCKET) {
+                return;
+            }
+            rolledUp.add(
+                    instrument,
+                    targets[t],
+                    start[t] / 1000L,
+                    BucketAligner.bucketEnd(start[t], targets[t]) / 1000L,
+                    open[t],
+                    high[t],
+                    low[t],
+                    close[t],
+                    volume[t]);
+            start[t] = NO_BUCKET;
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package com.example.stockanalyzer.marketdata.aggregation;
+
+import com.example.stockanalyzer.marketdata.ingestion.CandleBatch;
+
+/**
+ * Published by {@link TickAggregationService} with bars built from streamed ticks as they close.
+ * These bars are provisional and are never stored: polling persists the provider's bar for the
+ * same start, which then reaches listeners as a {@code CandlesPersistedEvent}. The batch is a
+ * private copy that listeners must not modify.
+ */
+public record CandlesStreamedEvent(CandleBatch candles) {
+}
@@ -0,0 +1,22 @@
+package com.example.stockanalyzer.marketdata.aggregation;
+
+import com.example.stockanalyzer.marketdata.entites.IntervalType;
+
+/**
+ * Receives bars completed by {@link TickCandleAggregator}. Values are passed as primitives so the
+ * aggregator itself never allocates; the listener decides what, if anything, to build.
+ */
+@FunctionalInterface
+public interface ClosedBarListener {
+
+    void onBarClosed(
+            long instrumentId,
+            IntervalType intervalType,
+            long startMillis,
+            long endMillis,
+            double open,
+            double high,
+            double low,
+            double close,
+            long volume);
+}
@@ -0,0 +1,86 @@
+package com.example.stockanalyzer.marketdata.aggregation;
+
+import java.util.Arrays;
+
+/**
+ * Open-addressing {@code long -> int} map with linear probing. Lookups neither box nor allocate,
+ * which keeps instrument-token resolution off the allocation profile of the tick path.
+ *
+ * Not thread-safe. {@link Long#MIN_VALUE} is reserved as the empty-slot marker.
+ */
+public final class LongIntHashMap {
+
+    private static final long EMPTY = Long.MIN_VALUE;
+    private static final float LOAD_FACTOR = 0.5f;
+
+    private long[] keys;
+    private int[] values;
+    private int mask;
+    private int size;
+    private final int missingValue;
+
+    public LongIntHashMap(int expectedSize, int missingValue) {
+        int capacity = Integer.highestOneBit(Math.max(4, (int) (expectedSize / LOAD_FACTOR)) - 1) << 1;
+        this.keys = new long[capacity];
+        this.values = new int[capacity];
+        this.mask = capacity - 1;
+        this.missingValue = missingValue;
+        Arrays.fill(keys, EMPTY);
+    }
+
+    public int get(long key) {
+        int index = mix(key) & mask;
+        while (true) {
+            long candidate = keys[index];
+            if (candidate == key) {
+                return values[index];
+            }
+            if (candidate == EMPTY) {
+                return missingValue;
+            }
+            index = (index + 1) & mask;
+        }
+    }
+
+    public void put(long key, int value) {
+        if (key == EMPTY) {
+            throw new IllegalArgumentException("Key " + key + " is reserved");
+        }
+        if (size + 1 > keys.length * LOAD_FACTOR) {
+            resize(keys.length << 1);
+        }
+        int index = mix(key) & mask;
+        while (keys[index] != EMPTY && keys[index] != key) {
+            index = (index + 1) & mask;
+        }
+        if (keys[index] == EMPTY) {
+            size++;
+        }
+        keys[index] = key;
+        values[index] = value;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private void resize(int capacity) {
+        long[] oldKeys = keys;
+        int[] oldValues = values;
+        keys = new long[capacity];
+        values = new int[capacity];
+        mask = capacity - 1;
+        size = 0;
+        Arrays.fill(keys, EMPTY);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != EMPTY) {
+                put(oldKeys[i], oldValues[i]);
+            }
+        }
+    }
+
+    private static int mix(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+}
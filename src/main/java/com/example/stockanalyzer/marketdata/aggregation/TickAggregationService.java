@@ -0,0 +1,215 @@
+package com.example.stockanalyzer.marketdata.aggregation;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+import com.example.stockanalyzer.marketdata.entites.Instrument;
+import com.example.stockanalyzer.marketdata.entites.IntervalType;
+import com.example.stockanalyzer.marketdata.ingestion.CandleBatch;
+import com.example.stockanalyzer.marketdata.mapper.PriceScale;
+import com.example.stockanalyzer.marketdata.repository.InstrumentRepository;
+import com.example.stockanalyzer.marketdata.streaming.TickConsumer;
+import com.zerodhatech.models.Tick;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Feeds streamed ticks into one {@link TickCandleAggregator} per ticker connection (each is
+ * confined to its socket thread) and publishes closed bars as {@link CandlesStreamedEvent}s.
+ *
+ * A bar built from sampled ticks can miss trades, so it is only pushed to live subscribers and is
+ * never written to {@code candles}: the stored bar is always the provider's, persisted by polling,
+ * and the minute rollup builds on that. Closed bars are handed to a bounded queue and published in
+ * batches by a separate virtual thread, so slow listeners never block the socket thread; if the
+ * queue is full the bar is dropped and counted. Bars that were already open when streaming started
+ * or resumed after a disconnect are partial and are never emitted.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "streaming.aggregation.enabled", havingValue = "true", matchIfMissing = true)
+public class TickAggregationService implements TickConsumer {
+
+    private static final long FLUSH_INTERVAL_MILLIS = 1_000;
+
+    private final InstrumentRepository instrumentRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final long closeGraceMillis;
+    private final int publishBatchSize;
+
+    private final Map<String, TickCandleAggregator> aggregators = new ConcurrentHashMap<>();
+    private final BlockingQueue<ClosedBar> closedBars;
+    private final AtomicLong droppedBars = new AtomicLong();
+    private final Thread publishThread;
+    private volatile Map<Long, Instrument> instrumentsById;
+
+    public TickAggregationService(
+            InstrumentRepository instrumentRepository,
+            ApplicationEventPublisher eventPublisher,
+            @Value("${streaming.aggregation.close-grace-millis:2000}") long closeGraceMillis,
+            @Value("${streaming.aggregation.queue-capacity:100000}") int queueCapacity,
+            @Value("${streaming.aggregation.publish-batch-size:1000}") int publishBatchSize) {
+        this.instrumentRepository = instrumentRepository;
+        this.eventPublisher = eventPublisher;
+        this.closeGraceMillis = closeGraceMillis;
+        this.publishBatchSize = publishBatchSize;
+        this.closedBars = new ArrayBlockingQueue<>(queueCapacity);
+        this.publishThread = Thread.ofVirtual().name("tick-bar-publish").start(this::publishLoop);
+    }
+
+    @Override
+    public void onTicks(String connectionName, List<Tick> ticks) {
+        TickCandleAggregator aggregator = aggregators.computeIfAbsent(connectionName, name -> newAggregator());
+        for (int i = 0; i < ticks.size(); i++) {
+            Tick tick = ticks.get(i);
+            aggregator.onTick(
+                    tick.getInstrumentToken(),
+                    tick.getLastTradedPrice(),
+                    (long) tick.getVolumeTradedToday(),
+                    exchangeTimeMillis(tick));
+        }
+        aggregator.closeExpired(System.currentTimeMillis(), closeGraceMillis);
+    }
+
+    /**
+     * Ticks were missed while the socket was down, so bars still open on it are partial.
+     */
+    @Override
+    public void onDisconnected(String connectionName) {
+        TickCandleAggregator aggregator = aggregators.get(connectionName);
+        if (aggregator != null) {
+            aggregator.resetBaselines();
+        }
+    }
+
+    public long droppedBars() {
+        return droppedBars.get();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        publishThread.interrupt();
+    }
+
+    private TickCandleAggregator newAggregator() {
+        Map<Long, Instrument> instruments = instruments();
+        TickCandleAggregator aggregator = new TickCandleAggregator(this::onBarClosed, instruments.size());
+        for (Instrument instrument : instruments.values()) {
+            aggregator.register(
+                    instrument.getKiteInstrumentToken(),
+                    instrument.getId(),
+                    BucketAligner.sessionOpenOffsetMillis(instrument.getExchange()),
+                    BucketAligner.zoneOffsetMillis(instrument.getExchange()));
+        }
+        return aggregator;
+    }
+
+    private Map<Long, Instrument> instruments() {
+        Map<Long, Instrument> loaded = instrumentsById;
+        if (loaded == null) {
+            loaded = instrumentRepository.findByIsActiveTrueAndKiteInstrumentTokenIsNotNull().stream()
+                    .collect(Collectors.toMap(Instrument::getId, Function.identity()));
+            instrumentsById = loaded;
+        }
+        return loaded;
+    }
+
+    private void onBarClosed(
+            long instrumentId,
+            IntervalType intervalType,
+            long startMillis,
+            long endMillis,
+            double open,
+            double high,
+            double low,
+            double close,
+            long volume) {
+
+        ClosedBar bar = new ClosedBar(
+                instrumentId,
+                intervalType,
+                startMillis / 1000,
+                endMillis / 1000,
+                PriceScale.toScaled(open),
+                PriceScale.toScaled(high),
+                PriceScale.toScaled(low),
+                PriceScale.toScaled(close),
+                volume);
+        if (!closedBars.offer(bar)) {
+            droppedBars.incrementAndGet();
+        }
+    }
+
+    private void publishLoop() {
+        List<ClosedBar> drained = new ArrayList<>(publishBatchSize);
+        CandleBatch batch = new CandleBatch(publishBatchSize);
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                ClosedBar first = closedBars.poll(FLUSH_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                drained.add(first);
+                closedBars.drainTo(drained, publishBatchSize - 1);
+                Map<Long, Instrument> instruments = instrumentsById;
+                for (int i = 0; i < drained.size(); i++) {
+                    ClosedBar bar = drained.get(i);
+                    batch.add(
+                            instruments.get(bar.instrumentId()),
+                            bar.intervalType(),
+                            bar.startSecond(),
+                            bar.endSecond(),
+                            bar.open(),
+                            bar.high(),
+                            bar.low(),
+                            bar.close(),
+                            bar.volume());
+                }
+                eventPublisher.publishEvent(new CandlesStreamedEvent(batch.copy()));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (RuntimeException e) {
+                log.warn("Failed to publish {} streamed bars: {}", drained.size(), e.getMessage());
+            } finally {
+                drained.clear();
+                batch.clear();
+            }
+        }
+    }
+
+    private static long exchangeTimeMillis(Tick tick) {
+        if (tick.getLastTradedTime() != null) {
+            return tick.getLastTradedTime().getTime();
+        }
+        if (tick.getTickTimestamp() != null) {
+            return tick.getTickTimestamp().getTime();
+        }
+        return System.currentTimeMillis();
+    }
+
+    /**
+     * A closed bar as queued for persistence: epoch seconds and {@link PriceScale} prices, so the
+     * socket thread allocates one small record per bar and no {@link java.math.BigDecimal}s.
+     */
+    private record ClosedBar(
+            long instrumentId,
+            IntervalType intervalType,
+            long startSecond,
+            long endSecond,
+            long open,
+            long high,
+            long low,
+            long close,
+            long volume) {
+    }
+}
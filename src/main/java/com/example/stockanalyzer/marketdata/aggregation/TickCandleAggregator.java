@@ -0,0 +1,305 @@
+package com.example.stockanalyzer.marketdata.aggregation;
+
+import java.util.Arrays;
+import com.example.stockanalyzer.marketdata.entites.IntervalType;
+
+/**
+ * Builds OHLCV bars for every {@link IntervalType} from a stream of ticks.
+ *
+ * State lives in parallel primitive arrays indexed by {@code slot * INTERVALS + interval}, with
+ * instrument tokens resolved through a {@link LongIntHashMap}, so {@link #onTick} performs no
+ * allocation and takes no locks. An instance must be confined to one thread (for example one ticker
+ * connection, or a file replay); run one instance per tick source to scale out.
+ *
+ * <ul>
+ *     <li>Volume: ticks carry the cumulative day volume; each bar receives the delta since the
+ *     previous tick. A lower cumulative value on a later day is a session reset. A tick that adds no
+ *     volume reports no new trade (full-mode depth updates repeat the last trade and its time) and
+ *     is skipped, unless the instrument never reports volume, as for indices.</li>
+ *     <li>Out-of-order ticks inside the open bar update high/low and volume but only move the close
+ *     if they are not older than the latest tick seen for that bar.</li>
+ *     <li>Late ticks for a bar that has already been emitted, including after it was closed by
+ *     {@link #closeExpired}, are counted and dropped for that interval; they still apply to longer
+ *     intervals whose bar is still open.</li>
+ *     <li>The first tick of an instrument, and the first after {@link #resetBaselines}, only sets
+ *     the volume baseline. Trades before it were missed, so bars starting at or before it are
+ *     partial; they are counted and not emitted.</li>
+ * </ul>
+ */
+public final class TickCandleAggregator {
+
+    private static final IntervalType[] INTERVALS = IntervalType.values();
+    private static final int INTERVAL_COUNT = INTERVALS.length;
+    private static final long NO_BAR = Long.MIN_VALUE;
+    private static final int UNKNOWN = -1;
+
+    private final ClosedBarListener listener;
+    private final LongIntHashMap slotsByToken;
+    private int slotCount;
+
+    // Per instrument
+    private long[] instrumentIds;
+    private long[] sessionOpenOffsets;
+    private long[] zoneOffsets;
+    private long[] lastCumulativeVolume;
+    private long[] lastVolumeDay;
+    private long[] baselineAt;
+
+    // Per instrument x interval
+    private long[] barStart;
+    private long[] lastEmittedStart;
+    private long[] barLastTickAt;
+    private double[] barOpen;
+    private double[] barHigh;
+    private double[] barLow;
+    private double[] barClose;
+    private long[] barVolume;
+
+    private long ticks;
+    private long unknownTicks;
+    private long lateTicks;
+    private long staleTicks;
+    private long partialBars;
+    private long barsEmitted;
+
+    public TickCandleAggregator(ClosedBarListener listener, int expectedInstruments) {
+        this.listener = listener;
+        this.slotsByToken = new LongIntHashMap(expectedInstruments, UNKNOWN);
+        allocate(Math.max(16, expectedInstruments));
+    }
+
+    /**
+     * Registers an instrument before its first tick. Not part of the hot path.
+     */
+    public void register(long token, long instrumentId, long sessionOpenOffsetMillis, long zoneOffsetMillis) {
+        if (slotsByToken.get(token) != UNKNOWN) {
+            return;
+        }
+        if (slotCount == instrumentIds.length) {
+            grow(instrumentIds.length * 2);
+        }
+        int slot = slotCount++;
+        instrumentIds[slot] = instrumentId;
+        sessionOpenOffsets[slot] = sessionOpenOffsetMillis;
+        zoneOffsets[slot] = zoneOffsetMillis;
+        lastCumulativeVolume[slot] = -1;
+        lastVolumeDay[slot] = NO_BAR;
+        baselineAt[slot] = NO_BAR;
+        slotsByToken.put(token, slot);
+    }
+
+    public void onTick(long token, double price, long cumulativeVolume, long timestampMillis) {
+        ticks++;
+        int slot = slotsByToken.get(token);
+        if (slot == UNKNOWN) {
+            unknownTicks++;
+            return;
+        }
+        long openOffset = sessionOpenOffsets[slot];
+        long zoneOffset = zoneOffsets[slot];
+        long volumeDelta = volumeDelta(slot, cumulativeVolume, timestampMillis,
+                BucketAligner.bucketStart(timestampMillis, IntervalType.ONE_DAY, openOffset, zoneOffset));
+        if (volumeDelta == 0 && cumulativeVolume > 0) {
+            staleTicks++;
+            return;
+        }
+
+        boolean late = false;
+        int base = slot * INTERVAL_COUNT;
+        for (int i = 0; i < INTERVAL_COUNT; i++) {
+            int bar = base + i;
+            long start = BucketAligner.bucketStart(timestampMillis, INTERVALS[i], openOffset, zoneOffset);
+            long current = barStart[bar];
+            if (current == NO_BAR) {
+                if (start > lastEmittedStart[bar]) {
+                    openBar(bar, start, price, volumeDelta, timestampMillis);
+                } else {
+                    late = true;
+                }
+            } else if (start == current) {
+                updateBar(bar, price, volumeDelta, timestampMillis);
+            } else if (start > current) {
+                emit(slot, i, bar);
+                openBar(bar, start, price, volumeDelta, timestampMillis);
+            } else {
+                late = true;
+            }
+        }
+        if (late) {
+            lateTicks++;
+        }
+    }
+
+    /**
+     * Emits every open bar whose interval ended at or before {@code nowMillis - graceMillis}. Call
+     * periodically so bars of instruments that stopped trading still close.
+     */
+    public void closeExpired(long nowMillis, long graceMillis) {
+        long cutoff = nowMillis - graceMillis;
+        for (int slot = 0; slot < slotCount; slot++) {
+            int base = slot * INTERVAL_COUNT;
+            for (int i = 0; i < INTERVAL_COUNT; i++) {
+                int bar = base + i;
+                if (barStart[bar] != NO_BAR && BucketAligner.bucketEnd(barStart[bar], INTERVALS[i]) <= cutoff) {
+                    emit(slot, i, bar);
+                    barStart[bar] = NO_BAR;
+                }
+            }
+        }
+    }
+
+    /**
+     * Emits every open bar regardless of whether its interval has ended, e.g. at end of replay.
+     */
+    public void closeAll() {
+        for (int slot = 0; slot < slotCount; slot++) {
+            int base = slot * INTERVAL_COUNT;
+            for (int i = 0; i < INTERVAL_COUNT; i++) {
+                int bar = base + i;
+                if (barStart[bar] != NO_BAR) {
+                    emit(slot, i, bar);
+                    barStart[bar] = NO_BAR;
+                }
+            }
+        }
+    }
+
+    /**
+     * Forgets every instrument's volume baseline, for when ticks were missed (a disconnect). Bars
+     * still open are then partial and are dropped when they close.
+     */
+    public void resetBaselines() {
+        Arrays.fill(lastCumulativeVolume, 0, slotCount, -1);
+    }
+
+    public int instrumentCount() {
+        return slotCount;
+    }
+
+    public long ticks() {
+        return ticks;
+    }
+
+    public long unknownTicks() {
+        return unknownTicks;
+    }
+
+    public long lateTicks() {
+        return lateTicks;
+    }
+
+    public long staleTicks() {
+        return staleTicks;
+    }
+
+    public long partialBars() {
+        return partialBars;
+    }
+
+    public long barsEmitted() {
+        return barsEmitted;
+    }
+
+    private long volumeDelta(int slot, long cumulativeVolume, long timestampMillis, long day) {
+        long previous = lastCumulativeVolume[slot];
+        if (previous < 0) {
+            baselineAt[slot] = timestampMillis;
+        }
+        if (previous < 0 || day > lastVolumeDay[slot]) {
+            // First tick, or first tick of a new session: the cumulative volume restarts.
+            long delta = previous < 0 || cumulativeVolume < previous ? cumulativeVolume : cumulativeVolume - previous;
+            lastCumulativeVolume[slot] = cumulativeVolume;
+            lastVolumeDay[slot] = day;
+            return previous < 0 ? 0 : delta;
+        }
+        if (cumulativeVolume <= previous) {
+            return 0;
+        }
+        lastCumulativeVolume[slot] = cumulativeVolume;
+        return cumulativeVolume - previous;
+    }
+
+    private void openBar(int bar, long start, double price, long volume, long timestampMillis) {
+        barStart[bar] = start;
+        barLastTickAt[bar] = timestampMillis;
+        barOpen[bar] = price;
+        barHigh[bar] = price;
+        barLow[bar] = price;
+        barClose[bar] = price;
+        barVolume[bar] = volume;
+    }
+
+    private void updateBar(int bar, double price, long volume, long timestampMillis) {
+        if (price > barHigh[bar]) {
+            barHigh[bar] = price;
+        }
+        if (price < barLow[bar]) {
+            barLow[bar] = price;
+        }
+        if (timestampMillis >= barLastTickAt[bar]) {
+            barClose[bar] = price;
+            barLastTickAt[bar] = timestampMillis;
+        }
+        barVolume[bar] += volume;
+    }
+
+    private void emit(int slot, int interval, int bar) {
+        lastEmittedStart[bar] = barStart[bar];
+        if (barStart[bar] <= baselineAt[slot]) {
+            partialBars++;
+            return;
+        }
+        barsEmitted++;
+        listener.onBarClosed(
+                instrumentIds[slot],
+                INTERVALS[interval],
+                barStart[bar],
+                BucketAligner.bucketEnd(barStart[bar], INTERVALS[interval]),
+                barOpen[bar],
+                barHigh[bar],
+                barLow[bar],
+                barClose[bar],
+                barVolume[bar]);
+    }
+
+    private void allocate(int instruments) {
+        instrumentIds = new long[instruments];
+        sessionOpenOffsets = new long[instruments];
+        zoneOffsets = new long[instruments];
+        lastCumulativeVolume = new long[instruments];
+        lastVolumeDay = new long[instruments];
+        baselineAt = new long[instruments];
+        int bars = instruments * INTERVAL_COUNT;
+        barStart = new long[bars];
+        Arrays.fill(barStart, NO_BAR);
+        lastEmittedStart = new long[bars];
+        Arrays.fill(lastEmittedStart, NO_BAR);
+        barLastTickAt = new long[bars];
+        barOpen = new double[bars];
+        barHigh = new double[bars];
+        barLow = new double[bars];
+        barClose = new double[bars];
+        barVolume = new long[bars];
+    }
+
+    private void grow(int instruments) {
+        int bars = instruments * INTERVAL_COUNT;
+        int oldBars = barStart.length;
+        instrumentIds = Arrays.copyOf(instrumentIds, instruments);
+        sessionOpenOffsets = Arrays.copyOf(sessionOpenOffsets, instruments);
+        zoneOffsets = Arrays.copyOf(zoneOffsets, instruments);
+        lastCumulativeVolume = Arrays.copyOf(lastCumulativeVolume, instruments);
+        lastVolumeDay = Arrays.copyOf(lastVolumeDay, instruments);
+        baselineAt = Arrays.copyOf(baselineAt, instruments);
+        barStart = Arrays.copyOf(barStart, bars);
+        Arrays.fill(barStart, oldBars, bars, NO_BAR);
+        lastEmittedStart = Arrays.copyOf(lastEmittedStart, bars);
+        Arrays.fill(lastEmittedStart, oldBars, bars, NO_BAR);
+        barLastTickAt = Arrays.copyOf(barLastTickAt, bars);
+        barOpen = Arrays.copyOf(barOpen, bars);
+        barHigh = Arrays.copyOf(barHigh, bars);
+        barLow = Arrays.copyOf(barLow, bars);
+        barClose = Arrays.copyOf(barClose, bars);
+        barVolume = Arrays.copyOf(barVolume, bars);
+    }
+}
@@ -0,0 +1,364 @@
+package com.example.stockanalyzer.marketdata.archive;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import com.example.stockanalyzer.marketdata.dto.CandleResponse;
+import com.example.stockanalyzer.marketdata.entites.ArchiveStatus;
+import com.example.stockanalyzer.marketdata.entites.CandleArchiveMonth;
+import com.example.stockanalyzer.marketdata.entites.Instrument;
+import com.example.stockanalyzer.marketdata.entites.IntervalType;
+import com.example.stockanalyzer.marketdata.exception.MarketDataException;
+import com.example.stockanalyzer.marketdata.repository.CandleArchiveMonthRepository;
+import com.example.stockanalyzer.marketdata.repository.CandleBlockRepository;
+import com.example.stockanalyzer.marketdata.repository.CandleMonthRepository;
+import com.example.stockanalyzer.marketdata.repository.CandlePartitionRepository;
+import com.example.stockanalyzer.marketdata.repository.InstrumentRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Cold tier for closed months of candles. {@link #archiveMonth(YearMonth)} streams a month out of
+ * {@code candles} and {@code candle_blocks} into one {@link CandleArchiveFile} per instrument and
+ * interval under {@code archive.directory}, records it in {@code candle_archive_month} and then
+ * deletes the archived rows and blocks; {@link #read} serves range reads from the mapped files.
+ *
+ * A series found in both tables (its interval moved to or from blocks during the month) is merged
+ * into one file, with the table its interval is written to now winning on equal starts. A bar
+ * written to an archived month afterwards (a late backfill or upsert) stays in its table; readers
+ * merge both tiers and let the table win.
+ */
+@Slf4j
+@Service
+public class CandleArchiveService {
+
+    private static final String FILE_SUFFIX = ".candles";
+
+    // Ingestion stamps updated_at with the application clock before its statement commits, so a
+    // row stamped shortly before the scan began may still be missing from the scan's snapshot.
+    private static final Duration WRITE_SETTLE = Duration.ofMinutes(10);
+
+    private final CandleMonthRepository candleMonthRepository;
+    private final CandleBlockRepository candleBlockRepository;
+    private final CandleArchiveMonthRepository archiveMonthRepository;
+    private final CandlePartitionRepository partitionRepository;
+    private final InstrumentRepository instrumentRepository;
+    private final Path directory;
+    private final int keepMonths;
+    private final int maxOpenFiles;
+
+    private final NavigableSet<YearMonth> archivedMonths = new ConcurrentSkipListSet<>();
+    private final ReentrantLock archiveLock = new ReentrantLock();
+    private final ReentrantLock filesLock = new ReentrantLock();
+    private final LinkedHashMap<Path, CandleArchiveFile> openFiles = new LinkedHashMap<>(256, 0.75f, true);
+
+    public CandleArchiveService(
+            CandleMonthRepository candleMonthRepository,
+            CandleBlockRepository candleBlockRepository,
+            CandleArchiveMonthRepository archiveMonthRepository,
+            CandlePartitionRepository partitionRepository,
+            InstrumentRepository instrumentRepository,
+            @Value("${archive.directory:data/archive}") String directory,
+            @Value("${archive.keep-months:12}") int keepMonths,
+            @Value("${archive.reader.max-open-files:1024}") int maxOpenFiles) {
+        this.candleMonthRepository = candleMonthRepository;
+        this.candleBlockRepository = candleBlockRepository;
+        this.archiveMonthRepository = archiveMonthRepository;
+        this.partitionRepository = partitionRepository;
+        this.instrumentRepository = instrumentRepository;
+        this.directory = Path.of(directory);
+        this.keepMonths = keepMonths;
+        this.maxOpenFiles = maxOpenFiles;
+    }
+
+    @PostConstruct
+    public void loadCatalog() {
+        for (CandleArchiveMonth month : archiveMonthRepository.findByStatus(ArchiveStatus.ARCHIVED)) {
+            archivedMonths.add(YearMonth.from(month.getMonthStart()));
+        }
+    }
+
+    public List<CandleArchiveMonth> months() {
+        return archiveMonthRepository.findAllByOrderByMonthStartAsc();
+    }
+
+    /**
+     * Archives every month older than {@code archive.keep-months}, oldest first.
+     *
+     * @return the months archived by this call
+     */
+    public List<CandleArchiveMonth> archiveDueMonths() {
+        YearMonth keepFrom = YearMonth.now(ZoneOffset.UTC).minusMonths(keepMonths);
+        Optional<YearMonth> earliest = earliest(
+                candleMonthRepository.earliestMonth(), candleBlockRepository.earliestMonth());
+        List<CandleArchiveMonth> archived = new ArrayList<>();
+        if (earliest.isEmpty()) {
+            return archived;
+        }
+        for (YearMonth month = earliest.get(); month.isBefore(keepFrom); month = month.plusMonths(1)) {
+            if (!archivedMonths.contains(month)) {
+                archived.add(archiveMonth(month));
+            }
+        }
+        return archived;
+    }
+
+    /**
+     * Writes the month's files, marks it ARCHIVED and deletes its rows from {@code candles} and its
+     * blocks from {@code candle_blocks}. A month left WRITING by an interrupted run is written
+     * again from scratch.
+     */
+    public CandleArchiveMonth archiveMonth(YearMonth month) {
+        if (!month.isBefore(YearMonth.now(ZoneOffset.UTC))) {
+            throw new MarketDataException("Only closed months can be archived: " + month);
+        }
+        if (!archiveLock.tryLock()) {
+            throw new MarketDataException("Another archive run is in progress");
+        }
+        try {
+            CandleArchiveMonth catalog = archiveMonthRepository.findByMonthStart(month.atDay(1))
+                    .orElseGet(CandleArchiveMonth::new);
+            if (catalog.getStatus() == ArchiveStatus.ARCHIVED) {
+                throw new MarketDataException("Month already archived: " + month);
+            }
+            catalog.setMonthStart(month.atDay(1));
+            catalog.setStatus(ArchiveStatus.WRITING);
+            catalog = archiveMonthRepository.save(catalog);
+
+            long started = System.nanoTime();
+            Instant scanStartedAt = Instant.now();
+            MonthWriter writer = new MonthWriter(month, instruments());
+            candleMonthRepository.scan(month, writer);
+            writer.finish();
+            candleBlockRepository.scanMonth(month, writer);
+            writer.finish();
+
+            catalog.setStatus(ArchiveStatus.ARCHIVED);
+            catalog.setSeriesCount(writer.seriesCount);
+            catalog.setRowCount(writer.rowCount);
+            catalog.setFileBytes(writer.fileBytes);
+            catalog.setArchivedAt(Instant.now());
+            catalog = archiveMonthRepository.save(catalog);
+            archivedMonths.add(month);
+
+            Instant writtenBefore = scanStartedAt.minus(WRITE_SETTLE);
+            long deleted = candleMonthRepository.deleteArchived(month, writtenBefore);
+            long deletedBlocks = candleBlockRepository.deleteArchived(month, writtenBefore);
+            boolean rebuilt = partitionRepository.rebuildMonthlyPartition(month);
+            log.info("Archived {}: {} candles in {} series, {} bytes; deleted {} rows and {} blocks{} in {} ms",
+                    month, writer.rowCount, writer.seriesCount, writer.fileBytes, deleted, deletedBlocks,
+                    rebuilt ? " and rebuilt its partition" : "", (System.nanoTime() - started) / 1_000_000);
+            return catalog;
+        } catch (UncheckedIOException e) {
+            throw new MarketDataException("Failed to write archive files for " + month, e.getCause());
+        } finally {
+            archiveLock.unlock();
+        }
+    }
+
+    /**
+     * Archived bars with {@code after < start <= to}, at most {@code limit} of them, in start
+     * order; empty when no archived month overlaps the range.
+     */
+    public List<CandleResponse> read(Long instrumentId, IntervalType intervalType, Instant after, Instant to, int limit) {
+        if (archivedMonths.isEmpty()) {
+            return List.of();
+        }
+        YearMonth first = YearMonth.from(after.atOffset(ZoneOffset.UTC));
+        YearMonth last = YearMonth.from(to.atOffset(ZoneOffset.UTC));
+        List<CandleResponse> result = new ArrayList<>();
+        // Starts are whole seconds, so flooring both bounds keeps (after, to] exact.
+        long afterSecond = after.getEpochSecond();
+        long toSecond = to.getEpochSecond();
+        for (YearMonth month : archivedMonths.subSet(first, true, last, true)) {
+            CandleArchiveFile file = open(pathOf(instrumentId, intervalType, month));
+            if (file != null) {
+                result.addAll(file.read(afterSecond, toSecond, limit - result.size()));
+                if (result.size() >= limit) {
+                    break;
+                }
+            }
+        }
+        return result;
+    }
+
+    private CandleArchiveFile open(Path path) {
+        filesLock.lock();
+        try {
+            CandleArchiveFile file = openFiles.get(path);
+            if (file != null) {
+                return file;
+            }
+        } finally {
+            filesLock.unlock();
+        }
+        if (!Files.exists(path)) {
+            return null;
+        }
+        CandleArchiveFile file;
+        try {
+            file = CandleArchiveFile.map(path);
+        } catch (IOException e) {
+            throw new MarketDataException("Failed to read archive file " + path, e);
+        }
+        filesLock.lock();
+        try {
+            openFiles.put(path, file);
+            // Unreferenced mappings are unmapped by the GC; the bound keeps the process under the
+            // kernel's map count when backtests sweep many series.
+            while (openFiles.size() > maxOpenFiles) {
+                openFiles.pollFirstEntry();
+            }
+        } finally {
+            filesLock.unlock();
+        }
+        return file;
+    }
+
+    private Path pathOf(long instrumentId, IntervalType intervalType, YearMonth month) {
+        return directory.resolve(Long.toString(instrumentId))
+                .resolve(intervalType.name())
+                .resolve(month + FILE_SUFFIX);
+    }
+
+    private static Optional<YearMonth> earliest(Optional<YearMonth> rows, Optional<YearMonth> blocks) {
+        if (rows.isEmpty()) {
+            return blocks;
+        }
+        if (blocks.isEmpty()) {
+            return rows;
+        }
+        return Optional.of(rows.get().isBefore(blocks.get()) ? rows.get() : blocks.get());
+    }
+
+    private Map<Long, Instrument> instruments() {
+        return instrumentRepository.findAll().stream()
+                .collect(Collectors.toMap(Instrument::getId, Function.identity()));
+    }
+
+    /**
+     * Receives the month's rows grouped by series, one table after the other, and writes each
+     * series' file once its last row has arrived, so only one series-month is held in memory at a
+     * time. A series already written from the other table is read back and merged.
+     */
+    private final class MonthWriter implements CandleMonthRepository.RowSink {
+
+        private final YearMonth month;
+        private final Map<Long, Instrument> instruments;
+        private final Map<SeriesKey, Integer> writtenRows = new HashMap<>();
+        private CandleArchiveFile.Writer current;
+        private long[][] earlier;
+        private int earlierCount;
+        private int earlierNext;
+        private boolean earlierWins;
+        private int seriesCount;
+        private long rowCount;
+        private long fileBytes;
+
+        private MonthWriter(YearMonth month, Map<Long, Instrument> instruments) {
+            this.month = month;
+            this.instruments = instruments;
+        }
+
+        @Override
+        public void row(long instrumentId, IntervalType intervalType, long startSecond, long endSecond,
+                        long open, long high, long low, long close, long volume) {
+            if (current == null || current.instrumentId != instrumentId || current.intervalType != intervalType) {
+                finish();
+                Instrument instrument = instruments.get(instrumentId);
+                current = new CandleArchiveFile.Writer(
+                        instrumentId,
+                        intervalType,
+                        instrument == null ? "" : instrument.getSymbol(),
+                        instrument == null ? "" : instrument.getExchange().getCode());
+                readEarlier(instrumentId, intervalType);
+            }
+            while (earlierNext < earlierCount && earlier[0][earlierNext] <= startSecond) {
+                if (earlier[0][earlierNext] < startSecond) {
+                    addEarlier(earlierNext);
+                } else if (earlierWins) {
+                    addEarlier(earlierNext);
+                    earlierNext++;
+                    return;
+                }
+                earlierNext++;
+            }
+            current.add(startSecond, endSecond, open, high, low, close, volume);
+        }
+
+        void finish() {
+            if (current == null) {
+                return;
+            }
+            while (earlierNext < earlierCount) {
+                addEarlier(earlierNext++);
+            }
+            earlier = null;
+            earlierCount = 0;
+            earlierNext = 0;
+            try {
+                fileBytes += current.writeTo(pathOf(current.instrumentId, current.intervalType, month));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            Integer replaced = writtenRows.put(new SeriesKey(current.instrumentId, current.intervalType),
+                    current.rowCount());
+            seriesCount += replaced == null ? 1 : 0;
+            rowCount += current.rowCount() - (replaced == null ? 0 : replaced);
+            current = null;
+        }
+
+        /**
+         * Loads the file this run already wrote for the series from the other table, if any. The
+         * table the interval is stored in now wins on equal starts.
+         */
+        private void readEarlier(long instrumentId, IntervalType intervalType) {
+            if (!writtenRows.containsKey(new SeriesKey(instrumentId, intervalType))) {
+                return;
+            }
+            Path path = pathOf(instrumentId, intervalType, month);
+            try {
+                CandleArchiveFile file = CandleArchiveFile.map(path);
+                fileBytes -= Files.size(path);
+                earlier = new long[7][file.rowCount];
+                file.scan((id, interval, start, end, o, h, l, c, v) -> {
+                    long[] bar = {start, end, o, h, l, c, v};
+                    for (int column = 0; column < bar.length; column++) {
+                        earlier[column][earlierCount] = bar[column];
+                    }
+                    earlierCount++;
+                });
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            // Rows come from candles first, so the earlier file holds the candles rows.
+            earlierWins = !candleBlockRepository.stores(intervalType);
+        }
+
+        private void addEarlier(int i) {
+            current.add(earlier[0][i], earlier[1][i], earlier[2][i], earlier[3][i], earlier[4][i], earlier[5][i],
+                    earlier[6][i]);
+        }
+    }
+
+    private record SeriesKey(long instrumentId, IntervalType intervalType) {
+    }
+}
@@ -12,6 +12,7 @@ import com.example.stockanalyzer.marketdata.dto.AuthLoginResponse;
 import com.example.stockanalyzer.marketdata.exception.AuthenticationException;
 import com.zerodhatech.kiteconnect.KiteConnect;
 import com.zerodhatech.kiteconnect.kitehttp.exceptions.KiteException;
+import com.zerodhatech.kiteconnect.kitehttp.exceptions.TokenException;
 import com.zerodhatech.models.TokenSet;
 import com.zerodhatech.models.User;
 import com.example.stockanalyzer.marketdata.service.BrokerSessionService;
@@ -24,6 +25,7 @@ import lombok.extern.slf4j.Slf4j;
 public class KiteAuthService implements ProviderAuthService {
 
     private static final String KITE_DATA_SOURCE_NAME = "Kite API";
+    private static final int HTTP_FORBIDDEN = 403;
 
     private final KiteClientFactory kiteClientFactory;
     private final BrokerSessionService brokerSessionService;
@@ -40,17 +42,25 @@ public class KiteAuthService implements ProviderAuthService {
         if (!supports(dataSource)) {
             return false;
         }
-        if (brokerSessionService.findActiveSession(dataSource).isEmpty()) {
+        BrokerSession session = brokerSessionService.findActiveSession(dataSource).orElse(null);
+        if (session == null) {
             return false;
         }
         try {
-            kiteClientFactory.createAuthenticated(dataSource).getProfile();
+            kiteClientFactory.getAuthenticated(dataSource).getProfile();
             return true;
-        } catch (Exception e) {
-            brokerSessionService.expireSession(dataSource);
+        } catch (AuthenticationException e) {
             return false;
+        } catch (java.io.IOException | JSONException e) {
+            throw new AuthenticationException("Kite session check failed", e);
         } catch (KiteException e) {
-            brokerSessionService.expireSession(dataSource);
+            // Only a rejected token ends the session; anything else leaves its state unknown.
+            if (!(e instanceof TokenException) && e.code != HTTP_FORBIDDEN) {
+                throw new AuthenticationException("Kite session check failed: " + e.message, e);
+            }
+            if (brokerSessionService.expireSession(dataSource, session.getAccessToken())) {
+                kiteClientFactory.evict(dataSource);
+            }
             return false;
         }
     }
@@ -80,6 +90,7 @@ public class KiteAuthService implements ProviderAuthService {
     public void invalidateSession(DataSource dataSource) {
         if (supports(dataSource)) {
             brokerSessionService.expireSession(dataSource);
+            kiteClientFactory.evict(dataSource);
         }
     }
 
@@ -99,7 +110,7 @@ public class KiteAuthService implements ProviderAuthService {
         }
 
         try {
-            KiteConnect kiteConnect = kiteClientFactory.createAuthenticated(dataSource);
+            KiteConnect kiteConnect = kiteClientFactory.getAuthenticated(dataSource);
             TokenSet tokenSet = kiteConnect.renewAccessToken(refreshToken, dataSource.getApiSecret());
             saveSession(dataSource, tokenSet.userId, tokenSet.accessToken, tokenSet.refreshToken);
             log.info("Kite access token renewed for user {}", tokenSet.userId);
@@ -139,5 +150,6 @@ public class KiteAuthService implements ProviderAuthService {
         session.setLoginTime(Instant.now());
         session.setStatus(BrokerSessionStatus.ACTIVE);
         brokerSessionService.save(session);
+        kiteClientFactory.updateSession(dataSource, accessToken);
     }
 }
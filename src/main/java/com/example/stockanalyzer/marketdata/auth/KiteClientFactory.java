@@ -1,5 +1,7 @@
 package com.example.stockanalyzer.marketdata.auth;
 
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import org.springframework.stereotype.Component;
 import com.example.stockanalyzer.marketdata.entites.BrokerSession;
 import com.example.stockanalyzer.marketdata.entites.DataSource;
@@ -8,25 +10,54 @@ import com.example.stockanalyzer.marketdata.service.BrokerSessionService;
 import com.zerodhatech.kiteconnect.KiteConnect;
 import lombok.RequiredArgsConstructor;
 
+/**
+ * Builds {@link KiteConnect} clients. Authenticated clients are kept per data source and reused,
+ * so calls share one HTTP connection pool and skip the session lookup; {@link KiteAuthService}
+ * swaps the cached client when it stores a new token and evicts it when the session expires.
+ */
 @Component
 @RequiredArgsConstructor
 public class KiteClientFactory {
 
     private final BrokerSessionService brokerSessionService;
+    private final Map<Long, KiteConnect> authenticatedClients = new ConcurrentHashMap<>();
 
     public KiteConnect create(DataSource dataSource) {
-        KiteConnect kiteConnect = new KiteConnect(dataSource.getApiKey());
-        kiteConnect.setSessionExpiryHook(() -> brokerSessionService.expireSession(dataSource));
-        return kiteConnect;
+        return new KiteConnect(dataSource.getApiKey());
+    }
+
+    /**
+     * Returns the cached authenticated client, loading the active session only on first use or
+     * after the session changed.
+     */
+    public KiteConnect getAuthenticated(DataSource dataSource) {
+        return authenticatedClients.computeIfAbsent(dataSource.getId(), id -> {
+            BrokerSession session = brokerSessionService.findActiveSession(dataSource)
+                    .orElseThrow(() -> new AuthenticationException(
+                            "No active Kite session for data source: " + dataSource.getName()));
+            return authenticate(dataSource, session.getAccessToken());
+        });
     }
 
-    public KiteConnect createAuthenticated(DataSource dataSource) {
-        BrokerSession session = brokerSessionService.findActiveSession(dataSource)
-                .orElseThrow(() -> new AuthenticationException(
-                        "No active Kite session for data source: " + dataSource.getName()));
+    public void updateSession(DataSource dataSource, String accessToken) {
+        authenticatedClients.put(dataSource.getId(), authenticate(dataSource, accessToken));
+    }
+
+    public void evict(DataSource dataSource) {
+        authenticatedClients.remove(dataSource.getId());
+    }
 
+    /**
+     * The expiry hook is bound to the token the client was built with: a call still in flight on a
+     * replaced client must not expire the session that replaced it.
+     */
+    private KiteConnect authenticate(DataSource dataSource, String accessToken) {
         KiteConnect kiteConnect = create(dataSource);
-        kiteConnect.setAccessToken(session.getAccessToken());
+        kiteConnect.setAccessToken(accessToken);
+        kiteConnect.setSessionExpiryHook(() -> {
+            brokerSessionService.expireSession(dataSource, accessToken);
+            authenticatedClients.remove(dataSource.getId(), kiteConnect);
+        });
         return kiteConnect;
     }
 }
@@ -1,6 +1,8 @@
 package com.example.stockanalyzer.marketdata.auth;
 
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import org.springframework.stereotype.Component;
 import com.example.stockanalyzer.marketdata.entites.DataSource;
 import com.example.stockanalyzer.marketdata.exception.MarketDataException;
@@ -11,8 +13,19 @@ import lombok.RequiredArgsConstructor;
 public class ProviderAuthRegistry {
 
     private final List<ProviderAuthService> authServices;
+    private final Map<Long, ProviderAuthService> byDataSourceId = new ConcurrentHashMap<>();
 
+    /**
+     * Matches are memoized per data source id, so the fetch path does not rescan the list.
+     */
     public ProviderAuthService resolve(DataSource dataSource) {
+        if (dataSource.getId() == null) {
+            return find(dataSource);
+        }
+        return byDataSourceId.computeIfAbsent(dataSource.getId(), id -> find(dataSource));
+    }
+
+    private ProviderAuthService find(DataSource dataSource) {
         return authServices.stream()
                 .filter(service -> service.supports(dataSource))
                 .findFirst()
@@ -7,6 +7,11 @@ public interface ProviderAuthService {
 
     boolean supports(DataSource dataSource);
 
+    /**
+     * Returns false when there is no session or the provider rejected its token. Throws
+     * {@link com.example.stockanalyzer.marketdata.exception.AuthenticationException} when the
+     * provider could not be asked, so a network failure never expires a valid session.
+     */
     boolean hasValidSession(DataSource dataSource);
 
     String getLoginUrl(DataSource dataSource);
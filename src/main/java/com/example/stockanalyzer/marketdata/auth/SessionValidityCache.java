@@ -0,0 +1,146 @@
+package com.example.stockanalyzer.marketdata.auth;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import com.example.stockanalyzer.marketdata.diagnostics.SessionValidationEvent;
+import com.example.stockanalyzer.marketdata.entites.DataSource;
+import com.example.stockanalyzer.marketdata.exception.AuthenticationException;
+import com.example.stockanalyzer.marketdata.service.BrokerSessionChangedEvent;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Remembers whether each data source has a usable session, so the fetch path does not pay a
+ * session lookup and a provider round trip per instrument.
+ *
+ * Entries are refreshed by a background probe well inside their TTL. A session stored or expired
+ * through {@code BrokerSessionService} (login, refresh, the client's session-expiry hook on a 403)
+ * updates the entry immediately.
+ *
+ * A probe that cannot reach the provider keeps the last known state; only a rejected token marks
+ * the session invalid.
+ *
+ * Probes are single-flight per data source: callers that miss while a probe of the same source is
+ * running wait for its result, while probes of different sources run in parallel.
+ */
+@Slf4j
+@Component
+public class SessionValidityCache {
+
+    private final ProviderAuthRegistry authRegistry;
+    private final long ttlMillis;
+    private final Map<Long, SessionState> states = new ConcurrentHashMap<>();
+    private final Map<Long, CompletableFuture<Boolean>> probes = new ConcurrentHashMap<>();
+
+    public SessionValidityCache(
+            ProviderAuthRegistry authRegistry,
+            @Value("${provider.session.validity-ttl-ms:120000}") long ttlMillis) {
+        this.authRegistry = authRegistry;
+        this.ttlMillis = ttlMillis;
+    }
+
+    public boolean isValid(DataSource dataSource) {
+        SessionState state = states.get(dataSource.getId());
+        if (isFresh(state)) {
+            return state.valid();
+        }
+        return probeOnce(dataSource, false);
+    }
+
+    @Scheduled(fixedDelayString = "${provider.session.probe-interval-ms:60000}",
+            initialDelayString = "${provider.session.probe-interval-ms:60000}")
+    public void probeKnownSessions() {
+        for (SessionState state : states.values()) {
+            try {
+                probeOnce(state.dataSource(), true);
+            } catch (RuntimeException e) {
+                log.warn("Session probe failed for data source {}: {}", state.dataSource().getName(), e.getMessage());
+            }
+        }
+    }
+
+    @EventListener
+    public void onBrokerSessionChanged(BrokerSessionChangedEvent event) {
+        states.computeIfPresent(event.dataSourceId(), (id, state) ->
+                new SessionState(state.dataSource(), event.active(), System.currentTimeMillis()));
+    }
+
+    /**
+     * Probes {@code dataSource}, or waits for the probe of it already in flight.
+     */
+    private boolean probeOnce(DataSource dataSource, boolean background) {
+        Long id = dataSource.getId();
+        CompletableFuture<Boolean> mine = new CompletableFuture<>();
+        CompletableFuture<Boolean> running = probes.putIfAbsent(id, mine);
+        if (running != null) {
+            try {
+                return running.join();
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof RuntimeException cause ? cause : e;
+            }
+        }
+        try {
+            // A probe that finished just before this one started is still fresh.
+            SessionState state = states.get(id);
+            boolean valid = !background && isFresh(state) ? state.valid() : probe(dataSource, background);
+            mine.complete(valid);
+            return valid;
+        } catch (RuntimeException e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            probes.remove(id, mine);
+        }
+    }
+
+    private boolean probe(DataSource dataSource, boolean background) {
+        SessionValidationEvent event = new SessionValidationEvent();
+        event.begin();
+        boolean valid;
+        try {
+            valid = authRegistry.resolve(dataSource).hasValidSession(dataSource);
+        } catch (AuthenticationException e) {
+            return keepKnownState(dataSource, background, e);
+        }
+        event.end();
+        if (event.shouldCommit()) {
+            event.dataSourceId = dataSource.getId();
+            event.provider = dataSource.getProviderType().name();
+            event.valid = valid;
+            event.background = background;
+            event.commit();
+        }
+        states.put(dataSource.getId(), new SessionState(dataSource, valid, System.currentTimeMillis()));
+        return valid;
+    }
+
+    /**
+     * The provider could not be asked. The last known answer stands until a probe gets through; a
+     * foreground caller with no answer at all sees the failure.
+     */
+    private boolean keepKnownState(DataSource dataSource, boolean background, AuthenticationException e) {
+        SessionState state = states.get(dataSource.getId());
+        if (state == null) {
+            throw e;
+        }
+        log.warn("Session check for data source {} failed, keeping valid={}: {}",
+                dataSource.getName(), state.valid(), e.getMessage());
+        if (!background) {
+            // Re-stamped so fetches do not each wait on a provider that is not answering.
+            states.put(dataSource.getId(), new SessionState(dataSource, state.valid(), System.currentTimeMillis()));
+        }
+        return state.valid();
+    }
+
+    private boolean isFresh(SessionState state) {
+        return state != null && System.currentTimeMillis() - state.checkedAtMillis() < ttlMillis;
+    }
+
+    private record SessionState(DataSource dataSource, boolean valid, long checkedAtMillis) {
+    }
+}
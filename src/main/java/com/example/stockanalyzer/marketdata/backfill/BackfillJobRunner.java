@@ -0,0 +1,169 @@
+package com.example.stockanalyzer.marketdata.backfill;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import com.example.stockanalyzer.marketdata.dto.FetchCandlesRequest;
+import com.example.stockanalyzer.marketdata.entites.BackfillChunk;
+import com.example.stockanalyzer.marketdata.entites.BackfillJob;
+import com.example.stockanalyzer.marketdata.entites.DataSource;
+import com.example.stockanalyzer.marketdata.entites.Instrument;
+import com.example.stockanalyzer.marketdata.entites.IntervalType;
+import com.example.stockanalyzer.marketdata.exception.MarketDataException;
+import com.example.stockanalyzer.marketdata.ingestion.CandleBatch;
+import com.example.stockanalyzer.marketdata.ingestion.CandleBatchPersister;
+import com.example.stockanalyzer.marketdata.ingestion.ProviderCallExecutor;
+import com.example.stockanalyzer.marketdata.metrics.MarketDataMetrics;
+import com.example.stockanalyzer.marketdata.provider.MarketDataProvider;
+import com.example.stockanalyzer.marketdata.provider.MarketDataProviderRegistry;
+import com.example.stockanalyzer.marketdata.provider.RawCandles;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Executes backfill jobs on virtual threads. Chunks go through {@link ProviderCallExecutor}, so a
+ * backfill shares the data source's rate limit with scheduled ingestion, and at most
+ * {@code backfill.max-concurrent-chunks} chunks of a job are outstanding at once.
+ *
+ * Jobs that were PENDING or RUNNING when the process stopped are resumed on startup from their
+ * last checkpointed chunk.
+ */
+@Slf4j
+@Component
+public class BackfillJobRunner {
+
+    private final BackfillService backfillService;
+    private final MarketDataProviderRegistry providerRegistry;
+    private final ProviderCallExecutor providerCallExecutor;
+    private final CandleBatchPersister candleBatchPersister;
+    private final MarketDataMetrics metrics;
+    private final int maxConcurrentChunks;
+    private final int maxAttempts;
+    private final Map<Long, Thread> activeJobs = new ConcurrentHashMap<>();
+
+    public BackfillJobRunner(
+            BackfillService backfillService,
+            MarketDataProviderRegistry providerRegistry,
+            ProviderCallExecutor providerCallExecutor,
+            CandleBatchPersister candleBatchPersister,
+            MarketDataMetrics metrics,
+            @Value("${backfill.max-concurrent-chunks:8}") int maxConcurrentChunks,
+            @Value("${backfill.max-attempts:3}") int maxAttempts) {
+        this.backfillService = backfillService;
+        this.providerRegistry = providerRegistry;
+        this.providerCallExecutor = providerCallExecutor;
+        this.candleBatchPersister = candleBatchPersister;
+        this.metrics = metrics;
+        this.maxConcurrentChunks = maxConcurrentChunks;
+        this.maxAttempts = maxAttempts;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumeInterruptedJobs() {
+        for (BackfillJob job : backfillService.findResumableJobs()) {
+            log.info("Resuming backfill job {} ({} of {} chunks done)",
+                    job.getId(), job.getCompletedChunks() + job.getFailedChunks(), job.getTotalChunks());
+            start(job.getId());
+        }
+    }
+
+    /**
+     * Starts the job in the background unless it is already running in this process.
+     */
+    public void start(Long jobId) {
+        activeJobs.computeIfAbsent(jobId, id -> Thread.ofVirtual()
+                .name("backfill-job-" + id)
+                .start(() -> {
+                    try {
+                        run(id);
+                    } catch (Exception e) {
+                        log.error("Backfill job {} stopped", id, e);
+                    } finally {
+                        activeJobs.remove(id);
+                    }
+                }));
+    }
+
+    private void run(Long jobId) {
+        backfillService.markJobRunning(jobId);
+        BackfillJob job = backfillService.getJob(jobId);
+        DataSource dataSource = job.getDataSource();
+        MarketDataProvider provider = providerRegistry.resolve(dataSource);
+        Map<Long, Instrument> instruments = backfillService.findJobInstruments(jobId).stream()
+                .collect(Collectors.toMap(Instrument::getId, Function.identity()));
+
+        // Failed chunks go back to PENDING until maxAttempts, so each pass shrinks the work left.
+        List<BackfillChunk> pending = backfillService.findPendingChunks(jobId);
+        while (!pending.isEmpty()) {
+            Semaphore window = new Semaphore(maxConcurrentChunks);
+            List<CompletableFuture<?>> inFlight = new ArrayList<>(pending.size());
+            for (BackfillChunk chunk : pending) {
+                window.acquireUninterruptibly();
+                inFlight.add(runChunk(dataSource, provider, instruments.get(chunk.getInstrumentId()), job.getIntervalType(), chunk)
+                        .whenComplete((ignored, error) -> window.release()));
+            }
+            CompletableFuture.allOf(inFlight.toArray(CompletableFuture[]::new)).exceptionally(error -> null).join();
+            pending = backfillService.findPendingChunks(jobId);
+        }
+
+        backfillService.finishJob(jobId);
+        BackfillJob finished = backfillService.getJob(jobId);
+        log.info("Backfill job {} finished with status {}: {} chunks completed, {} failed, {} candles inserted",
+                jobId, finished.getStatus(), finished.getCompletedChunks(), finished.getFailedChunks(),
+                finished.getCandlesInserted());
+    }
+
+    private CompletableFuture<Void> runChunk(
+            DataSource dataSource,
+            MarketDataProvider provider,
+            Instrument instrument,
+            IntervalType intervalType,
+            BackfillChunk chunk) {
+
+        if (instrument == null) {
+            backfillService.markChunkRunning(chunk);
+            backfillService.markChunkFailed(chunk,
+                    new MarketDataException("Instrument not found: " + chunk.getInstrumentId()), 0);
+            return CompletableFuture.completedFuture(null);
+        }
+        backfillService.markChunkRunning(chunk);
+        // Bars ending after the fetch started may still be in progress in the response.
+        long closedBy = Instant.now().getEpochSecond();
+        FetchCandlesRequest request = new FetchCandlesRequest(
+                instrument.getId(),
+                dataSource.getId(),
+                intervalType,
+                chunk.getChunkFrom(),
+                chunk.getChunkTo());
+
+        return providerCallExecutor
+                .submit(dataSource, () -> metrics.timeFetch(provider.getProviderName(), instrument, request,
+                        () -> provider.fetchRawCandles(dataSource, instrument, request), RawCandles::size))
+                .thenAccept(raw -> persist(chunk, intervalType, raw, closedBy))
+                .exceptionally(error -> {
+                    Throwable cause = error.getCause() != null ? error.getCause() : error;
+                    log.warn("Backfill chunk {} for {} failed (attempt {}): {}",
+                            chunk.getId(), instrument.getSymbol(), chunk.getAttempts(), cause.getMessage());
+                    backfillService.markChunkFailed(chunk, cause, maxAttempts);
+                    return null;
+                });
+    }
+
+    private void persist(BackfillChunk chunk, IntervalType intervalType, RawCandles raw, long closedBy) {
+        CandleBatch candles = new CandleBatch();
+        raw.appendTo(candles);
+        candles.retainClosed(closedBy);
+        int inserted = candleBatchPersister.persist(candles);
+        metrics.recordIngested(intervalType, candles.size(), inserted);
+        backfillService.markChunkCompleted(chunk, candles.size(), inserted);
+    }
+}
@@ -0,0 +1,222 @@
+package com.example.stockanalyzer.marketdata.backfill;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import com.example.stockanalyzer.marketdata.dto.BackfillJobRequest;
+import com.example.stockanalyzer.marketdata.dto.BackfillJobResponse;
+import com.example.stockanalyzer.marketdata.entites.BackfillChunk;
+import com.example.stockanalyzer.marketdata.entites.BackfillJob;
+import com.example.stockanalyzer.marketdata.entites.BackfillStatus;
+import com.example.stockanalyzer.marketdata.entites.DataSource;
+import com.example.stockanalyzer.marketdata.entites.Instrument;
+import com.example.stockanalyzer.marketdata.exception.MarketDataException;
+import com.example.stockanalyzer.marketdata.provider.MarketDataProvider;
+import com.example.stockanalyzer.marketdata.provider.MarketDataProviderRegistry;
+import com.example.stockanalyzer.marketdata.repository.BackfillChunkRepository;
+import com.example.stockanalyzer.marketdata.repository.BackfillJobRepository;
+import com.example.stockanalyzer.marketdata.repository.DataSourceRepository;
+import com.example.stockanalyzer.marketdata.repository.InstrumentRepository;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Creates backfill jobs and owns every write to their checkpoint state. Each state change is its
+ * own short transaction so progress survives a crash at any point.
+ */
+@Service
+@RequiredArgsConstructor
+public class BackfillService {
+
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private final BackfillJobRepository jobRepository;
+    private final BackfillChunkRepository chunkRepository;
+    private final DataSourceRepository dataSourceRepository;
+    private final InstrumentRepository instrumentRepository;
+    private final MarketDataProviderRegistry providerRegistry;
+
+    @Transactional
+    public BackfillJob createJob(BackfillJobRequest request) {
+        if (request.getIntervalType() == null || request.getFrom() == null || request.getTo() == null) {
+            throw new MarketDataException("Backfill requires intervalType, from and to");
+        }
+        if (!request.getFrom().isBefore(request.getTo())) {
+            throw new MarketDataException("Backfill range is empty: " + request.getFrom() + " - " + request.getTo());
+        }
+        DataSource dataSource = dataSourceRepository.findById(request.getDataSourceId())
+                .orElseThrow(() -> new MarketDataException("Data source not found: " + request.getDataSourceId()));
+        MarketDataProvider provider = providerRegistry.resolve(dataSource);
+
+        List<Instrument> instruments = request.getInstrumentIds() == null || request.getInstrumentIds().isEmpty()
+                ? instrumentRepository.findByIsActiveTrueAndKiteInstrumentTokenIsNotNull()
+                : instrumentRepository.findAllById(request.getInstrumentIds());
+        if (instruments.isEmpty()) {
+            throw new MarketDataException("No instruments to backfill");
+        }
+
+        BackfillJob job = new BackfillJob();
+        job.setDataSource(dataSource);
+        job.setIntervalType(request.getIntervalType());
+        job.setRangeFrom(request.getFrom());
+        job.setRangeTo(request.getTo());
+        job.setStatus(BackfillStatus.PENDING);
+        job = jobRepository.save(job);
+
+        List<BackfillChunk> chunks = planChunks(
+                job.getId(),
+                instruments,
+                request.getFrom(),
+                request.getTo(),
+                provider.maxRequestRange(request.getIntervalType()));
+        chunkRepository.saveAll(chunks);
+        job.setTotalChunks(chunks.size());
+        return job;
+    }
+
+    @Transactional(readOnly = true)
+    public BackfillJob getJob(Long jobId) {
+        return jobRepository.findById(jobId)
+                .orElseThrow(() -> new MarketDataException("Backfill job not found: " + jobId));
+    }
+
+    @Transactional(readOnly = true)
+    public List<BackfillJob> listJobs() {
+        return jobRepository.findAllByOrderByIdDesc();
+    }
+
+    @Transactional(readOnly = true)
+    public List<BackfillJob> findResumableJobs() {
+        return jobRepository.findByStatusIn(List.of(BackfillStatus.PENDING, BackfillStatus.RUNNING));
+    }
+
+    @Transactional(readOnly = true)
+    public List<BackfillChunk> findPendingChunks(Long jobId) {
+        return chunkRepository.findByJobIdAndStatusOrderByIdAsc(jobId, BackfillStatus.PENDING);
+    }
+
+    @Transactional(readOnly = true)
+    public List<Instrument> findJobInstruments(Long jobId) {
+        return instrumentRepository.findAllById(chunkRepository.findInstrumentIdsByJobId(jobId));
+    }
+
+    /**
+     * Marks the job running. Chunks left RUNNING by a crashed process are put back to PENDING,
+     * which is safe because candle inserts are idempotent.
+     */
+    @Transactional
+    public void markJobRunning(Long jobId) {
+        BackfillJob job = getJob(jobId);
+        chunkRepository.updateStatus(jobId, BackfillStatus.RUNNING, BackfillStatus.PENDING);
+        job.setStatus(BackfillStatus.RUNNING);
+        if (job.getStartedAt() == null) {
+            job.setStartedAt(Instant.now());
+        }
+        jobRepository.save(job);
+    }
+
+    @Transactional
+    public void markChunkRunning(BackfillChunk chunk) {
+        chunk.setStatus(BackfillStatus.RUNNING);
+        chunk.setAttempts(chunk.getAttempts() + 1);
+        chunkRepository.save(chunk);
+    }
+
+    @Transactional
+    public void markChunkCompleted(BackfillChunk chunk, int fetched, int inserted) {
+        chunk.setStatus(BackfillStatus.COMPLETED);
+        chunk.setCandlesInserted(inserted);
+        chunk.setLastError(null);
+        chunkRepository.save(chunk);
+        jobRepository.recordChunkCompleted(chunk.getJobId(), fetched, inserted);
+    }
+
+    /**
+     * Returns the chunk to PENDING for another pass, or marks it FAILED once
+     * {@code maxAttempts} is reached.
+     */
+    @Transactional
+    public void markChunkFailed(BackfillChunk chunk, Throwable error, int maxAttempts) {
+        String message = truncate(error.getMessage());
+        chunk.setLastError(message);
+        if (chunk.getAttempts() >= maxAttempts) {
+            chunk.setStatus(BackfillStatus.FAILED);
+            jobRepository.recordChunkFailed(chunk.getJobId(), message);
+        } else {
+            chunk.setStatus(BackfillStatus.PENDING);
+        }
+        chunkRepository.save(chunk);
+    }
+
+    @Transactional
+    public void finishJob(Long jobId) {
+        BackfillJob job = getJob(jobId);
+        job.setStatus(job.getFailedChunks() > 0 ? BackfillStatus.FAILED : BackfillStatus.COMPLETED);
+        job.setFinishedAt(Instant.now());
+        jobRepository.save(job);
+    }
+
+    public static BackfillJobResponse toResponse(BackfillJob job) {
+        Instant end = job.getFinishedAt() != null ? job.getFinishedAt() : Instant.now();
+        long elapsedSeconds = job.getStartedAt() != null
+                ? Math.max(0, Duration.between(job.getStartedAt(), end).toSeconds())
+                : 0;
+        int done = job.getCompletedChunks() + job.getFailedChunks();
+        return new BackfillJobResponse(
+                job.getId(),
+                job.getDataSource().getId(),
+                job.getIntervalType(),
+                job.getRangeFrom(),
+                job.getRangeTo(),
+                job.getStatus(),
+                job.getTotalChunks(),
+                job.getCompletedChunks(),
+                job.getFailedChunks(),
+                job.getTotalChunks() > 0 ? done * 100.0 / job.getTotalChunks() : 0,
+                job.getCandlesFetched(),
+                job.getCandlesInserted(),
+                job.getStartedAt(),
+                job.getFinishedAt(),
+                elapsedSeconds,
+                elapsedSeconds > 0 ? job.getCompletedChunks() * 60.0 / elapsedSeconds : 0,
+                elapsedSeconds > 0 ? job.getCandlesInserted() / (double) elapsedSeconds : 0,
+                job.getLastError());
+    }
+
+    static List<BackfillChunk> planChunks(
+            Long jobId,
+            List<Instrument> instruments,
+            Instant from,
+            Instant to,
+            Duration maxRange) {
+
+        List<BackfillChunk> chunks = new ArrayList<>();
+        for (Instrument instrument : instruments) {
+            Instant chunkFrom = from;
+            while (chunkFrom.isBefore(to)) {
+                Instant chunkTo = chunkFrom.plus(maxRange);
+                if (chunkTo.isAfter(to)) {
+                    chunkTo = to;
+                }
+                BackfillChunk chunk = new BackfillChunk();
+                chunk.setJobId(jobId);
+                chunk.setInstrumentId(instrument.getId());
+                chunk.setChunkFrom(chunkFrom);
+                chunk.setChunkTo(chunkTo);
+                chunk.setStatus(BackfillStatus.PENDING);
+                chunks.add(chunk);
+                chunkFrom = chunkTo;
+            }
+        }
+        return chunks;
+    }
+
+    private static String truncate(String message) {
+        if (message == null) {
+            return null;
+        }
+        return message.length() <= MAX_ERROR_LENGTH ? message : message.substring(0, MAX_ERROR_LENGTH);
+    }
+}
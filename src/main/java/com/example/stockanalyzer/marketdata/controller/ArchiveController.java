@@ -0,0 +1,52 @@
+package com.example.stockanalyzer.marketdata.controller;
+
+import java.time.YearMonth;
+import java.util.List;
+import com.example.stockanalyzer.marketdata.archive.CandleArchiveService;
+import com.example.stockanalyzer.marketdata.dto.CandleArchiveMonthResponse;
+import com.example.stockanalyzer.marketdata.entites.CandleArchiveMonth;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/v1/archive")
+@RequiredArgsConstructor
+public class ArchiveController {
+
+    private final CandleArchiveService candleArchiveService;
+
+    /**
+     * Example:
+     * GET /api/v1/archive/months
+     */
+    @GetMapping("/months")
+    public ResponseEntity<List<CandleArchiveMonthResponse>> months() {
+        return ResponseEntity.ok(candleArchiveService.months().stream()
+                .map(ArchiveController::toResponse)
+                .toList());
+    }
+
+    /**
+     * Moves one closed UTC month of candles from MySQL to the file archive. Runs synchronously;
+     * candle reads keep working while it does.
+     *
+     * Example:
+     * POST /api/v1/archive/months/2024-03
+     */
+    @PostMapping("/months/{month}")
+    public ResponseEntity<CandleArchiveMonthResponse> archiveMonth(@PathVariable YearMonth month) {
+        return ResponseEntity.ok(toResponse(candleArchiveService.archiveMonth(month)));
+    }
+
+    private static CandleArchiveMonthResponse toResponse(CandleArchiveMonth month) {
+        return new CandleArchiveMonthResponse(
+                YearMonth.from(month.getMonthStart()),
+                month.getStatus(),
+                month.getSeriesCount(),
+                month.getRowCount(),
+                month.getFileBytes(),
+                month.getArchivedAt());
+    }
+
+}
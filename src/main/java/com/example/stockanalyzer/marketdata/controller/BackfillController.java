@@ -0,0 +1,52 @@
+package com.example.stockanalyzer.marketdata.controller;
+
+import java.util.List;
+import com.example.stockanalyzer.marketdata.backfill.BackfillJobRunner;
+import com.example.stockanalyzer.marketdata.backfill.BackfillService;
+import com.example.stockanalyzer.marketdata.dto.BackfillJobRequest;
+import com.example.stockanalyzer.marketdata.dto.BackfillJobResponse;
+import com.example.stockanalyzer.marketdata.entites.BackfillJob;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/v1/backfill/jobs")
+@RequiredArgsConstructor
+public class BackfillController {
+
+    private final BackfillService backfillService;
+    private final BackfillJobRunner backfillJobRunner;
+
+    /**
+     * Plans a backfill into provider-sized chunks and starts it in the background.
+     *
+     * Example:
+     * POST /api/v1/backfill/jobs
+     * {"dataSourceId":1,"intervalType":"ONE_MINUTE","from":"2023-01-01T00:00:00Z","to":"2025-01-01T00:00:00Z"}
+     */
+    @PostMapping
+    public ResponseEntity<BackfillJobResponse> create(@RequestBody BackfillJobRequest request) {
+        BackfillJob job = backfillService.createJob(request);
+        backfillJobRunner.start(job.getId());
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(BackfillService.toResponse(job));
+    }
+
+    /**
+     * Example:
+     * GET /api/v1/backfill/jobs/1
+     */
+    @GetMapping("/{jobId}")
+    public ResponseEntity<BackfillJobResponse> get(@PathVariable Long jobId) {
+        return ResponseEntity.ok(BackfillService.toResponse(backfillService.getJob(jobId)));
+    }
+
+    @GetMapping
+    public ResponseEntity<List<BackfillJobResponse>> list() {
+        return ResponseEntity.ok(backfillService.listJobs().stream()
+                .map(BackfillService::toResponse)
+                .toList());
+    }
+
+}
@@ -0,0 +1,41 @@
+package com.example.stockanalyzer.marketdata.controller;
+
+import com.example.stockanalyzer.marketdata.dto.CandleCacheStatsResponse;
+import com.example.stockanalyzer.marketdata.dto.CandlePageResponse;
+import com.example.stockanalyzer.marketdata.dto.CandleQueryRequest;
+import com.example.stockanalyzer.marketdata.service.CandleQueryService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/v1")
+@RequiredArgsConstructor
+public class CandleController {
+
+    private final CandleQueryService candleQueryService;
+
+    /**
+     * Returns one page of stored candles in ascending {@code candleStart} order.
+     *
+     * Example:
+     * GET /api/v1/instruments/1/candles?intervalType=ONE_MINUTE&from=2025-01-01T03:45:00Z&to=2025-01-31T10:00:00Z&limit=500
+     * GET /api/v1/instruments/1/candles?intervalType=ONE_MINUTE&after=2025-01-02T08:04:00Z&to=2025-01-31T10:00:00Z&limit=500
+     */
+    @GetMapping("/instruments/{instrumentId}/candles")
+    public ResponseEntity<CandlePageResponse> list(@PathVariable Long instrumentId, CandleQueryRequest request) {
+        return ResponseEntity.ok(candleQueryService.getCandles(instrumentId, request));
+    }
+
+    /**
+     * Returns hit, miss, eviction and invalidation counters of the candle range cache.
+     *
+     * Example:
+     * GET /api/v1/candles/cache
+     */
+    @GetMapping("/candles/cache")
+    public ResponseEntity<CandleCacheStatsResponse> cacheStats() {
+        return ResponseEntity.ok(candleQueryService.cacheStats());
+    }
+
+}
@@ -0,0 +1,49 @@
+package com.example.stockanalyzer.marketdata.controller;
+
+import com.example.stockanalyzer.marketdata.diagnostics.FlightRecordingService;
+import com.example.stockanalyzer.marketdata.dto.FlightRecordingResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/v1/diagnostics")
+@RequiredArgsConstructor
+public class DiagnosticsController {
+
+    private final FlightRecordingService flightRecordingService;
+
+    /**
+     * Starts an in-process JFR recording with the marketdata.* events; a running one is returned
+     * as is.
+     *
+     * Example:
+     * POST /api/v1/diagnostics/recording/start
+     */
+    @PostMapping("/recording/start")
+    public ResponseEntity<FlightRecordingResponse> startRecording() {
+        return ResponseEntity.ok(flightRecordingService.start());
+    }
+
+    /**
+     * Stops the recording and dumps it to diagnostics.jfr.dump-directory; open the file in JDK
+     * Mission Control or with {@code jfr print --events marketdata.ProviderFetch}.
+     *
+     * Example:
+     * POST /api/v1/diagnostics/recording/stop
+     */
+    @PostMapping("/recording/stop")
+    public ResponseEntity<FlightRecordingResponse> stopRecording() {
+        return ResponseEntity.ok(flightRecordingService.stop());
+    }
+
+    /**
+     * Example:
+     * GET /api/v1/diagnostics/recording
+     */
+    @GetMapping("/recording")
+    public ResponseEntity<FlightRecordingResponse> recording() {
+        return ResponseEntity.of(flightRecordingService.status());
+    }
+
+}
@@ -0,0 +1,28 @@
+package com.example.stockanalyzer.marketdata.controller;
+
+import java.util.List;
+import com.example.stockanalyzer.marketdata.dto.RateLimiterStatsResponse;
+import com.example.stockanalyzer.marketdata.ingestion.RateLimiterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/v1/ingestion")
+@RequiredArgsConstructor
+public class IngestionController {
+
+    private final RateLimiterRegistry rateLimiterRegistry;
+
+    /**
+     * Returns permits used, in-flight calls and accumulated wait time per data source.
+     *
+     * Example:
+     * GET /api/v1/ingestion/rate-limits
+     */
+    @GetMapping("/rate-limits")
+    public ResponseEntity<List<RateLimiterStatsResponse>> rateLimits() {
+        return ResponseEntity.ok(rateLimiterRegistry.stats());
+    }
+
+}
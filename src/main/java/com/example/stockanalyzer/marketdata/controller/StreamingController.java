@@ -0,0 +1,43 @@
+package com.example.stockanalyzer.marketdata.controller;
+
+import java.util.List;
+import com.example.stockanalyzer.marketdata.dto.CandleSubscriberStatsResponse;
+import com.example.stockanalyzer.marketdata.dto.TickerConnectionStatsResponse;
+import com.example.stockanalyzer.marketdata.streaming.KiteTickerSubscriptionManager;
+import com.example.stockanalyzer.marketdata.websocket.CandleBroadcastHandler;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/v1/streaming")
+@RequiredArgsConstructor
+public class StreamingController {
+
+    private final KiteTickerSubscriptionManager subscriptionManager;
+    private final CandleBroadcastHandler candleBroadcastHandler;
+
+    /**
+     * Returns per-connection instrument count, tick rate and lag.
+     *
+     * Example:
+     * GET /api/v1/streaming/connections
+     */
+    @GetMapping("/connections")
+    public ResponseEntity<List<TickerConnectionStatsResponse>> connections() {
+        return ResponseEntity.ok(subscriptionManager.stats());
+    }
+
+    /**
+     * Returns per-session subscriptions, pending (conflated) queue depth and send/drop counts
+     * of the live candle WebSocket at /ws/candles.
+     *
+     * Example:
+     * GET /api/v1/streaming/subscribers
+     */
+    @GetMapping("/subscribers")
+    public ResponseEntity<List<CandleSubscriberStatsResponse>> subscribers() {
+        return ResponseEntity.ok(candleBroadcastHandler.stats());
+    }
+
+}
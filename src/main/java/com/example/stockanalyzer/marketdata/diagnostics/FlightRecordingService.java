@@ -0,0 +1,148 @@
+package com.example.stockanalyzer.marketdata.diagnostics;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.Optional;
+import java.util.concurrent.locks.ReentrantLock;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import com.example.stockanalyzer.marketdata.dto.FlightRecordingResponse;
+import com.example.stockanalyzer.marketdata.exception.MarketDataException;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Starts and stops one in-process JFR recording. It uses the JDK's {@code default} settings (the
+ * low-overhead profile meant for production) plus this application's events, so slow cycles,
+ * fetches and batches can be lined up against GC pauses and lock contention in JDK Mission Control.
+ *
+ * The recording buffers to disk bounded by {@code diagnostics.jfr.max-age-minutes} and
+ * {@code max-size-mb}; stopping it dumps a {@code .jfr} file into {@code diagnostics.jfr.dump-directory}.
+ */
+@Slf4j
+@Service
+public class FlightRecordingService {
+
+    private static final DateTimeFormatter FILE_TIME = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss")
+            .withZone(ZoneOffset.UTC);
+
+    private final Path dumpDirectory;
+    private final Duration maxAge;
+    private final long maxSizeBytes;
+    private final ReentrantLock lock = new ReentrantLock();
+    private Recording active;
+    private FlightRecordingResponse last;
+
+    public FlightRecordingService(
+            @Value("${diagnostics.jfr.dump-directory:data/jfr}") String dumpDirectory,
+            @Value("${diagnostics.jfr.max-age-minutes:60}") long maxAgeMinutes,
+            @Value("${diagnostics.jfr.max-size-mb:256}") long maxSizeMb) {
+        this.dumpDirectory = Path.of(dumpDirectory);
+        this.maxAge = Duration.ofMinutes(maxAgeMinutes);
+        this.maxSizeBytes = maxSizeMb * 1024 * 1024;
+    }
+
+    /**
+     * Starts a recording, or returns the running one unchanged.
+     */
+    public FlightRecordingResponse start() {
+        lock.lock();
+        try {
+            if (active != null) {
+                return toResponse(active, null, null);
+            }
+            Recording recording = new Recording(Configuration.getConfiguration("default"));
+            recording.setName("marketdata-" + FILE_TIME.format(Instant.now()));
+            recording.setToDisk(true);
+            recording.setMaxAge(maxAge);
+            recording.setMaxSize(maxSizeBytes);
+            recording.enable(IngestionCycleEvent.class);
+            recording.enable(ProviderFetchEvent.class);
+            recording.enable(PersistBatchEvent.class);
+            recording.enable(SessionValidationEvent.class);
+            recording.start();
+            active = recording;
+            log.info("Started flight recording {}", recording.getName());
+            return toResponse(recording, null, null);
+        } catch (IOException | ParseException e) {
+            throw new MarketDataException("Could not load the default JFR configuration", e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Stops the running recording and dumps it to the dump directory.
+     */
+    public FlightRecordingResponse stop() {
+        lock.lock();
+        try {
+            if (active == null) {
+                throw new MarketDataException("No flight recording is running");
+            }
+            Recording recording = active;
+            active = null;
+            Path file = dumpDirectory.resolve(recording.getName() + ".jfr").toAbsolutePath();
+            try {
+                Files.createDirectories(dumpDirectory);
+                recording.stop();
+                recording.dump(file);
+                last = toResponse(recording, file, Files.size(file));
+                log.info("Stopped flight recording {}, dumped to {}", recording.getName(), file);
+                return last;
+            } catch (IOException e) {
+                throw new MarketDataException("Could not dump flight recording to " + file, e);
+            } finally {
+                recording.close();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * The running recording, else the last one dumped.
+     */
+    public Optional<FlightRecordingResponse> status() {
+        lock.lock();
+        try {
+            return active != null
+                    ? Optional.of(toResponse(active, null, null))
+                    : Optional.ofNullable(last);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        lock.lock();
+        try {
+            if (active != null) {
+                active.close();
+                active = null;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static FlightRecordingResponse toResponse(Recording recording, Path dumpPath, Long sizeBytes) {
+        return new FlightRecordingResponse(
+                recording.getId(),
+                recording.getName(),
+                recording.getState().name(),
+                recording.getStartTime(),
+                recording.getStopTime(),
+                dumpPath == null ? null : dumpPath.toString(),
+                sizeBytes);
+    }
+}
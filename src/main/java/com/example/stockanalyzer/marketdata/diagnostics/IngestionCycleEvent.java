@@ -0,0 +1,41 @@
+package com.example.stockanalyzer.marketdata.diagnostics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * One {@code CandleIngestionPipeline} run, from the first fetch submitted to the last batch
+ * committed.
+ */
+@Name("marketdata.IngestionCycle")
+@Label("Ingestion Cycle")
+@Category({"Market Data", "Ingestion"})
+@Description("Fetch, map and persist of one interval for all instruments of a data source")
+@StackTrace(false)
+public class IngestionCycleEvent extends Event {
+
+    @Label("Data Source")
+    public String dataSource;
+
+    @Label("Interval")
+    public String interval;
+
+    @Label("Instruments")
+    public int instruments;
+
+    @Label("Candles Fetched")
+    public int candlesFetched;
+
+    @Label("Candles Inserted")
+    public int candlesInserted;
+
+    @Label("Persist Batches")
+    public int persistBatches;
+
+    @Label("Failed Instruments")
+    public int failedInstruments;
+}
@@ -0,0 +1,33 @@
+package com.example.stockanalyzer.marketdata.diagnostics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * One {@code CandleBatchPersister} transaction: the multi-row write plus the watermark update.
+ */
+@Name("marketdata.PersistBatch")
+@Label("Persist Batch")
+@Category({"Market Data", "Persistence"})
+@Description("Candle batch written in its own transaction")
+@StackTrace(false)
+public class PersistBatchEvent extends Event {
+
+    @Label("Mode")
+    @Description("insert (duplicates ignored) or upsert")
+    public String mode;
+
+    @Label("Rows")
+    public int rows;
+
+    @Label("Inserted")
+    @Description("Rows not already stored; -1 for upserts")
+    public int inserted;
+
+    @Label("Succeeded")
+    public boolean succeeded;
+}
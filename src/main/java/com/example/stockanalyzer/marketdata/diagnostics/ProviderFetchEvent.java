@@ -0,0 +1,48 @@
+package com.example.stockanalyzer.marketdata.diagnostics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timestamp;
+
+/**
+ * One provider candle request. For {@code fetchRawCandles} this is the HTTP call alone; mapping
+ * runs later on the pipeline's map stage.
+ */
+@Name("marketdata.ProviderFetch")
+@Label("Provider Fetch")
+@Category({"Market Data", "Provider"})
+@Description("Historical candle request to a market data provider")
+@StackTrace(false)
+public class ProviderFetchEvent extends Event {
+
+    @Label("Provider")
+    public String provider;
+
+    @Label("Instrument Id")
+    public long instrumentId;
+
+    @Label("Symbol")
+    public String symbol;
+
+    @Label("Interval")
+    public String interval;
+
+    @Label("From")
+    @Timestamp(Timestamp.MILLISECONDS_SINCE_EPOCH)
+    public long from;
+
+    @Label("To")
+    @Timestamp(Timestamp.MILLISECONDS_SINCE_EPOCH)
+    public long to;
+
+    @Label("Bars")
+    public int bars;
+
+    @Label("Error")
+    @Description("Exception class of a failed call, null on success")
+    public String error;
+}
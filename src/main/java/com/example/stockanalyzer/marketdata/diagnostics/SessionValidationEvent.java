@@ -0,0 +1,33 @@
+package com.example.stockanalyzer.marketdata.diagnostics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * One provider round trip checking whether a data source's session is still usable. Cached
+ * answers are not recorded.
+ */
+@Name("marketdata.SessionValidation")
+@Label("Session Validation")
+@Category({"Market Data", "Provider"})
+@Description("Session probe against a provider")
+@StackTrace(false)
+public class SessionValidationEvent extends Event {
+
+    @Label("Data Source Id")
+    public long dataSourceId;
+
+    @Label("Provider")
+    public String provider;
+
+    @Label("Valid")
+    public boolean valid;
+
+    @Label("Background")
+    @Description("Scheduled re-probe rather than a probe on the fetch path")
+    public boolean background;
+}
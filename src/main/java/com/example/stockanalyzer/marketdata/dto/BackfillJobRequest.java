@@ -0,0 +1,28 @@
+package com.example.stockanalyzer.marketdata.dto;
+
+import java.time.Instant;
+import java.util.List;
+import com.example.stockanalyzer.marketdata.entites.IntervalType;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Request to backfill historical candles. An empty {@code instrumentIds} means every active
+ * instrument with a Kite token.
+ */
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class BackfillJobRequest{
+
+    private Long dataSourceId;
+    private IntervalType intervalType;
+    private Instant from;
+    private Instant to;
+    private List<Long> instrumentIds;
+
+}
@@ -0,0 +1,41 @@
+package com.example.stockanalyzer.marketdata.dto;
+
+import java.time.Instant;
+import com.example.stockanalyzer.marketdata.entites.BackfillJob;
+import com.example.stockanalyzer.marketdata.entites.BackfillStatus;
+import com.example.stockanalyzer.marketdata.entites.IntervalType;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Progress and throughput of a {@link BackfillJob}.
+ */
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class BackfillJobResponse{
+
+    private Long id;
+    private Long dataSourceId;
+    private IntervalType intervalType;
+    private Instant from;
+    private Instant to;
+    private BackfillStatus status;
+    private int totalChunks;
+    private int completedChunks;
+    private int failedChunks;
+    private double percentComplete;
+    private long candlesFetched;
+    private long candlesInserted;
+    private Instant startedAt;
+    private Instant finishedAt;
+    private long elapsedSeconds;
+    private double chunksPerMinute;
+    private double candlesPerSecond;
+    private String lastError;
+
+}
@@ -0,0 +1,28 @@
+package com.example.stockanalyzer.marketdata.dto;
+
+import java.time.Instant;
+import java.time.YearMonth;
+import com.example.stockanalyzer.marketdata.entites.ArchiveStatus;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * One month of the candle file archive and the size of its files.
+ */
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class CandleArchiveMonthResponse{
+
+    private YearMonth month;
+    private ArchiveStatus status;
+    private Integer seriesCount;
+    private Long rowCount;
+    private Long fileBytes;
+    private Instant archivedAt;
+
+}
@@ -0,0 +1,27 @@
+package com.example.stockanalyzer.marketdata.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Size and effectiveness of the candle range cache.
+ */
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class CandleCacheStatsResponse{
+
+    private boolean enabled;
+    private int entries;
+    private long cachedRows;
+    private long maxRows;
+    private long hits;
+    private long misses;
+    private long evictions;
+    private long invalidations;
+
+}
@@ -0,0 +1,24 @@
+package com.example.stockanalyzer.marketdata.dto;
+
+import java.time.Instant;
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * One keyset page of {@link CandleResponse}s. Pass {@code nextCursor} as {@code after} to read the next page.
+ */
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class CandlePageResponse{
+
+    private List<CandleResponse> candles;
+    private Instant nextCursor;
+    private boolean hasMore;
+
+}
@@ -9,6 +9,7 @@ import lombok.Setter;
 
 /**
  * Query parameters for reading stored candles for an instrument.
+ * {@code after} is the {@code nextCursor} of the previous page; {@code from} is used for the first page.
  */
 
 @Getter
@@ -20,6 +21,8 @@ public class CandleQueryRequest{
     private Instant from;
     private Instant to;
     private IntervalType intervalType;
+    private Instant after;
+    private Integer limit;
 
 }
         
@@ -0,0 +1,30 @@
+package com.example.stockanalyzer.marketdata.dto;
+
+import java.time.Instant;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Outbound state of one live candle WebSocket session.
+ * {@code conflated} counts bars replaced by a newer bar before they were sent.
+ */
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class CandleSubscriberStatsResponse{
+
+    private String sessionId;
+    private String protocol;
+    private Instant connectedAt;
+    private int subscriptions;
+    private int queueDepth;
+    private long sent;
+    private long sentBytes;
+    private long conflated;
+    private long sendFailures;
+
+}
@@ -0,0 +1,24 @@
+package com.example.stockanalyzer.marketdata.dto;
+
+import com.example.stockanalyzer.marketdata.entites.IntervalType;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Client frame on the live candle WebSocket, e.g.
+ * {@code {"action":"subscribe","instrumentId":1,"intervalType":"ONE_MINUTE"}}.
+ */
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class CandleSubscriptionRequest{
+
+    private String action;
+    private Long instrumentId;
+    private IntervalType intervalType;
+
+}
@@ -23,5 +23,11 @@ public class FetchCandlesRequest{
     private IntervalType intervalType;
     private Instant from;
     private Instant to;
-      
+
+    /**
+     * The interval to fetch; providers return daily bars when none is given.
+     */
+    public IntervalType intervalTypeOrDefault() {
+        return intervalType != null ? intervalType : IntervalType.ONE_DAY;
+    }
 }
@@ -0,0 +1,27 @@
+package com.example.stockanalyzer.marketdata.dto;
+
+import java.time.Instant;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * State of the in-process flight recording; {@code dumpPath} is set once it has been stopped.
+ */
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class FlightRecordingResponse{
+
+    private Long id;
+    private String name;
+    private String state;
+    private Instant startedAt;
+    private Instant stoppedAt;
+    private String dumpPath;
+    private Long sizeBytes;
+
+}
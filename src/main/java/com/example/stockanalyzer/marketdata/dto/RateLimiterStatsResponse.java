@@ -0,0 +1,32 @@
+package com.example.stockanalyzer.marketdata.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Point-in-time state of the rate limiter for one data source.
+ */
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class RateLimiterStatsResponse{
+
+    private Long dataSourceId;
+    private String dataSourceName;
+    private int permitsPerMinute;
+    private int permitsPerDay;
+    private int maxInFlight;
+    private int inFlight;
+    private int waitingForSlot;
+    private Double availableTokens;
+    private int usedToday;
+    private long permitsGranted;
+    private long rejectedDaily;
+    private long totalWaitMillis;
+    private double averageWaitMillis;
+
+}
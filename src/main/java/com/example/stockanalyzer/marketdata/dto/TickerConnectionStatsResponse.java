@@ -0,0 +1,32 @@
+package com.example.stockanalyzer.marketdata.dto;
+
+import java.time.Instant;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * State of one streaming ticker connection.
+ */
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class TickerConnectionStatsResponse{
+
+    private Long dataSourceId;
+    private String connectionName;
+    private int instrumentCount;
+    private boolean connected;
+    private int reconnectAttempts;
+    private long ticksReceived;
+    // Average over the last few whole seconds; 0 once ticks stop.
+    private double ticksPerSecond;
+    private Instant lastTickAt;
+    private long lastLagMillis;
+    // Highest lag seen in the same window.
+    private long maxLagMillis;
+
+}
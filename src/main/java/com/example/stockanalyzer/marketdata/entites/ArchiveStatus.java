@@ -0,0 +1,6 @@
+package com.example.stockanalyzer.marketdata.entites;
+
+public enum ArchiveStatus {
+    WRITING,
+    ARCHIVED
+}
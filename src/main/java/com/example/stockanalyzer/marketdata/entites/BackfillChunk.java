@@ -0,0 +1,50 @@
+package com.example.stockanalyzer.marketdata.entites;
+
+import java.time.Instant;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * One provider-legal slice of a {@link BackfillJob}: a single instrument over a range no longer
+ * than the provider's per-request limit. Its status is the job's checkpoint.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "backfill_chunk")
+public class BackfillChunk extends BaseModel {
+
+    @Column(name = "job_id", nullable = false)
+    private Long jobId;
+
+    @Column(name = "instrument_id", nullable = false)
+    private Long instrumentId;
+
+    @Column(name = "chunk_from", nullable = false)
+    private Instant chunkFrom;
+
+    @Column(name = "chunk_to", nullable = false)
+    private Instant chunkTo;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 20)
+    private BackfillStatus status = BackfillStatus.PENDING;
+
+    @Column(name = "attempts", nullable = false)
+    private int attempts;
+
+    @Column(name = "candles_inserted", nullable = false)
+    private int candlesInserted;
+
+    @Column(name = "last_error", length = 1000)
+    private String lastError;
+}
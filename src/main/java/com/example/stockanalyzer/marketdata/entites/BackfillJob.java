@@ -0,0 +1,69 @@
+package com.example.stockanalyzer.marketdata.entites;
+
+import java.time.Instant;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * A historical backfill over (instruments x interval x date range), split into
+ * {@link BackfillChunk}s that each fit in one provider request.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "backfill_job")
+public class BackfillJob extends BaseModel {
+
+    @ManyToOne(optional = false)
+    @JoinColumn(name = "data_source_id", nullable = false)
+    private DataSource dataSource;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "interval_type", nullable = false, length = 20)
+    private IntervalType intervalType;
+
+    @Column(name = "range_from", nullable = false)
+    private Instant rangeFrom;
+
+    @Column(name = "range_to", nullable = false)
+    private Instant rangeTo;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 20)
+    private BackfillStatus status = BackfillStatus.PENDING;
+
+    @Column(name = "total_chunks", nullable = false)
+    private int totalChunks;
+
+    @Column(name = "completed_chunks", nullable = false)
+    private int completedChunks;
+
+    @Column(name = "failed_chunks", nullable = false)
+    private int failedChunks;
+
+    @Column(name = "candles_fetched", nullable = false)
+    private long candlesFetched;
+
+    @Column(name = "candles_inserted", nullable = false)
+    private long candlesInserted;
+
+    @Column(name = "started_at")
+    private Instant startedAt;
+
+    @Column(name = "finished_at")
+    private Instant finishedAt;
+
+    @Column(name = "last_error", length = 1000)
+    private String lastError;
+}
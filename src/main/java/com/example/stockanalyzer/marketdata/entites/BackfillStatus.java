@@ -0,0 +1,8 @@
+package com.example.stockanalyzer.marketdata.entites;
+
+public enum BackfillStatus {
+    PENDING,
+    RUNNING,
+    COMPLETED,
+    FAILED
+}
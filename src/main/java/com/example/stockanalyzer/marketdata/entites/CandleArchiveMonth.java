@@ -0,0 +1,44 @@
+package com.example.stockanalyzer.marketdata.entites;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * One UTC month of candles moved to the file archive, one file per instrument and interval.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "candle_archive_month")
+public class CandleArchiveMonth extends BaseModel {
+
+    @Column(name = "month_start", nullable = false)
+    private LocalDate monthStart;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 20)
+    private ArchiveStatus status;
+
+    @Column(name = "series_count", nullable = false)
+    private int seriesCount;
+
+    @Column(name = "row_count", nullable = false)
+    private long rowCount;
+
+    @Column(name = "file_bytes", nullable = false)
+    private long fileBytes;
+
+    @Column(name = "archived_at")
+    private Instant archivedAt;
+}
@@ -51,4 +51,13 @@ public class DataSource extends BaseModel {
 
     @Column(name = "description", length = 1000)
     private String description;
+
+    @Column(name = "streaming_enabled", nullable = false)
+    private boolean streamingEnabled;
+
+    @Column(name = "max_stream_connections")
+    private Integer maxStreamConnections;
+
+    @Column(name = "max_instruments_per_connection")
+    private Integer maxInstrumentsPerConnection;
 }
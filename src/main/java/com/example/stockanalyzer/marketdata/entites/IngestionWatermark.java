@@ -0,0 +1,35 @@
+package com.example.stockanalyzer.marketdata.entites;
+
+import java.time.Instant;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Start of the latest closed candle committed for an instrument and interval. The next ingestion
+ * run for the pair only asks the provider for bars after this point.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "ingestion_watermark")
+public class IngestionWatermark extends BaseModel {
+
+    @Column(name = "instrument_id", nullable = false)
+    private Long instrumentId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "interval_type", nullable = false, length = 20)
+    private IntervalType intervalType;
+
+    @Column(name = "last_candle_start", nullable = false)
+    private Instant lastCandleStart;
+}
@@ -0,0 +1,257 @@
+package com.example.stockanalyzer.marketdata.ingestion;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import com.example.stockanalyzer.marketdata.entites.Candle;
+import com.example.stockanalyzer.marketdata.entites.Instrument;
+import com.example.stockanalyzer.marketdata.entites.IntervalType;
+import com.example.stockanalyzer.marketdata.mapper.PriceScale;
+
+/**
+ * Candles between the provider and the database as parallel primitive columns: epoch-second
+ * timestamps, {@link PriceScale} prices and volume. Rows cost no objects beyond the shared
+ * {@link Instrument} reference, the batch can be cleared and refilled, and it binds straight to
+ * JDBC parameters. {@link Candle} entities are built only by {@link #toCandle(int)} for callers
+ * that need them.
+ *
+ * Trade count and VWAP are not carried; no provider supplies them yet.
+ * Not thread-safe; published batches are {@link #copy() copies} and must not be modified.
+ */
+public final class CandleBatch {
+
+    private Instrument[] instruments;
+    private IntervalType[] intervals;
+    private long[] startSeconds;
+    private long[] endSeconds;
+    private long[] open;
+    private long[] high;
+    private long[] low;
+    private long[] close;
+    private long[] volume;
+    private int size;
+
+    public CandleBatch() {
+        this(64);
+    }
+
+    public CandleBatch(int initialCapacity) {
+        int capacity = Math.max(1, initialCapacity);
+        instruments = new Instrument[capacity];
+        intervals = new IntervalType[capacity];
+        startSeconds = new long[capacity];
+        endSeconds = new long[capacity];
+        open = new long[capacity];
+        high = new long[capacity];
+        low = new long[capacity];
+        close = new long[capacity];
+        volume = new long[capacity];
+    }
+
+    public static CandleBatch of(List<Candle> candles) {
+        CandleBatch batch = new CandleBatch(candles.size());
+        candles.forEach(batch::add);
+        return batch;
+    }
+
+    public void add(
+            Instrument instrument,
+            IntervalType intervalType,
+            long startSecond,
+            long endSecond,
+            long scaledOpen,
+            long scaledHigh,
+            long scaledLow,
+            long scaledClose,
+            long barVolume) {
+        if (size == startSeconds.length) {
+            grow(size * 2);
+        }
+        instruments[size] = instrument;
+        intervals[size] = intervalType;
+        startSeconds[size] = startSecond;
+        endSeconds[size] = endSecond;
+        open[size] = scaledOpen;
+        high[size] = scaledHigh;
+        low[size] = scaledLow;
+        close[size] = scaledClose;
+        volume[size] = barVolume;
+        size++;
+    }
+
+    public void add(Candle candle) {
+        add(candle.getInstrument(),
+                candle.getIntervalType(),
+                candle.getCandleStart().getEpochSecond(),
+                candle.getCandleEnd().getEpochSecond(),
+                PriceScale.toScaled(candle.getOpenPrice()),
+                PriceScale.toScaled(candle.getHighPrice()),
+                PriceScale.toScaled(candle.getLowPrice()),
+                PriceScale.toScaled(candle.getClosePrice()),
+                candle.getVolume() == null ? 0L : candle.getVolume());
+    }
+
+    /**
+     * Appends row {@code i} of {@code other}.
+     */
+    public void add(CandleBatch other, int i) {
+        add(other.instruments[i],
+                other.intervals[i],
+                other.startSeconds[i],
+                other.endSeconds[i],
+                other.open[i],
+                other.high[i],
+                other.low[i],
+                other.close[i],
+                other.volume[i]);
+    }
+
+    public void addAll(CandleBatch other) {
+        if (size + other.size > startSeconds.length) {
+            grow(Math.max(size + other.size, size * 2));
+        }
+        System.arraycopy(other.instruments, 0, instruments, size, other.size);
+        System.arraycopy(other.intervals, 0, intervals, size, other.size);
+        System.arraycopy(other.startSeconds, 0, startSeconds, size, other.size);
+        System.arraycopy(other.endSeconds, 0, endSeconds, size, other.size);
+        System.arraycopy(other.open, 0, open, size, other.size);
+        System.arraycopy(other.high, 0, high, size, other.size);
+        System.arraycopy(other.low, 0, low, size, other.size);
+        System.arraycopy(other.close, 0, close, size, other.size);
+        System.arraycopy(other.volume, 0, volume, size, other.size);
+        size += other.size;
+    }
+
+    /**
+     * Removes, in place, the bars that end after {@code cutoffSecond}. Called with the time a
+     * fetch started, so only bars that were already closed when the provider answered remain.
+     *
+     * @return number of bars removed
+     */
+    public int retainClosed(long cutoffSecond) {
+        int kept = 0;
+        for (int i = 0; i < size; i++) {
+            if (endSeconds[i] > cutoffSecond) {
+                continue;
+            }
+            if (kept != i) {
+                instruments[kept] = instruments[i];
+                intervals[kept] = intervals[i];
+                startSeconds[kept] = startSeconds[i];
+                endSeconds[kept] = endSeconds[i];
+                open[kept] = open[i];
+                high[kept] = high[i];
+                low[kept] = low[i];
+                close[kept] = close[i];
+                volume[kept] = volume[i];
+            }
+            kept++;
+        }
+        int removed = size - kept;
+        Arrays.fill(instruments, kept, size, null);
+        Arrays.fill(intervals, kept, size, null);
+        size = kept;
+        return removed;
+    }
+
+    /**
+     * Empties the batch but keeps its arrays for the next fill.
+     */
+    public void clear() {
+        Arrays.fill(instruments, 0, size, null);
+        Arrays.fill(intervals, 0, size, null);
+        size = 0;
+    }
+
+    /**
+     * A right-sized copy, safe to hand to other threads while this batch is reused.
+     */
+    public CandleBatch copy() {
+        CandleBatch copy = new CandleBatch(size);
+        copy.addAll(this);
+        return copy;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public Instrument instrument(int i) {
+        return instruments[i];
+    }
+
+    public long instrumentId(int i) {
+        return instruments[i].getId();
+    }
+
+    public IntervalType intervalType(int i) {
+        return intervals[i];
+    }
+
+    public long startSecond(int i) {
+        return startSeconds[i];
+    }
+
+    public long endSecond(int i) {
+        return endSeconds[i];
+    }
+
+    public long open(int i) {
+        return open[i];
+    }
+
+    public long high(int i) {
+        return high[i];
+    }
+
+    public long low(int i) {
+        return low[i];
+    }
+
+    public long close(int i) {
+        return close[i];
+    }
+
+    public long volume(int i) {
+        return volume[i];
+    }
+
+    public Candle toCandle(int i) {
+        Candle candle = new Candle();
+        candle.setInstrument(instruments[i]);
+        candle.setIntervalType(intervals[i]);
+        candle.setCandleStart(Instant.ofEpochSecond(startSeconds[i]));
+        candle.setCandleEnd(Instant.ofEpochSecond(endSeconds[i]));
+        candle.setOpenPrice(PriceScale.toBigDecimal(open[i]));
+        candle.setHighPrice(PriceScale.toBigDecimal(high[i]));
+        candle.setLowPrice(PriceScale.toBigDecimal(low[i]));
+        candle.setClosePrice(PriceScale.toBigDecimal(close[i]));
+        candle.setVolume(volume[i]);
+        return candle;
+    }
+
+    public List<Candle> toCandles() {
+        List<Candle> candles = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            candles.add(toCandle(i));
+        }
+        return candles;
+    }
+
+    private void grow(int capacity) {
+        instruments = Arrays.copyOf(instruments, capacity);
+        intervals = Arrays.copyOf(intervals, capacity);
+        startSeconds = Arrays.copyOf(startSeconds, capacity);
+        endSeconds = Arrays.copyOf(endSeconds, capacity);
+        open = Arrays.copyOf(open, capacity);
+        high = Arrays.copyOf(high, capacity);
+        low = Arrays.copyOf(low, capacity);
+        close = Arrays.copyOf(close, capacity);
+        volume = Arrays.copyOf(volume, capacity);
+    }
+}
@@ -0,0 +1,120 @@
+package com.example.stockanalyzer.marketdata.ingestion;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import com.example.stockanalyzer.marketdata.diagnostics.PersistBatchEvent;
+import com.example.stockanalyzer.marketdata.entites.Candle;
+import com.example.stockanalyzer.marketdata.metrics.MarketDataMetrics;
+import com.example.stockanalyzer.marketdata.repository.CandleRepository;
+
+/**
+ * Writes one batch of candles in its own short transaction, so a connection is only borrowed for
+ * the duration of the insert rather than for a whole ingestion cycle. The batch's ingestion
+ * watermarks are advanced in the same transaction, and a {@link CandlesPersistedEvent} is
+ * published once it has committed. The {@link CandleBatch} overloads are the hot path; the
+ * {@code List<Candle>} ones convert and delegate.
+ */
+@Component
+public class CandleBatchPersister {
+
+    private final CandleRepository candleRepository;
+    private final IngestionWatermarkService watermarkService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final MarketDataMetrics metrics;
+    private final TransactionTemplate transactionTemplate;
+
+    public CandleBatchPersister(
+            CandleRepository candleRepository,
+            IngestionWatermarkService watermarkService,
+            ApplicationEventPublisher eventPublisher,
+            MarketDataMetrics metrics,
+            PlatformTransactionManager transactionManager) {
+        this.candleRepository = candleRepository;
+        this.watermarkService = watermarkService;
+        this.eventPublisher = eventPublisher;
+        this.metrics = metrics;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    public int persist(List<Candle> candles) {
+        return persist(CandleBatch.of(candles));
+    }
+
+    /**
+     * @return number of candles that were not already stored
+     */
+    public int persist(CandleBatch candles) {
+        if (candles.isEmpty()) {
+            return 0;
+        }
+        int[] inserted = new int[1];
+        PersistBatchEvent event = new PersistBatchEvent();
+        event.begin();
+        long started = System.nanoTime();
+        boolean succeeded = false;
+        Map<WatermarkKey, Instant> advanced;
+        try {
+            advanced = transactionTemplate.execute(status -> {
+                inserted[0] = candleRepository.insertIgnoreAll(candles);
+                return watermarkService.advance(candles);
+            });
+            succeeded = true;
+        } finally {
+            metrics.recordPersistBatch("insert", candles.size(), System.nanoTime() - started, succeeded);
+            commit(event, "insert", candles.size(), inserted[0], succeeded);
+        }
+        if (advanced != null) {
+            watermarkService.publish(advanced);
+        }
+        eventPublisher.publishEvent(new CandlesPersistedEvent(candles.copy(), false));
+        return inserted[0];
+    }
+
+    public void upsert(List<Candle> candles) {
+        upsert(CandleBatch.of(candles));
+    }
+
+    /**
+     * Inserts or overwrites the given candles, for bars that are revised after first being stored.
+     */
+    public void upsert(CandleBatch candles) {
+        if (candles.isEmpty()) {
+            return;
+        }
+        PersistBatchEvent event = new PersistBatchEvent();
+        event.begin();
+        long started = System.nanoTime();
+        boolean succeeded = false;
+        Map<WatermarkKey, Instant> advanced;
+        try {
+            advanced = transactionTemplate.execute(status -> {
+                candleRepository.upsertAll(candles);
+                return watermarkService.advance(candles);
+            });
+            succeeded = true;
+        } finally {
+            metrics.recordPersistBatch("upsert", candles.size(), System.nanoTime() - started, succeeded);
+            commit(event, "upsert", candles.size(), -1, succeeded);
+        }
+        if (advanced != null) {
+            watermarkService.publish(advanced);
+        }
+        eventPublisher.publishEvent(new CandlesPersistedEvent(candles.copy(), true));
+    }
+
+    private static void commit(PersistBatchEvent event, String mode, int rows, int inserted, boolean succeeded) {
+        event.end();
+        if (event.shouldCommit()) {
+            event.mode = mode;
+            event.rows = rows;
+            event.inserted = inserted;
+            event.succeeded = succeeded;
+            event.commit();
+        }
+    }
+}
@@ -0,0 +1,297 @@
+package com.example.stockanalyzer.marketdata.ingestion;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import com.example.stockanalyzer.marketdata.diagnostics.IngestionCycleEvent;
+import com.example.stockanalyzer.marketdata.entites.Instrument;
+import com.example.stockanalyzer.marketdata.entites.IntervalType;
+import com.example.stockanalyzer.marketdata.exception.MarketDataException;
+import com.example.stockanalyzer.marketdata.metrics.MarketDataMetrics;
+import com.example.stockanalyzer.marketdata.provider.RawCandles;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Ingestion cycle split into three stages connected by bounded queues:
+ *
+ * <ol>
+ *     <li>fetch - provider calls on virtual threads, gated by {@link ProviderCallExecutor} and
+ *     failed over (or hedged) across data sources by {@link ProviderFailoverFetcher}</li>
+ *     <li>map - {@link RawCandles#appendTo(CandleBatch)} on {@code map-workers} threads; bars
+ *     not yet closed at the cycle's {@code to} are dropped and fetched again next cycle</li>
+ *     <li>persist - rows grouped into batches of up to {@code persist-batch-size}, each committed
+ *     by {@link CandleBatchPersister} in its own transaction; a batch that fails is retried one
+ *     instrument at a time, so a bad row fails only its own instrument</li>
+ * </ol>
+ *
+ * A full queue blocks the stage feeding it, so a slow database throttles fetching instead of
+ * buffering responses without bound. With {@link CandleJournal} enabled the persist stage appends
+ * to the journal instead and the database is written behind it. No transaction or connection is
+ * held across provider calls, and a failing instrument only loses its own candles.
+ */
+@Slf4j
+@Component
+public class CandleIngestionPipeline {
+
+    private static final Fetched END_OF_FETCHES = new Fetched(null, null);
+    private static final Mapped END_OF_MAPPED = new Mapped(null, new CandleBatch(1));
+
+    private final ProviderFailoverFetcher failoverFetcher;
+    private final CandleBatchPersister candleBatchPersister;
+    private final CandleJournal candleJournal;
+    private final IngestionWatermarkService watermarkService;
+    private final MarketDataMetrics metrics;
+    private final int queueCapacity;
+    private final int mapWorkers;
+    private final int persistWorkers;
+    private final int persistBatchSize;
+
+    public CandleIngestionPipeline(
+            ProviderFailoverFetcher failoverFetcher,
+            CandleBatchPersister candleBatchPersister,
+            CandleJournal candleJournal,
+            IngestionWatermarkService watermarkService,
+            MarketDataMetrics metrics,
+            @Value("${ingestion.pipeline.queue-capacity:256}") int queueCapacity,
+            @Value("${ingestion.pipeline.map-workers:2}") int mapWorkers,
+            @Value("${ingestion.pipeline.persist-workers:2}") int persistWorkers,
+            @Value("${ingestion.pipeline.persist-batch-size:1000}") int persistBatchSize) {
+        this.failoverFetcher = failoverFetcher;
+        this.candleBatchPersister = candleBatchPersister;
+        this.candleJournal = candleJournal;
+        this.watermarkService = watermarkService;
+        this.metrics = metrics;
+        this.queueCapacity = queueCapacity;
+        this.mapWorkers = mapWorkers;
+        this.persistWorkers = persistWorkers;
+        this.persistBatchSize = persistBatchSize;
+    }
+
+    /**
+     * @param sources active data sources in priority order; each instrument is fetched from the
+     *                first that answers
+     * @param from start of the fetch window, or {@code null} to resume each instrument from its
+     *             ingestion watermark
+     */
+    public IngestionCycleResult run(
+            List<ProviderSource> sources,
+            List<Instrument> instruments,
+            IntervalType intervalType,
+            Instant from,
+            Instant to) {
+
+        IngestionCycleEvent event = new IngestionCycleEvent();
+        event.begin();
+        long startedAt = System.nanoTime();
+        BlockingQueue<Fetched> fetchedQueue = new ArrayBlockingQueue<>(queueCapacity);
+        BlockingQueue<Mapped> mappedQueue = new ArrayBlockingQueue<>(queueCapacity);
+        CycleCounters counters = new CycleCounters();
+
+        try (ExecutorService mapStage = Executors.newThreadPerTaskExecutor(
+                     Thread.ofVirtual().name("candle-map-", 0).factory());
+             ExecutorService persistStage = Executors.newThreadPerTaskExecutor(
+                     Thread.ofVirtual().name("candle-persist-", 0).factory())) {
+
+            List<Future<?>> mappers = new ArrayList<>();
+            for (int i = 0; i < mapWorkers; i++) {
+                mappers.add(mapStage.submit(() -> mapLoop(fetchedQueue, mappedQueue, to, counters)));
+            }
+            List<Future<?>> persisters = new ArrayList<>();
+            for (int i = 0; i < persistWorkers; i++) {
+                persisters.add(persistStage.submit(() -> persistLoop(mappedQueue, counters)));
+            }
+
+            List<CompletableFuture<?>> fetches = new ArrayList<>(instruments.size());
+            for (Instrument instrument : instruments) {
+                Instant instrumentFrom = from != null
+                        ? from
+                        : watermarkService.fetchFrom(instrument.getId(), intervalType, to);
+                if (!instrumentFrom.isBefore(to)) {
+                    continue;
+                }
+                fetches.add(failoverFetcher
+                        .fetch(sources, instrument, intervalType, instrumentFrom, to)
+                        .whenComplete((raw, error) -> {
+                            if (error != null) {
+                                counters.fail(instrument, "fetch", error);
+                            } else {
+                                put(fetchedQueue, new Fetched(instrument, raw));
+                            }
+                        }));
+            }
+
+            awaitQuietly(CompletableFuture.allOf(fetches.toArray(CompletableFuture[]::new)));
+            for (int i = 0; i < mapWorkers; i++) {
+                put(fetchedQueue, END_OF_FETCHES);
+            }
+            mappers.forEach(CandleIngestionPipeline::awaitQuietly);
+            for (int i = 0; i < persistWorkers; i++) {
+                put(mappedQueue, END_OF_MAPPED);
+            }
+            persisters.forEach(CandleIngestionPipeline::awaitQuietly);
+        }
+
+        metrics.recordIngested(intervalType, counters.fetched.get(), counters.inserted.get());
+        event.end();
+        if (event.shouldCommit()) {
+            event.dataSource = sources.getFirst().dataSource().getName();
+            event.interval = intervalType.name();
+            event.instruments = instruments.size();
+            event.candlesFetched = counters.fetched.get();
+            event.candlesInserted = counters.inserted.get();
+            event.persistBatches = counters.batches.get();
+            event.failedInstruments = counters.failedInstrumentIds.size();
+            event.commit();
+        }
+        return new IngestionCycleResult(
+                intervalType,
+                instruments.size(),
+                counters.fetched.get(),
+                counters.inserted.get(),
+                counters.journaled.get(),
+                counters.batches.get(),
+                List.copyOf(counters.failedInstrumentIds.keySet()),
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt));
+    }
+
+    private void mapLoop(
+            BlockingQueue<Fetched> fetchedQueue, BlockingQueue<Mapped> mappedQueue, Instant to, CycleCounters counters) {
+        while (true) {
+            Fetched fetched = take(fetchedQueue);
+            if (fetched == END_OF_FETCHES) {
+                return;
+            }
+            try {
+                CandleBatch candles = new CandleBatch();
+                fetched.raw().appendTo(candles);
+                counters.fetched.addAndGet(candles.size());
+                // Every fetch starts after to, so bars ending by then are final.
+                candles.retainClosed(to.getEpochSecond());
+                if (!candles.isEmpty()) {
+                    put(mappedQueue, new Mapped(fetched.instrument(), candles));
+                }
+            } catch (RuntimeException e) {
+                counters.fail(fetched.instrument(), "map", e);
+            }
+        }
+    }
+
+    private void persistLoop(BlockingQueue<Mapped> mappedQueue, CycleCounters counters) {
+        // Reused for every flush; the persister publishes its own copy.
+        CandleBatch batch = new CandleBatch(persistBatchSize);
+        List<Mapped> batchParts = new ArrayList<>();
+        while (true) {
+            Mapped mapped = batch.isEmpty() ? take(mappedQueue) : mappedQueue.poll();
+            if (mapped == null || mapped == END_OF_MAPPED) {
+                // Queue momentarily drained or stage finished: commit whatever has accumulated.
+                flush(batch, batchParts, counters);
+                if (mapped == END_OF_MAPPED) {
+                    return;
+                }
+                continue;
+            }
+            batch.addAll(mapped.candles());
+            batchParts.add(mapped);
+            if (batch.size() >= persistBatchSize) {
+                flush(batch, batchParts, counters);
+            }
+        }
+    }
+
+    private void flush(CandleBatch batch, List<Mapped> batchParts, CycleCounters counters) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            write(batch, counters);
+        } catch (RuntimeException e) {
+            if (batchParts.size() == 1) {
+                counters.fail(batchParts.getFirst().instrument(), "persist", e);
+            } else {
+                // The failed transaction wrote nothing; retry each instrument alone to isolate the bad rows.
+                log.debug("Persisting {} instruments together failed, retrying one at a time: {}",
+                        batchParts.size(), e.getMessage());
+                for (Mapped part : batchParts) {
+                    try {
+                        write(part.candles(), counters);
+                    } catch (RuntimeException partError) {
+                        counters.fail(part.instrument(), "persist", partError);
+                    }
+                }
+            }
+        }
+        batch.clear();
+        batchParts.clear();
+    }
+
+    private void write(CandleBatch candles, CycleCounters counters) {
+        if (candleJournal.isEnabled()) {
+            candleJournal.append(candles);
+            watermarkService.publishJournaled(candles);
+            counters.journaled.addAndGet(candles.size());
+        } else {
+            counters.inserted.addAndGet(candleBatchPersister.persist(candles));
+        }
+        counters.batches.incrementAndGet();
+    }
+
+    private static <T> void put(BlockingQueue<T> queue, T item) {
+        try {
+            queue.put(item);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new MarketDataException("Ingestion pipeline interrupted", e);
+        }
+    }
+
+    private static <T> T take(BlockingQueue<T> queue) {
+        try {
+            return queue.take();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new MarketDataException("Ingestion pipeline interrupted", e);
+        }
+    }
+
+    private static void awaitQuietly(Future<?> future) {
+        try {
+            future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new MarketDataException("Ingestion pipeline interrupted", e);
+        } catch (Exception ignored) {
+            // Per-instrument failures are already recorded in CycleCounters.
+        }
+    }
+
+    private record Fetched(Instrument instrument, RawCandles raw) {
+    }
+
+    private record Mapped(Instrument instrument, CandleBatch candles) {
+    }
+
+    private static final class CycleCounters {
+        private final AtomicInteger fetched = new AtomicInteger();
+        private final AtomicInteger inserted = new AtomicInteger();
+        private final AtomicInteger journaled = new AtomicInteger();
+        private final AtomicInteger batches = new AtomicInteger();
+        private final ConcurrentHashMap<Long, Boolean> failedInstrumentIds = new ConcurrentHashMap<>();
+
+        private void fail(Instrument instrument, String stage, Throwable error) {
+            failedInstrumentIds.put(instrument.getId(), Boolean.TRUE);
+            Throwable cause = error.getCause() != null && !(error instanceof MarketDataException) ? error.getCause() : error;
+            log.warn("Candle ingestion {} failed for {}: {}", stage, instrument.getSymbol(), cause.getMessage());
+        }
+    }
+}
@@ -0,0 +1,412 @@
+package com.example.stockanalyzer.marketdata.ingestion;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import com.example.stockanalyzer.marketdata.entites.IntervalType;
+import com.example.stockanalyzer.marketdata.exception.MarketDataException;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Local write-ahead journal for fetched candles. {@link #append(CandleBatch)} returns once the
+ * batch is on disk, so ingestion can move on while MySQL is slow or down and
+ * {@link CandleJournalReplayer} writes the batches to the database behind it.
+ *
+ * The journal is a directory of numbered segment files, each a header followed by records of
+ * {@code [length][CRC32C][payload]}; a payload is one batch as primitive rows. Appends go through
+ * one {@link FileChannel} and are fsynced as a group: a thread that finds its record not yet
+ * durable forces the channel for every record written so far, so concurrent appenders share one
+ * fsync. A new segment is started on startup and whenever the current one exceeds
+ * {@code segment-bytes}; the replayer deletes segments it has finished.
+ *
+ * The replay position is kept in {@code replay.offset}. It is written after each replayed batch
+ * without an fsync: after a crash a few batches may be replayed again, which the idempotent
+ * {@code INSERT IGNORE} absorbs. Records the database refuses for good are moved aside to
+ * {@code rejected.records}, in segment format, for inspection.
+ */
+@Slf4j
+@Component
+public class CandleJournal {
+
+    private static final int SEGMENT_MAGIC = 0x434A4E31; // "CJN1"
+    private static final int SEGMENT_VERSION = 1;
+    static final int SEGMENT_HEADER_BYTES = 2 * Integer.BYTES;
+    private static final int RECORD_HEADER_BYTES = 2 * Integer.BYTES;
+    private static final int ROW_BYTES = Long.BYTES + Byte.BYTES + 7 * Long.BYTES;
+    private static final String SEGMENT_SUFFIX = ".segment";
+    private static final String OFFSET_FILE = "replay.offset";
+    private static final String REJECTED_FILE = "rejected.records";
+
+    private final boolean enabled;
+    private final Path directory;
+    private final long segmentBytes;
+
+    private final ReentrantLock appendLock = new ReentrantLock();
+    private final ReentrantLock syncLock = new ReentrantLock();
+    private final AtomicLong durable = new AtomicLong();
+    private FileChannel channel;
+    private long segment;
+    private long segmentPosition;
+    private long written;
+    private volatile long currentSegment;
+    private volatile boolean closed;
+
+    public CandleJournal(
+            @Value("${ingestion.journal.enabled:false}") boolean enabled,
+            @Value("${ingestion.journal.directory:data/journal}") String directory,
+            @Value("${ingestion.journal.segment-bytes:67108864}") long segmentBytes) {
+        this.enabled = enabled;
+        this.directory = Path.of(directory);
+        this.segmentBytes = segmentBytes;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @PostConstruct
+    public void open() throws IOException {
+        if (!enabled) {
+            return;
+        }
+        Files.createDirectories(directory);
+        List<Long> existing = segments();
+        appendLock.lock();
+        try {
+            startSegment(existing.isEmpty() ? 1 : existing.getLast() + 1);
+        } finally {
+            appendLock.unlock();
+        }
+        if (!existing.isEmpty()) {
+            log.info("Candle journal has {} segments left to replay in {}", existing.size(), directory);
+        }
+    }
+
+    /**
+     * Appends the batch and waits until it is durable.
+     */
+    public void append(CandleBatch candles) {
+        if (candles.isEmpty()) {
+            return;
+        }
+        ByteBuffer record = encode(candles);
+        long target;
+        appendLock.lock();
+        try {
+            if (closed) {
+                throw new MarketDataException("Candle journal is closed");
+            }
+            if (segmentPosition + record.remaining() > segmentBytes && segmentPosition > SEGMENT_HEADER_BYTES) {
+                startSegment(segment + 1);
+            }
+            int length = record.remaining();
+            while (record.hasRemaining()) {
+                channel.write(record);
+            }
+            segmentPosition += length;
+            written += length;
+            target = written;
+        } catch (IOException e) {
+            throw new MarketDataException("Failed to append to candle journal", e);
+        } finally {
+            appendLock.unlock();
+        }
+        awaitDurable(target);
+    }
+
+    /**
+     * Bytes appended but not yet replayed, for the backlog gauge.
+     */
+    public long pendingBytes() {
+        if (!enabled) {
+            return 0;
+        }
+        Optional<Position> replayed = replayPosition();
+        long pending = 0;
+        for (long s : segments()) {
+            long size = segmentPath(s).toFile().length();
+            if (replayed.isPresent() && s < replayed.get().segment()) {
+                continue;
+            }
+            long from = replayed.isPresent() && s == replayed.get().segment()
+                    ? replayed.get().offset()
+                    : SEGMENT_HEADER_BYTES;
+            pending += Math.max(0, size - from);
+        }
+        return pending;
+    }
+
+    @PreDestroy
+    public void close() {
+        appendLock.lock();
+        try {
+            closed = true;
+            if (channel != null) {
+                channel.force(false);
+                channel.close();
+            }
+        } catch (IOException e) {
+            log.warn("Failed to close candle journal segment {}: {}", segment, e.getMessage());
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    /**
+     * Segment numbers present on disk, oldest first.
+     */
+    List<Long> segments() {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.map(path -> path.getFileName().toString())
+                    .filter(name -> name.endsWith(SEGMENT_SUFFIX))
+                    .map(name -> Long.parseLong(name.substring(0, name.length() - SEGMENT_SUFFIX.length())))
+                    .sorted()
+                    .toList();
+        } catch (IOException e) {
+            throw new MarketDataException("Failed to list candle journal " + directory, e);
+        }
+    }
+
+    /**
+     * The segment appends currently go to; older segments are complete.
+     */
+    long currentSegment() {
+        return currentSegment;
+    }
+
+    Path segmentPath(long segmentNumber) {
+        return directory.resolve(String.format("%016d%s", segmentNumber, SEGMENT_SUFFIX));
+    }
+
+    Optional<Position> replayPosition() {
+        Path path = directory.resolve(OFFSET_FILE);
+        if (!Files.exists(path)) {
+            return Optional.empty();
+        }
+        try {
+            ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(path));
+            return Optional.of(new Position(buffer.getLong(), buffer.getLong()));
+        } catch (IOException | RuntimeException e) {
+            log.warn("Ignoring unreadable candle journal offset {}: {}", path, e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    void saveReplayPosition(Position position) {
+        Path path = directory.resolve(OFFSET_FILE);
+        Path temp = directory.resolve(OFFSET_FILE + ".tmp");
+        ByteBuffer buffer = ByteBuffer.allocate(2 * Long.BYTES).putLong(position.segment()).putLong(position.offset());
+        try {
+            Files.write(temp, buffer.array());
+            Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new MarketDataException("Failed to save candle journal offset", e);
+        }
+    }
+
+    void deleteSegment(long segmentNumber) {
+        try {
+            Files.deleteIfExists(segmentPath(segmentNumber));
+        } catch (IOException e) {
+            log.warn("Failed to delete replayed candle journal segment {}: {}", segmentNumber, e.getMessage());
+        }
+    }
+
+    /**
+     * Appends {@code record} to {@code rejected.records} so replay can move past it. The file has
+     * a segment header and the same record framing, so it can be read back with
+     * {@link #readRecord}.
+     */
+    void reject(JournalRecord record) {
+        ByteBuffer payload = record.payload().duplicate().rewind();
+        CRC32C crc = new CRC32C();
+        crc.update(payload.duplicate());
+        ByteBuffer header = ByteBuffer.allocate(RECORD_HEADER_BYTES).putInt(payload.remaining())
+                .putInt((int) crc.getValue()).flip();
+        try (FileChannel rejected = FileChannel.open(directory.resolve(REJECTED_FILE),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            if (rejected.size() == 0) {
+                ByteBuffer segmentHeader = ByteBuffer.allocate(SEGMENT_HEADER_BYTES)
+                        .putInt(SEGMENT_MAGIC).putInt(SEGMENT_VERSION).flip();
+                while (segmentHeader.hasRemaining()) {
+                    rejected.write(segmentHeader);
+                }
+            }
+            while (header.hasRemaining() || payload.hasRemaining()) {
+                rejected.write(new ByteBuffer[] {header, payload});
+            }
+            rejected.force(false);
+        } catch (IOException e) {
+            throw new MarketDataException("Failed to move a rejected candle journal record aside", e);
+        }
+    }
+
+    /**
+     * Reads the record at {@code offset} of an open segment.
+     *
+     * @return the record, or empty if no complete, intact record starts there (end of the
+     * written data, or a record torn by a crash)
+     */
+    static Optional<JournalRecord> readRecord(FileChannel segmentChannel, long offset) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(RECORD_HEADER_BYTES);
+        if (segmentChannel.read(header, offset) < RECORD_HEADER_BYTES) {
+            return Optional.empty();
+        }
+        header.flip();
+        int length = header.getInt();
+        int checksum = header.getInt();
+        if (length <= 0 || offset + RECORD_HEADER_BYTES + length > segmentChannel.size()) {
+            return Optional.empty();
+        }
+        ByteBuffer payload = ByteBuffer.allocate(length);
+        long position = offset + RECORD_HEADER_BYTES;
+        while (payload.hasRemaining()) {
+            int read = segmentChannel.read(payload, position);
+            if (read < 0) {
+                return Optional.empty();
+            }
+            position += read;
+        }
+        payload.flip();
+        CRC32C crc = new CRC32C();
+        crc.update(payload.duplicate());
+        if ((int) crc.getValue() != checksum) {
+            return Optional.empty();
+        }
+        return Optional.of(new JournalRecord(payload, offset + RECORD_HEADER_BYTES + length));
+    }
+
+    static boolean hasValidHeader(FileChannel segmentChannel) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(SEGMENT_HEADER_BYTES);
+        if (segmentChannel.read(header, 0) < SEGMENT_HEADER_BYTES) {
+            return false;
+        }
+        header.flip();
+        return header.getInt() == SEGMENT_MAGIC && header.getInt() == SEGMENT_VERSION;
+    }
+
+    /**
+     * Rows of a record payload, passed to {@code sink} in order.
+     */
+    static void decode(ByteBuffer payload, RowSink sink) {
+        IntervalType[] intervals = IntervalType.values();
+        int rows = payload.getInt();
+        for (int i = 0; i < rows; i++) {
+            sink.row(
+                    payload.getLong(),
+                    intervals[payload.get()],
+                    payload.getLong(),
+                    payload.getLong(),
+                    payload.getLong(),
+                    payload.getLong(),
+                    payload.getLong(),
+                    payload.getLong(),
+                    payload.getLong());
+        }
+    }
+
+    private static ByteBuffer encode(CandleBatch candles) {
+        int length = Integer.BYTES + candles.size() * ROW_BYTES;
+        ByteBuffer record = ByteBuffer.allocate(RECORD_HEADER_BYTES + length);
+        record.putInt(length).putInt(0);
+        record.putInt(candles.size());
+        for (int i = 0; i < candles.size(); i++) {
+            record.putLong(candles.instrumentId(i))
+                    .put((byte) candles.intervalType(i).ordinal())
+                    .putLong(candles.startSecond(i))
+                    .putLong(candles.endSecond(i))
+                    .putLong(candles.open(i))
+                    .putLong(candles.high(i))
+                    .putLong(candles.low(i))
+                    .putLong(candles.close(i))
+                    .putLong(candles.volume(i));
+        }
+        CRC32C crc = new CRC32C();
+        crc.update(record.array(), RECORD_HEADER_BYTES, length);
+        record.putInt(Integer.BYTES, (int) crc.getValue());
+        return record.flip();
+    }
+
+    private void awaitDurable(long target) {
+        syncLock.lock();
+        try {
+            while (durable.get() < target) {
+                FileChannel current;
+                long upTo;
+                appendLock.lock();
+                try {
+                    if (closed) {
+                        throw new MarketDataException("Candle journal closed before the append was synced");
+                    }
+                    current = channel;
+                    upTo = written;
+                } finally {
+                    appendLock.unlock();
+                }
+                try {
+                    current.force(false);
+                } catch (ClosedChannelException e) {
+                    // Rolled over meanwhile; the roll forced the segment first.
+                    continue;
+                }
+                durable.accumulateAndGet(upTo, Math::max);
+            }
+        } catch (IOException e) {
+            throw new MarketDataException("Failed to sync candle journal", e);
+        } finally {
+            syncLock.unlock();
+        }
+    }
+
+    // Called with appendLock held.
+    private void startSegment(long segmentNumber) throws IOException {
+        if (channel != null) {
+            channel.force(false);
+            durable.accumulateAndGet(written, Math::max);
+            channel.close();
+        }
+        channel = FileChannel.open(segmentPath(segmentNumber),
+                StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        ByteBuffer header = ByteBuffer.allocate(SEGMENT_HEADER_BYTES).putInt(SEGMENT_MAGIC).putInt(SEGMENT_VERSION).flip();
+        while (header.hasRemaining()) {
+            channel.write(header);
+        }
+        channel.force(true);
+        segment = segmentNumber;
+        currentSegment = segmentNumber;
+        segmentPosition = SEGMENT_HEADER_BYTES;
+    }
+
+    /**
+     * A replay position: the next record to apply is at {@code offset} of {@code segment}.
+     */
+    record Position(long segment, long offset) {
+    }
+
+    /**
+     * @param next offset of the record after this one
+     */
+    record JournalRecord(ByteBuffer payload, long next) {
+    }
+
+    @FunctionalInterface
+    interface RowSink {
+        void row(long instrumentId, IntervalType intervalType, long startSecond, long endSecond,
+                 long open, long high, long low, long close, long volume);
+    }
+}
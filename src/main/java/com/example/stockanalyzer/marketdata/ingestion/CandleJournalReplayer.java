@@ -0,0 +1,233 @@
+package com.example.stockanalyzer.marketdata.ingestion;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.RecoverableDataAccessException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.CannotCreateTransactionException;
+import com.example.stockanalyzer.marketdata.entites.Instrument;
+import com.example.stockanalyzer.marketdata.exception.MarketDataException;
+import com.example.stockanalyzer.marketdata.metrics.MarketDataMetrics;
+import com.example.stockanalyzer.marketdata.repository.InstrumentRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Drains {@link CandleJournal} into the database on one virtual thread, record by record and in
+ * journal order, through {@link CandleBatchPersister} (so watermarks, metrics and
+ * {@link CandlesPersistedEvent}s behave as for a direct write).
+ *
+ * A write that fails transiently (connection loss, lock timeout, deadlock) is retried with a
+ * backoff doubling up to {@code max-backoff-ms} and is never skipped, so a database outage only
+ * grows the journal. Any other failure would fail again on every retry and stall replay behind
+ * it, so that record is moved aside with {@link CandleJournal#reject} and counted in
+ * {@code marketdata.ingestion.journal.rejected}. Starts from the saved replay position, or from
+ * the oldest segment when there is none.
+ */
+@Slf4j
+@Component
+public class CandleJournalReplayer {
+
+    private static final long IDLE_POLL_MILLIS = 200;
+    private static final long INITIAL_BACKOFF_MILLIS = 500;
+
+    private final CandleJournal journal;
+    private final CandleBatchPersister candleBatchPersister;
+    private final InstrumentRepository instrumentRepository;
+    private final MarketDataMetrics metrics;
+    private final long maxBackoffMillis;
+    private volatile Thread replayThread;
+    private Map<Long, Instrument> instrumentsById = Map.of();
+
+    public CandleJournalReplayer(
+            CandleJournal journal,
+            CandleBatchPersister candleBatchPersister,
+            InstrumentRepository instrumentRepository,
+            MarketDataMetrics metrics,
+            @Value("${ingestion.journal.max-backoff-ms:30000}") long maxBackoffMillis) {
+        this.journal = journal;
+        this.candleBatchPersister = candleBatchPersister;
+        this.instrumentRepository = instrumentRepository;
+        this.metrics = metrics;
+        this.maxBackoffMillis = maxBackoffMillis;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!journal.isEnabled()) {
+            return;
+        }
+        metrics.trackJournalBacklog(journal::pendingBytes);
+        replayThread = Thread.ofVirtual().name("candle-journal-replay").start(this::replayLoop);
+    }
+
+    @PreDestroy
+    public void stop() {
+        Thread thread = replayThread;
+        if (thread != null) {
+            thread.interrupt();
+        }
+    }
+
+    private void replayLoop() {
+        try {
+            CandleJournal.Position position = startPosition();
+            while (!Thread.currentThread().isInterrupted()) {
+                position = replaySegment(position);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException e) {
+            log.error("Candle journal replay stopped", e);
+        }
+    }
+
+    private CandleJournal.Position startPosition() {
+        Optional<CandleJournal.Position> saved = journal.replayPosition();
+        List<Long> segments = journal.segments();
+        if (saved.isPresent() && segments.contains(saved.get().segment())) {
+            log.info("Resuming candle journal replay at segment {} offset {}",
+                    saved.get().segment(), saved.get().offset());
+            return saved.get();
+        }
+        long first = segments.isEmpty() ? journal.currentSegment() : segments.getFirst();
+        return new CandleJournal.Position(first, CandleJournal.SEGMENT_HEADER_BYTES);
+    }
+
+    /**
+     * Applies the records of {@code position}'s segment from its offset. Returns at the end of a
+     * finished segment (deleting it) with the start of the next one; in the segment still being
+     * appended to, waits for more records.
+     */
+    private CandleJournal.Position replaySegment(CandleJournal.Position position) throws InterruptedException {
+        try (FileChannel segment = FileChannel.open(journal.segmentPath(position.segment()), StandardOpenOption.READ)) {
+            if (!CandleJournal.hasValidHeader(segment)) {
+                log.warn("Skipping candle journal segment {} with an invalid header", position.segment());
+                return finish(position.segment());
+            }
+            long offset = position.offset();
+            while (!Thread.currentThread().isInterrupted()) {
+                // Read before the record: a segment closed by then holds every record it ever will,
+                // while one closed during the read may have been completed after it came up empty.
+                boolean closed = position.segment() < journal.currentSegment();
+                Optional<CandleJournal.JournalRecord> record = CandleJournal.readRecord(segment, offset);
+                if (record.isEmpty()) {
+                    if (closed) {
+                        if (offset < segment.size()) {
+                            log.warn("Candle journal segment {} ends in a torn record at offset {}; {} bytes skipped",
+                                    position.segment(), offset, segment.size() - offset);
+                        }
+                        return finish(position.segment());
+                    }
+                    Thread.sleep(IDLE_POLL_MILLIS);
+                    continue;
+                }
+                apply(record.get());
+                offset = record.get().next();
+                journal.saveReplayPosition(new CandleJournal.Position(position.segment(), offset));
+            }
+            return new CandleJournal.Position(position.segment(), offset);
+        } catch (NoSuchFileException e) {
+            return nextPosition(position.segment());
+        } catch (IOException e) {
+            log.warn("Failed to read candle journal segment {}: {}", position.segment(), e.getMessage());
+            Thread.sleep(maxBackoffMillis);
+            return position;
+        }
+    }
+
+    private void apply(CandleJournal.JournalRecord record) throws InterruptedException {
+        CandleBatch candles = decode(record);
+        if (candles.isEmpty()) {
+            return;
+        }
+        long backoff = INITIAL_BACKOFF_MILLIS;
+        while (true) {
+            try {
+                candleBatchPersister.persist(candles);
+                return;
+            } catch (RuntimeException e) {
+                if (!isTransient(e) && reject(record, candles.size(), e)) {
+                    return;
+                }
+                log.warn("Replaying {} journaled candles failed, retrying in {} ms: {}",
+                        candles.size(), backoff, e.getMessage());
+                Thread.sleep(backoff);
+                backoff = Math.min(backoff * 2, maxBackoffMillis);
+            }
+        }
+    }
+
+    // A record that cannot be moved aside either is retried like a transient failure.
+    private boolean reject(CandleJournal.JournalRecord record, int rows, RuntimeException error) {
+        try {
+            journal.reject(record);
+        } catch (MarketDataException e) {
+            log.warn("{}: {}", e.getMessage(), e.getCause() != null ? e.getCause().getMessage() : "");
+            return false;
+        }
+        log.error("Moved {} journaled candles aside after a non-transient failure", rows, error);
+        metrics.recordJournalRejected(rows, error);
+        return true;
+    }
+
+    // Failures that may succeed unchanged on retry: the database or its connection, not the rows.
+    private static boolean isTransient(RuntimeException e) {
+        return e instanceof TransientDataAccessException
+                || e instanceof RecoverableDataAccessException
+                || e instanceof DataAccessResourceFailureException
+                || e instanceof CannotCreateTransactionException;
+    }
+
+    // Rows of instruments deleted since they were journaled are dropped.
+    private CandleBatch decode(CandleJournal.JournalRecord record) {
+        CandleBatch candles = new CandleBatch(record.payload().getInt(0));
+        CandleJournal.decode(record.payload(), (instrumentId, intervalType, startSecond, endSecond,
+                                                open, high, low, close, volume) -> {
+            Instrument instrument = instrument(instrumentId);
+            if (instrument == null) {
+                log.warn("Dropping journaled {} candle of unknown instrument {}", intervalType, instrumentId);
+                return;
+            }
+            candles.add(instrument, intervalType, startSecond, endSecond, open, high, low, close, volume);
+        });
+        return candles;
+    }
+
+    private Instrument instrument(long instrumentId) {
+        Instrument instrument = instrumentsById.get(instrumentId);
+        if (instrument == null) {
+            instrumentsById = instrumentRepository.findAll().stream()
+                    .collect(Collectors.toMap(Instrument::getId, Function.identity()));
+            instrument = instrumentsById.get(instrumentId);
+        }
+        return instrument;
+    }
+
+    private CandleJournal.Position finish(long segmentNumber) {
+        CandleJournal.Position next = nextPosition(segmentNumber);
+        journal.saveReplayPosition(next);
+        journal.deleteSegment(segmentNumber);
+        return next;
+    }
+
+    private CandleJournal.Position nextPosition(long segmentNumber) {
+        long next = journal.segments().stream()
+                .filter(s -> s > segmentNumber)
+                .findFirst()
+                .orElse(journal.currentSegment());
+        return new CandleJournal.Position(next, CandleJournal.SEGMENT_HEADER_BYTES);
+    }
+}
@@ -0,0 +1,12 @@
+package com.example.stockanalyzer.marketdata.ingestion;
+
+/**
+ * Published by {@link CandleBatchPersister} after a batch has committed. Carries a private copy of
+ * every candle of the batch, including ones that were already stored, so listeners must be
+ * idempotent and must not modify it. Listeners run synchronously on the persisting thread and
+ * must stay cheap.
+ *
+ * @param upserted whether the batch overwrote existing rows rather than only inserting new ones
+ */
+public record CandlesPersistedEvent(CandleBatch candles, boolean upserted) {
+}
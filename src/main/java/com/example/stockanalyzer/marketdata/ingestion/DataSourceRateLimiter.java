@@ -0,0 +1,190 @@
+package com.example.stockanalyzer.marketdata.ingestion;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import com.example.stockanalyzer.marketdata.dto.RateLimiterStatsResponse;
+import com.example.stockanalyzer.marketdata.entites.DataSource;
+import com.example.stockanalyzer.marketdata.exception.MarketDataException;
+
+/**
+ * Token bucket for one {@link DataSource}, driven by its {@code rateLimitPerMinute} and
+ * {@code rateLimitPerDay} columns, plus a cap on concurrently running provider calls.
+ *
+ * The bucket refills continuously at the per-minute rate and holds at most one second's worth of
+ * tokens, so bursts stay within per-second provider limits. A null or non-positive limit means
+ * unlimited. Limits changed on the row are applied in place by {@link #reconfigure}, keeping the
+ * day's usage, the tokens on hand and the in-flight slots. Uses a {@link ReentrantLock} rather
+ * than {@code synchronized} so waiting virtual threads never pin their carrier.
+ */
+public class DataSourceRateLimiter {
+
+    private static final long NANOS_PER_MINUTE = TimeUnit.MINUTES.toNanos(1);
+
+    private final Long dataSourceId;
+    private final String dataSourceName;
+    private final ZoneId dayZone;
+    private final Semaphore inFlight;
+    private final int maxInFlight;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private int permitsPerMinute;
+    private int permitsPerDay;
+    private double capacity;
+    private double nanosPerToken;
+    private double availableTokens;
+    private long lastRefillNanos;
+    private LocalDate currentDay;
+    private int usedToday;
+
+    private final AtomicLong permitsGranted = new AtomicLong();
+    private final AtomicLong totalWaitNanos = new AtomicLong();
+    private final AtomicLong rejectedDaily = new AtomicLong();
+
+    public DataSourceRateLimiter(DataSource dataSource, int maxInFlight, ZoneId dayZone) {
+        this.dataSourceId = dataSource.getId();
+        this.dataSourceName = dataSource.getName();
+        this.dayZone = dayZone;
+        this.maxInFlight = maxInFlight;
+        this.inFlight = new Semaphore(maxInFlight, true);
+        applyLimits(dataSource);
+        this.availableTokens = capacity;
+        this.lastRefillNanos = System.nanoTime();
+        this.currentDay = LocalDate.now(dayZone);
+    }
+
+    /**
+     * Blocks until an in-flight slot and a rate token are available. Every successful call must be
+     * paired with {@link #release()}.
+     *
+     * @throws MarketDataException if the daily quota is exhausted
+     */
+    public void acquire() throws InterruptedException {
+        long waitStart = System.nanoTime();
+        inFlight.acquire();
+        try {
+            takeToken();
+        } catch (InterruptedException | RuntimeException e) {
+            inFlight.release();
+            throw e;
+        }
+        permitsGranted.incrementAndGet();
+        totalWaitNanos.addAndGet(System.nanoTime() - waitStart);
+    }
+
+    public void release() {
+        inFlight.release();
+    }
+
+    /**
+     * Applies the current limits of {@code dataSource} if they changed. Tokens on hand are capped
+     * at the new bucket size; the day's usage counts against the new daily quota.
+     */
+    public void reconfigure(DataSource dataSource) {
+        lock.lock();
+        try {
+            if (matches(dataSource)) {
+                return;
+            }
+            refill(System.nanoTime());
+            applyLimits(dataSource);
+            availableTokens = Math.min(availableTokens, capacity);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Guarded by lock.
+    private boolean matches(DataSource dataSource) {
+        return positiveOrZero(dataSource.getRateLimitPerMinute()) == permitsPerMinute
+                && positiveOrZero(dataSource.getRateLimitPerDay()) == permitsPerDay;
+    }
+
+    // Guarded by lock, or called from the constructor.
+    private void applyLimits(DataSource dataSource) {
+        permitsPerMinute = positiveOrZero(dataSource.getRateLimitPerMinute());
+        permitsPerDay = positiveOrZero(dataSource.getRateLimitPerDay());
+        capacity = Math.max(1.0, permitsPerMinute / 60.0);
+        nanosPerToken = permitsPerMinute > 0 ? (double) NANOS_PER_MINUTE / permitsPerMinute : 0;
+    }
+
+    public RateLimiterStatsResponse stats() {
+        lock.lock();
+        try {
+            refill(System.nanoTime());
+            long granted = permitsGranted.get();
+            return new RateLimiterStatsResponse(
+                    dataSourceId,
+                    dataSourceName,
+                    permitsPerMinute,
+                    permitsPerDay,
+                    maxInFlight,
+                    maxInFlight - inFlight.availablePermits(),
+                    inFlight.getQueueLength(),
+                    permitsPerMinute > 0 ? availableTokens : null,
+                    usedToday,
+                    granted,
+                    rejectedDaily.get(),
+                    TimeUnit.NANOSECONDS.toMillis(totalWaitNanos.get()),
+                    granted > 0 ? TimeUnit.NANOSECONDS.toMillis(totalWaitNanos.get()) / (double) granted : 0);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void takeToken() throws InterruptedException {
+        while (true) {
+            long sleepNanos;
+            lock.lock();
+            try {
+                rollDay();
+                if (permitsPerDay > 0 && usedToday >= permitsPerDay) {
+                    rejectedDaily.incrementAndGet();
+                    throw new MarketDataException("Daily rate limit of " + permitsPerDay
+                            + " requests exhausted for data source: " + dataSourceName);
+                }
+                if (permitsPerMinute <= 0) {
+                    usedToday++;
+                    return;
+                }
+                refill(System.nanoTime());
+                if (availableTokens >= 1.0) {
+                    availableTokens -= 1.0;
+                    usedToday++;
+                    return;
+                }
+                sleepNanos = (long) Math.ceil((1.0 - availableTokens) * nanosPerToken);
+            } finally {
+                lock.unlock();
+            }
+            Thread.sleep(Duration.ofNanos(sleepNanos));
+        }
+    }
+
+    private void refill(long nowNanos) {
+        if (permitsPerMinute <= 0) {
+            return;
+        }
+        long elapsed = nowNanos - lastRefillNanos;
+        if (elapsed > 0) {
+            availableTokens = Math.min(capacity, availableTokens + elapsed / nanosPerToken);
+            lastRefillNanos = nowNanos;
+        }
+    }
+
+    private void rollDay() {
+        LocalDate today = LocalDate.now(dayZone);
+        if (!today.equals(currentDay)) {
+            currentDay = today;
+            usedToday = 0;
+        }
+    }
+
+    private static int positiveOrZero(Integer limit) {
+        return limit != null && limit > 0 ? limit : 0;
+    }
+}
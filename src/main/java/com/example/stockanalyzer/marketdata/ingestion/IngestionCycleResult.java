@@ -0,0 +1,23 @@
+package com.example.stockanalyzer.marketdata.ingestion;
+
+import java.util.List;
+import com.example.stockanalyzer.marketdata.entites.IntervalType;
+
+/**
+ * Outcome of one {@link CandleIngestionPipeline} run.
+ *
+ * @param failedInstrumentIds instruments whose fetch, mapping or persist batch failed; every other
+ *                            instrument's candles were committed independently
+ * @param candlesJournaled candles handed to {@link CandleJournal} instead of being written; their
+ *                         inserted count is known only once they are replayed
+ */
+public record IngestionCycleResult(
+        IntervalType intervalType,
+        int instruments,
+        int candlesFetched,
+        int candlesInserted,
+        int candlesJournaled,
+        int persistBatches,
+        List<Long> failedInstrumentIds,
+        long elapsedMillis) {
+}
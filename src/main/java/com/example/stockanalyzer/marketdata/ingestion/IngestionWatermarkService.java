@@ -0,0 +1,162 @@
+package com.example.stockanalyzer.marketdata.ingestion;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.locks.ReentrantLock;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import com.example.stockanalyzer.marketdata.entites.IngestionWatermark;
+import com.example.stockanalyzer.marketdata.entites.IntervalType;
+import com.example.stockanalyzer.marketdata.metrics.MarketDataMetrics;
+import com.example.stockanalyzer.marketdata.repository.IngestionWatermarkRepository;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Tracks the last committed closed {@code candleStart} per (instrument, interval), persisted in
+ * {@code ingestion_watermark} and mirrored in memory so the fetch path never queries for it.
+ *
+ * Fetch windows become {@code (watermark, now]}: already stored bars are not re-downloaded and,
+ * after downtime, the next run catches up from where it stopped (bounded by
+ * {@code ingestion.watermark.max-catchup-days}).
+ *
+ * Each known pair also backs a {@code marketdata.candles.freshness.lag} gauge.
+ */
+@Slf4j
+@Service
+public class IngestionWatermarkService {
+
+    private static final long DEFAULT_LOOKBACK_INTERVALS = 3L;
+
+    private final IngestionWatermarkRepository watermarkRepository;
+    private final MarketDataMetrics metrics;
+    private final Duration maxCatchup;
+    private final ConcurrentMap<WatermarkKey, Instant> watermarks = new ConcurrentHashMap<>();
+    private final ReentrantLock loadLock = new ReentrantLock();
+    private volatile boolean loaded;
+
+    public IngestionWatermarkService(
+            IngestionWatermarkRepository watermarkRepository,
+            MarketDataMetrics metrics,
+            @Value("${ingestion.watermark.max-catchup-days:30}") int maxCatchupDays) {
+        this.watermarkRepository = watermarkRepository;
+        this.metrics = metrics;
+        this.maxCatchup = Duration.ofDays(maxCatchupDays);
+    }
+
+    public Optional<Instant> find(Long instrumentId, IntervalType intervalType) {
+        ensureLoaded();
+        return Optional.ofNullable(watermarks.get(new WatermarkKey(instrumentId, intervalType)));
+    }
+
+    /**
+     * Start of the fetch window ending at {@code to}: the bar after the watermark, or the legacy
+     * three-interval lookback when the pair has never been ingested.
+     */
+    public Instant fetchFrom(Long instrumentId, IntervalType intervalType, Instant to) {
+        long intervalSeconds = intervalType.getMinutes() * 60L;
+        Instant earliest = to.minus(maxCatchup);
+        return find(instrumentId, intervalType)
+                .map(watermark -> watermark.plusSeconds(intervalSeconds))
+                .map(next -> next.isBefore(earliest) ? earliest : next)
+                .orElseGet(() -> to.minusSeconds(intervalSeconds * DEFAULT_LOOKBACK_INTERVALS));
+    }
+
+    /**
+     * Writes the new watermarks for {@code candles}; must be called inside the transaction that
+     * stores them. Fetch paths drop bars still in progress before persisting
+     * ({@link CandleBatch#retainClosed}), because {@code INSERT IGNORE} would keep their partial
+     * values; they are fetched again once closed. Only closed bars move the watermark in any case.
+     *
+     * @return the advanced watermarks, to be handed to {@link #publish(Map)} after commit
+     */
+    public Map<WatermarkKey, Instant> advance(CandleBatch candles) {
+        Instant now = Instant.now();
+        Map<WatermarkKey, Instant> latest = latestClosed(candles, now.getEpochSecond());
+        latest.forEach((key, start) ->
+                watermarkRepository.advance(key.instrumentId(), key.intervalType().name(), start, now));
+        return latest;
+    }
+
+    /**
+     * Moves the in-memory watermarks past {@code candles} once they are in the ingestion journal,
+     * so the next cycle does not fetch them again; the stored watermarks follow when the journal
+     * is replayed.
+     */
+    public void publishJournaled(CandleBatch candles) {
+        ensureLoaded();
+        publish(latestClosed(candles, Instant.now().getEpochSecond()));
+    }
+
+    private static Map<WatermarkKey, Instant> latestClosed(CandleBatch candles, long nowSecond) {
+        Map<WatermarkKey, Instant> latest = new HashMap<>();
+        // Batches hold runs of one series, so the map is only touched when the series changes.
+        long runInstrumentId = 0;
+        IntervalType runInterval = null;
+        long runLatest = Long.MIN_VALUE;
+        for (int i = 0; i < candles.size(); i++) {
+            if (candles.endSecond(i) > nowSecond) {
+                continue;
+            }
+            if (candles.instrumentId(i) != runInstrumentId || candles.intervalType(i) != runInterval) {
+                mergeRun(latest, runInstrumentId, runInterval, runLatest);
+                runInstrumentId = candles.instrumentId(i);
+                runInterval = candles.intervalType(i);
+                runLatest = Long.MIN_VALUE;
+            }
+            runLatest = Math.max(runLatest, candles.startSecond(i));
+        }
+        mergeRun(latest, runInstrumentId, runInterval, runLatest);
+        return latest;
+    }
+
+    private static void mergeRun(Map<WatermarkKey, Instant> latest, long instrumentId, IntervalType interval, long startSecond) {
+        if (interval != null) {
+            latest.merge(
+                    new WatermarkKey(instrumentId, interval),
+                    Instant.ofEpochSecond(startSecond),
+                    (a, b) -> a.isAfter(b) ? a : b);
+        }
+    }
+
+    public void publish(Map<WatermarkKey, Instant> advanced) {
+        advanced.forEach((key, start) -> {
+            if (watermarks.putIfAbsent(key, start) == null) {
+                trackFreshness(key);
+            } else {
+                watermarks.merge(key, start, (a, b) -> a.isAfter(b) ? a : b);
+            }
+        });
+    }
+
+    private void ensureLoaded() {
+        if (loaded) {
+            return;
+        }
+        loadLock.lock();
+        try {
+            if (loaded) {
+                return;
+            }
+            for (IngestionWatermark watermark : watermarkRepository.findAll()) {
+                watermarks.merge(
+                        new WatermarkKey(watermark.getInstrumentId(), watermark.getIntervalType()),
+                        watermark.getLastCandleStart(),
+                        (a, b) -> a.isAfter(b) ? a : b);
+            }
+            watermarks.keySet().forEach(this::trackFreshness);
+            loaded = true;
+            log.info("Loaded {} ingestion watermarks", watermarks.size());
+        } finally {
+            loadLock.unlock();
+        }
+    }
+
+    private void trackFreshness(WatermarkKey key) {
+        metrics.trackFreshness(key.instrumentId(), key.intervalType(), () -> watermarks.get(key));
+    }
+}
@@ -0,0 +1,82 @@
+package com.example.stockanalyzer.marketdata.ingestion;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.springframework.stereotype.Component;
+import com.example.stockanalyzer.marketdata.entites.DataSource;
+import com.example.stockanalyzer.marketdata.exception.MarketDataException;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Runs provider calls on virtual threads, each gated by the {@link DataSourceRateLimiter} of the
+ * data source it hits. Blocking HTTP calls cost a parked virtual thread rather than a platform
+ * thread, so cycle wall time is bounded by the rate limit instead of instruments x latency.
+ */
+@Component
+@RequiredArgsConstructor
+public class ProviderCallExecutor {
+
+    private final RateLimiterRegistry rateLimiterRegistry;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    /**
+     * Runs {@code call} once a permit is available. Completing the returned future first, as a
+     * timeout does, interrupts the call and returns its in-flight permit straight away, so a
+     * stalled call does not hold the data source's slot until its socket gives up.
+     */
+    public <T> CompletableFuture<T> submit(DataSource dataSource, Callable<T> call) {
+        DataSourceRateLimiter limiter = rateLimiterRegistry.forDataSource(dataSource);
+        CompletableFuture<T> result = new CompletableFuture<>();
+        AtomicBoolean permitHeld = new AtomicBoolean();
+        Future<?> worker = executor.submit(() -> {
+            try {
+                limiter.acquire();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                result.completeExceptionally(new CompletionException(new MarketDataException(
+                        "Interrupted waiting for rate limit on: " + dataSource.getName(), e)));
+                return;
+            } catch (RuntimeException e) {
+                result.completeExceptionally(new CompletionException(e));
+                return;
+            }
+            permitHeld.set(true);
+            // Completed meanwhile: release now, since the completion hook may have run before the set.
+            if (result.isDone()) {
+                releaseOnce(limiter, permitHeld);
+                return;
+            }
+            try {
+                result.complete(call.call());
+            } catch (Exception e) {
+                result.completeExceptionally(e instanceof CompletionException ? e : new CompletionException(e));
+            } finally {
+                releaseOnce(limiter, permitHeld);
+            }
+        });
+        result.whenComplete((value, error) -> {
+            if (error != null) {
+                worker.cancel(true);
+                releaseOnce(limiter, permitHeld);
+            }
+        });
+        return result;
+    }
+
+    private static void releaseOnce(DataSourceRateLimiter limiter, AtomicBoolean permitHeld) {
+        if (permitHeld.compareAndSet(true, false)) {
+            limiter.release();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
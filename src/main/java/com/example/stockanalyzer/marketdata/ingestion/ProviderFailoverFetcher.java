@@ -0,0 +1,248 @@
+package com.example.stockanalyzer.marketdata.ingestion;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import com.example.stockanalyzer.marketdata.dto.FetchCandlesRequest;
+import com.example.stockanalyzer.marketdata.entites.DataSource;
+import com.example.stockanalyzer.marketdata.entites.Instrument;
+import com.example.stockanalyzer.marketdata.entites.IntervalType;
+import com.example.stockanalyzer.marketdata.exception.MarketDataException;
+import com.example.stockanalyzer.marketdata.metrics.MarketDataMetrics;
+import com.example.stockanalyzer.marketdata.provider.RawCandles;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Fetches one instrument's candles from a priority-ordered list of {@link ProviderSource}s through
+ * {@link ProviderCallExecutor}. A source that fails or exceeds its timeout
+ * ({@code DataSource.timeoutSeconds}, else {@code default-timeout-ms}) is failed over to the next.
+ *
+ * With hedging enabled, a primary call still running after the {@code hedge.percentile} of that
+ * source's recent latencies also starts the same fetch on the next source, and whichever succeeds
+ * first is used; the other result is ignored. Timers start when a call gets past its rate limiter,
+ * so waiting for a permit never counts as latency, and are cancelled when the call completes. A
+ * timed-out call is interrupted and its in-flight permit returned (see {@link ProviderCallExecutor}).
+ */
+@Slf4j
+@Component
+public class ProviderFailoverFetcher {
+
+    private static final int LATENCY_SAMPLES = 512;
+    private static final int MIN_HEDGE_SAMPLES = 32;
+
+    private final ProviderCallExecutor providerCallExecutor;
+    private final MarketDataMetrics metrics;
+    private final long defaultTimeoutMillis;
+    private final boolean hedgeEnabled;
+    private final double hedgePercentile;
+    private final long hedgeMinDelayMillis;
+    private final Map<Long, LatencyWindow> latencies = new ConcurrentHashMap<>();
+    private final ScheduledThreadPoolExecutor timer;
+
+    public ProviderFailoverFetcher(
+            ProviderCallExecutor providerCallExecutor,
+            MarketDataMetrics metrics,
+            @Value("${ingestion.failover.default-timeout-ms:30000}") long defaultTimeoutMillis,
+            @Value("${ingestion.failover.hedge.enabled:false}") boolean hedgeEnabled,
+            @Value("${ingestion.failover.hedge.percentile:0.95}") double hedgePercentile,
+            @Value("${ingestion.failover.hedge.min-delay-ms:100}") long hedgeMinDelayMillis) {
+        this.providerCallExecutor = providerCallExecutor;
+        this.metrics = metrics;
+        this.defaultTimeoutMillis = defaultTimeoutMillis;
+        this.hedgeEnabled = hedgeEnabled;
+        this.hedgePercentile = hedgePercentile;
+        this.hedgeMinDelayMillis = hedgeMinDelayMillis;
+        // Timers of calls that finish in time are cancelled, and removed so they do not pile up.
+        this.timer = new ScheduledThreadPoolExecutor(
+                1, Thread.ofPlatform().name("provider-fetch-timer").daemon().factory());
+        this.timer.setRemoveOnCancelPolicy(true);
+    }
+
+    /**
+     * Completes with the first successful fetch, or exceptionally with the last failure once every
+     * source has failed.
+     */
+    public CompletableFuture<RawCandles> fetch(
+            List<ProviderSource> sources,
+            Instrument instrument,
+            IntervalType intervalType,
+            Instant from,
+            Instant to) {
+        if (sources.isEmpty()) {
+            return CompletableFuture.failedFuture(new MarketDataException("No active data source configured"));
+        }
+        return attempt(sources, 0, new Fetch(instrument, intervalType, from, to));
+    }
+
+    private CompletableFuture<RawCandles> attempt(List<ProviderSource> sources, int index, Fetch fetch) {
+        ProviderSource primary = sources.get(index);
+        boolean hedged = hedgeEnabled && index + 1 < sources.size();
+        CompletableFuture<RawCandles> result = hedged
+                ? hedged(primary, sources.get(index + 1), fetch)
+                : call(primary, fetch, new CompletableFuture<>());
+        int next = hedged ? index + 2 : index + 1;
+        if (next >= sources.size()) {
+            return result;
+        }
+        return result.exceptionallyCompose(failure -> {
+            Throwable error = unwrap(failure);
+            metrics.recordFailover(primary.provider().getProviderName(), error);
+            log.debug("Failing over {} from {}: {}",
+                    fetch.instrument().getSymbol(), primary.dataSource().getName(), error.getMessage());
+            return attempt(sources, next, fetch);
+        });
+    }
+
+    /**
+     * Runs the primary and, once it is slower than its hedge delay or has failed, the secondary;
+     * fails only when both have.
+     */
+    private CompletableFuture<RawCandles> hedged(ProviderSource primary, ProviderSource secondary, Fetch fetch) {
+        CompletableFuture<RawCandles> result = new CompletableFuture<>();
+        AtomicBoolean secondaryStarted = new AtomicBoolean();
+        AtomicInteger failures = new AtomicInteger();
+
+        CompletableFuture<Void> primaryStarted = new CompletableFuture<>();
+        call(primary, fetch, primaryStarted).whenComplete((raw, failure) -> {
+            if (failure == null) {
+                result.complete(raw);
+                return;
+            }
+            Throwable error = unwrap(failure);
+            if (failures.incrementAndGet() == 2) {
+                result.completeExceptionally(error);
+            } else if (secondaryStarted.compareAndSet(false, true)) {
+                metrics.recordFailover(primary.provider().getProviderName(), error);
+                startSecondary(secondary, fetch, result, failures, false);
+            }
+        });
+
+        long delay = hedgeDelayMillis(primary.dataSource());
+        if (delay >= 0) {
+            primaryStarted.thenRun(() -> cancelOnCompletion(result, timer.schedule(() -> {
+                if (!result.isDone() && secondaryStarted.compareAndSet(false, true)) {
+                    startSecondary(secondary, fetch, result, failures, true);
+                }
+            }, delay, TimeUnit.MILLISECONDS)));
+        }
+        return result;
+    }
+
+    private void startSecondary(
+            ProviderSource secondary,
+            Fetch fetch,
+            CompletableFuture<RawCandles> result,
+            AtomicInteger failures,
+            boolean hedge) {
+        call(secondary, fetch, new CompletableFuture<>()).whenComplete((raw, error) -> {
+            boolean won = error == null && result.complete(raw);
+            if (hedge) {
+                metrics.recordHedge(secondary.provider().getProviderName(), won);
+            }
+            if (error != null && failures.incrementAndGet() == 2) {
+                result.completeExceptionally(unwrap(error));
+            }
+        });
+    }
+
+    /**
+     * @param started completed when the call has its rate-limit permit and reaches the provider
+     */
+    private CompletableFuture<RawCandles> call(ProviderSource source, Fetch fetch, CompletableFuture<Void> started) {
+        DataSource dataSource = source.dataSource();
+        FetchCandlesRequest request = new FetchCandlesRequest(
+                fetch.instrument().getId(),
+                dataSource.getId(),
+                fetch.intervalType(),
+                fetch.from(),
+                fetch.to());
+        LatencyWindow latency = latencies.computeIfAbsent(dataSource.getId(), id -> new LatencyWindow());
+        CompletableFuture<RawCandles> call = providerCallExecutor.submit(dataSource, () -> {
+            started.complete(null);
+            long callStarted = System.nanoTime();
+            RawCandles raw = metrics.timeFetch(source.provider().getProviderName(), fetch.instrument(), request,
+                    () -> source.provider().fetchRawCandles(dataSource, fetch.instrument(), request), RawCandles::size);
+            latency.record(System.nanoTime() - callStarted);
+            return raw;
+        });
+        // Completing the call on timeout makes ProviderCallExecutor interrupt it and free its permit.
+        long timeoutMillis = timeoutMillis(dataSource);
+        started.thenRun(() -> cancelOnCompletion(call, timer.schedule(
+                () -> call.completeExceptionally(new MarketDataException(
+                        "Fetch from " + dataSource.getName() + " timed out after " + timeoutMillis + " ms for: "
+                                + fetch.instrument().getSymbol())),
+                timeoutMillis, TimeUnit.MILLISECONDS)));
+        return call;
+    }
+
+    private long timeoutMillis(DataSource dataSource) {
+        Integer seconds = dataSource.getTimeoutSeconds();
+        return seconds != null && seconds > 0 ? seconds * 1000L : defaultTimeoutMillis;
+    }
+
+    /**
+     * Delay before hedging a call to {@code dataSource}, or -1 until enough of its calls have
+     * completed to estimate the percentile.
+     */
+    private long hedgeDelayMillis(DataSource dataSource) {
+        LatencyWindow latency = latencies.get(dataSource.getId());
+        long percentileNanos = latency == null ? -1 : latency.percentile(hedgePercentile);
+        if (percentileNanos < 0) {
+            return -1;
+        }
+        return Math.max(hedgeMinDelayMillis, TimeUnit.NANOSECONDS.toMillis(percentileNanos));
+    }
+
+    private static Throwable unwrap(Throwable error) {
+        return error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+    }
+
+    private static void cancelOnCompletion(CompletableFuture<?> future, ScheduledFuture<?> timer) {
+        future.whenComplete((value, error) -> timer.cancel(false));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        timer.shutdownNow();
+    }
+
+    private record Fetch(Instrument instrument, IntervalType intervalType, Instant from, Instant to) {
+    }
+
+    /**
+     * The latest successful call latencies of one data source, in a ring buffer.
+     */
+    private static final class LatencyWindow {
+
+        private final long[] samples = new long[LATENCY_SAMPLES];
+        private int next;
+        private int count;
+
+        synchronized void record(long nanos) {
+            samples[next] = nanos;
+            next = (next + 1) % samples.length;
+            count = Math.min(count + 1, samples.length);
+        }
+
+        synchronized long percentile(double percentile) {
+            if (count < MIN_HEDGE_SAMPLES) {
+                return -1;
+            }
+            long[] sorted = Arrays.copyOf(samples, count);
+            Arrays.sort(sorted);
+            return sorted[Math.min(count - 1, (int) Math.ceil(percentile * count) - 1)];
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package com.example.stockanalyzer.marketdata.ingestion;
+
+import com.example.stockanalyzer.marketdata.entites.DataSource;
+import com.example.stockanalyzer.marketdata.provider.MarketDataProvider;
+
+/**
+ * An active data source and the provider that serves it, one entry of the priority-ordered list
+ * {@link ProviderFailoverFetcher} works through.
+ */
+public record ProviderSource(DataSource dataSource, MarketDataProvider provider) {
+}
@@ -0,0 +1,45 @@
+package com.example.stockanalyzer.marketdata.ingestion;
+
+import java.time.ZoneId;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import com.example.stockanalyzer.marketdata.dto.RateLimiterStatsResponse;
+import com.example.stockanalyzer.marketdata.entites.DataSource;
+
+/**
+ * Holds one {@link DataSourceRateLimiter} per data source id. When the configured limits on the
+ * {@link DataSource} row change, the existing limiter is reconfigured in place rather than
+ * replaced, so the day's usage and the calls in flight keep counting.
+ */
+@Component
+public class RateLimiterRegistry {
+
+    private final ConcurrentMap<Long, DataSourceRateLimiter> limiters = new ConcurrentHashMap<>();
+    private final int maxInFlight;
+    private final ZoneId dayZone;
+
+    public RateLimiterRegistry(
+            @Value("${ingestion.fetch.max-in-flight-per-source:10}") int maxInFlight,
+            @Value("${ingestion.rate-limit.day-zone:Asia/Kolkata}") String dayZone) {
+        this.maxInFlight = maxInFlight;
+        this.dayZone = ZoneId.of(dayZone);
+    }
+
+    public DataSourceRateLimiter forDataSource(DataSource dataSource) {
+        DataSourceRateLimiter limiter = limiters.computeIfAbsent(dataSource.getId(),
+                id -> new DataSourceRateLimiter(dataSource, maxInFlight, dayZone));
+        limiter.reconfigure(dataSource);
+        return limiter;
+    }
+
+    public List<RateLimiterStatsResponse> stats() {
+        return limiters.values().stream()
+                .map(DataSourceRateLimiter::stats)
+                .sorted(Comparator.comparing(RateLimiterStatsResponse::getDataSourceId))
+                .toList();
+    }
+}
@@ -0,0 +1,6 @@
+package com.example.stockanalyzer.marketdata.ingestion;
+
+import com.example.stockanalyzer.marketdata.entites.IntervalType;
+
+public record WatermarkKey(long instrumentId, IntervalType intervalType) {
+}
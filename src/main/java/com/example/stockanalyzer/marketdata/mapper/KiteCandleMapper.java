@@ -2,21 +2,15 @@ package com.example.stockanalyzer.marketdata.mapper;
 
 import java.math.BigDecimal;
 import java.time.Instant;
-import java.time.LocalDateTime;
-import java.time.OffsetDateTime;
-import java.time.ZoneId;
-import java.time.format.DateTimeFormatter;
 
 import com.example.stockanalyzer.marketdata.entites.Candle;
 import com.example.stockanalyzer.marketdata.entites.Instrument;
 import com.example.stockanalyzer.marketdata.entites.IntervalType;
+import com.example.stockanalyzer.marketdata.ingestion.CandleBatch;
 import com.zerodhatech.models.HistoricalData;
 
 public final class KiteCandleMapper {
 
-    private static final DateTimeFormatter KITE_LOCAL_TIMESTAMP =
-            DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
-
     private KiteCandleMapper() {
     }
 
@@ -24,9 +18,9 @@ public final class KiteCandleMapper {
             Instrument instrument,
             IntervalType intervalType,
             HistoricalData bar,
-            ZoneId exchangeZone) {
+            ZoneOffsets exchangeZone) {
 
-        Instant candleStart = parseTimestamp(bar.timeStamp, exchangeZone);
+        Instant candleStart = Instant.ofEpochSecond(KiteTimestampParser.toEpochSecond(bar.timeStamp, exchangeZone));
 
         Candle candle = new Candle();
         candle.setInstrument(instrument);
@@ -41,13 +35,26 @@ public final class KiteCandleMapper {
         return candle;
     }
 
-    private static Instant parseTimestamp(String timestamp, ZoneId exchangeZone) {
-        try {
-            return OffsetDateTime.parse(timestamp).toInstant();
-        } catch (Exception ignored) {
-            return LocalDateTime.parse(timestamp, KITE_LOCAL_TIMESTAMP)
-                    .atZone(exchangeZone)
-                    .toInstant();
-        }
+    /**
+     * Same mapping as {@link #toCandle}, appended as primitives with no per-bar allocation.
+     */
+    public static void appendTo(
+            CandleBatch batch,
+            Instrument instrument,
+            IntervalType intervalType,
+            HistoricalData bar,
+            ZoneOffsets exchangeZone) {
+
+        long startSecond = KiteTimestampParser.toEpochSecond(bar.timeStamp, exchangeZone);
+        batch.add(
+                instrument,
+                intervalType,
+                startSecond,
+                KiteIntervalMapper.candleEndSecond(startSecond, intervalType),
+                PriceScale.toScaled(bar.open),
+                PriceScale.toScaled(bar.high),
+                PriceScale.toScaled(bar.low),
+                PriceScale.toScaled(bar.close),
+                bar.volume);
     }
 }
@@ -1,5 +1,6 @@
 package com.example.stockanalyzer.marketdata.mapper;
 
+import java.time.Duration;
 import java.time.Instant;
 
 import com.example.stockanalyzer.marketdata.entites.IntervalType;
@@ -20,7 +21,24 @@ public final class KiteIntervalMapper {
         };
     }
 
+    /**
+     * Longest date range Kite accepts in one historical data call for the interval.
+     */
+    public static Duration maxRequestRange(IntervalType intervalType) {
+        return switch (intervalType) {
+            case ONE_MINUTE -> Duration.ofDays(60);
+            case FIVE_MINUTE -> Duration.ofDays(100);
+            case FIFTEEN_MINUTE, THIRTY_MINUTE -> Duration.ofDays(200);
+            case ONE_HOUR -> Duration.ofDays(400);
+            case ONE_DAY -> Duration.ofDays(2000);
+        };
+    }
+
     public static Instant candleEnd(Instant candleStart, IntervalType intervalType) {
         return candleStart.plusSeconds(intervalType.getMinutes() * 60L);
     }
+
+    public static long candleEndSecond(long candleStartSecond, IntervalType intervalType) {
+        return candleStartSecond + intervalType.getMinutes() * 60L;
+    }
 }
@@ -0,0 +1,110 @@
+package com.example.stockanalyzer.marketdata.mapper;
+
+import com.example.stockanalyzer.marketdata.exception.MarketDataException;
+
+/**
+ * Fixed-layout parser for the timestamps Kite returns, straight to epoch seconds:
+ * {@code yyyy-MM-ddTHH:mm:ss+0530} (historical API), the ISO {@code +05:30} / {@code Z} forms,
+ * and local {@code yyyy-MM-dd HH:mm:ss} which is resolved in the exchange zone. A fractional
+ * second part is accepted and truncated. Valid input never throws or allocates.
+ */
+public final class KiteTimestampParser {
+
+    private KiteTimestampParser() {
+    }
+
+    public static long toEpochSecond(String timestamp, ZoneOffsets localZone) {
+        int length = timestamp.length();
+        if (length < 19
+                || timestamp.charAt(4) != '-'
+                || timestamp.charAt(7) != '-'
+                || (timestamp.charAt(10) != 'T' && timestamp.charAt(10) != ' ')
+                || timestamp.charAt(13) != ':'
+                || timestamp.charAt(16) != ':') {
+            throw invalid(timestamp);
+        }
+        int year = digits(timestamp, 0, 4);
+        int month = digits(timestamp, 5, 2);
+        int day = digits(timestamp, 8, 2);
+        int hour = digits(timestamp, 11, 2);
+        int minute = digits(timestamp, 14, 2);
+        int second = digits(timestamp, 17, 2);
+        if ((year | month | day | hour | minute | second) < 0
+                || month < 1 || month > 12 || day < 1 || day > lengthOfMonth(year, month)
+                || hour > 23 || minute > 59 || second > 59) {
+            throw invalid(timestamp);
+        }
+        long localSecond = daysFromCivil(year, month, day) * 86_400L + hour * 3_600L + minute * 60L + second;
+
+        int pos = 19;
+        if (pos < length && timestamp.charAt(pos) == '.') {
+            pos++;
+            while (pos < length && Character.isDigit(timestamp.charAt(pos))) {
+                pos++;
+            }
+        }
+        if (pos == length) {
+            return localSecond - localZone.offsetSecondsAtLocal(localSecond);
+        }
+        char sign = timestamp.charAt(pos);
+        if (sign == 'Z' && pos + 1 == length) {
+            return localSecond;
+        }
+        if (sign != '+' && sign != '-') {
+            throw invalid(timestamp);
+        }
+        int remaining = length - pos - 1;
+        int offsetHours = remaining >= 2 ? digits(timestamp, pos + 1, 2) : -1;
+        int offsetMinutes;
+        if (remaining == 2) {
+            offsetMinutes = 0;
+        } else if (remaining == 4) {
+            offsetMinutes = digits(timestamp, pos + 3, 2);
+        } else if (remaining == 5 && timestamp.charAt(pos + 3) == ':') {
+            offsetMinutes = digits(timestamp, pos + 4, 2);
+        } else {
+            offsetMinutes = -1;
+        }
+        if (offsetHours < 0 || offsetHours > 18 || offsetMinutes < 0 || offsetMinutes > 59) {
+            throw invalid(timestamp);
+        }
+        int offsetSeconds = offsetHours * 3_600 + offsetMinutes * 60;
+        return localSecond - (sign == '-' ? -offsetSeconds : offsetSeconds);
+    }
+
+    private static int digits(String s, int from, int count) {
+        int value = 0;
+        for (int i = from; i < from + count; i++) {
+            int d = s.charAt(i) - '0';
+            if (d < 0 || d > 9) {
+                return -1;
+            }
+            value = value * 10 + d;
+        }
+        return value;
+    }
+
+    private static int lengthOfMonth(int year, int month) {
+        return switch (month) {
+            case 2 -> (year % 4 == 0 && (year % 100 != 0 || year % 400 == 0)) ? 29 : 28;
+            case 4, 6, 9, 11 -> 30;
+            default -> 31;
+        };
+    }
+
+    /**
+     * Days since 1970-01-01 of a proleptic Gregorian date (H. Hinnant's days_from_civil).
+     */
+    private static long daysFromCivil(int year, int month, int day) {
+        int y = month <= 2 ? year - 1 : year;
+        int era = Math.floorDiv(y, 400);
+        int yearOfEra = y - era * 400;
+        int dayOfYear = (153 * (month + (month > 2 ? -3 : 9)) + 2) / 5 + day - 1;
+        int dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+        return era * 146_097L + dayOfEra - 719_468;
+    }
+
+    private static MarketDataException invalid(String timestamp) {
+        return new MarketDataException("Unrecognized Kite timestamp: " + timestamp);
+    }
+}
@@ -0,0 +1,29 @@
+package com.example.stockanalyzer.marketdata.mapper;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Fixed-point prices as {@code long}s at the database's {@code DECIMAL(19,4)} scale, i.e. price x
+ * 10^4. Lets hot paths keep prices in primitive columns without losing what MySQL stores.
+ */
+public final class PriceScale {
+
+    public static final int SCALE = 4;
+    public static final long FACTOR = 10_000L;
+
+    private PriceScale() {
+    }
+
+    public static long toScaled(BigDecimal price) {
+        return price.setScale(SCALE, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    public static long toScaled(double price) {
+        return Math.round(price * FACTOR);
+    }
+
+    public static BigDecimal toBigDecimal(long scaled) {
+        return BigDecimal.valueOf(scaled, SCALE);
+    }
+}
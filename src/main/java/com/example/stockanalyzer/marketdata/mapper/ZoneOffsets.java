@@ -0,0 +1,67 @@
+package com.example.stockanalyzer.marketdata.mapper;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.zone.ZoneOffsetTransition;
+import java.time.zone.ZoneRules;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Cached {@link ZoneRules} of an exchange timezone, with a shortcut for zones whose offset no
+ * longer changes (e.g. Asia/Kolkata since 1945): local times after the last transition resolve
+ * to a constant without touching the rules or allocating.
+ */
+public final class ZoneOffsets {
+
+    private static final Map<String, ZoneOffsets> CACHE = new ConcurrentHashMap<>();
+
+    private final ZoneId zone;
+    private final ZoneRules rules;
+    private final long constantFromLocalSecond;
+    private final int constantOffsetSeconds;
+
+    private ZoneOffsets(ZoneId zone) {
+        this.zone = zone;
+        this.rules = zone.getRules();
+        List<ZoneOffsetTransition> transitions = rules.getTransitions();
+        if (!rules.getTransitionRules().isEmpty()) {
+            constantFromLocalSecond = Long.MAX_VALUE;
+            constantOffsetSeconds = 0;
+        } else if (transitions.isEmpty()) {
+            constantFromLocalSecond = Long.MIN_VALUE;
+            constantOffsetSeconds = rules.getOffset(Instant.EPOCH).getTotalSeconds();
+        } else {
+            ZoneOffsetTransition last = transitions.get(transitions.size() - 1);
+            // a day of margin keeps local times near the last transition on the exact path
+            constantFromLocalSecond = last.getDateTimeAfter().toEpochSecond(ZoneOffset.UTC) + 86_400;
+            constantOffsetSeconds = last.getOffsetAfter().getTotalSeconds();
+        }
+    }
+
+    public static ZoneOffsets of(String timezoneId) {
+        return CACHE.computeIfAbsent(timezoneId, id -> new ZoneOffsets(ZoneId.of(id)));
+    }
+
+    public ZoneId zone() {
+        return zone;
+    }
+
+    /**
+     * UTC offset in effect at a local date-time given as seconds since 1970-01-01T00:00 local.
+     * Gaps and overlaps resolve like {@code LocalDateTime.atZone}: the offset before the transition.
+     */
+    public int offsetSecondsAtLocal(long localEpochSecond) {
+        if (localEpochSecond >= constantFromLocalSecond) {
+            return constantOffsetSeconds;
+        }
+        LocalDateTime local = LocalDateTime.ofEpochSecond(localEpochSecond, 0, ZoneOffset.UTC);
+        List<ZoneOffset> valid = rules.getValidOffsets(local);
+        return valid.isEmpty()
+                ? rules.getTransition(local).getOffsetBefore().getTotalSeconds()
+                : valid.get(0).getTotalSeconds();
+    }
+}
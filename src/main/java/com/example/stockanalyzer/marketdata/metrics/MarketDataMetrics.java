@@ -0,0 +1,291 @@
+package com.example.stockanalyzer.marketdata.metrics;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.function.ToIntFunction;
+import org.springframework.stereotype.Component;
+import com.example.stockanalyzer.marketdata.diagnostics.ProviderFetchEvent;
+import com.example.stockanalyzer.marketdata.dto.FetchCandlesRequest;
+import com.example.stockanalyzer.marketdata.entites.Instrument;
+import com.example.stockanalyzer.marketdata.entites.IntervalType;
+import com.example.stockanalyzer.marketdata.exception.MarketDataException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * The application's Micrometer meters, exported on {@code /actuator/prometheus}. Callers report
+ * plain values and outcomes here; meter names, tags and histogram settings live in one place.
+ *
+ * Tags are bounded: provider name, interval, outcome, exception class and, for freshness, the
+ * instrument id of each ingested series. Per-call detail (which instrument, which range) goes to
+ * JFR events instead; see the {@code diagnostics} package.
+ *
+ * Meters recorded on every fetch and every batch are registered once and kept here, so the hot
+ * path does not build a meter id and look it up in the registry per call.
+ */
+@Component
+public class MarketDataMetrics {
+
+    private static final String SUCCESS = "success";
+    private static final String ERROR = "error";
+
+    private final MeterRegistry registry;
+    private final AtomicLong lastCycleCompletedMillis = new AtomicLong();
+    private final Map<String, ProviderMeters> providerMeters = new ConcurrentHashMap<>();
+    private final Map<String, PersistMeters> persistMeters = new ConcurrentHashMap<>();
+    private final Map<IntervalType, Counter> fetchedCandles = new EnumMap<>(IntervalType.class);
+    private final Map<IntervalType, Counter> insertedCandles = new EnumMap<>(IntervalType.class);
+
+    public MarketDataMetrics(MeterRegistry registry) {
+        this.registry = registry;
+        for (IntervalType intervalType : IntervalType.values()) {
+            fetchedCandles.put(intervalType, Counter.builder("marketdata.ingestion.candles.fetched")
+                    .description("Candles returned by providers")
+                    .tag("interval", intervalType.name())
+                    .register(registry));
+            insertedCandles.put(intervalType, Counter.builder("marketdata.ingestion.candles.inserted")
+                    .description("Fetched candles that were not already stored")
+                    .tag("interval", intervalType.name())
+                    .register(registry));
+        }
+        TimeGauge.builder("marketdata.ingestion.cycle.last.completed", lastCycleCompletedMillis,
+                        TimeUnit.MILLISECONDS, AtomicLong::get)
+                .description("Epoch time at which the last scheduled ingestion cycle finished")
+                .register(registry);
+    }
+
+    /**
+     * Times one provider call and, if it throws, counts the failure by cause before rethrowing.
+     * The call is also recorded as a {@link ProviderFetchEvent} when a flight recording is running.
+     */
+    public <T> T timeFetch(
+            String provider,
+            Instrument instrument,
+            FetchCandlesRequest request,
+            Supplier<T> call,
+            ToIntFunction<T> barCount) {
+        ProviderMeters meters = providerMeters.computeIfAbsent(provider, ProviderMeters::new);
+        IntervalType intervalType = request.intervalTypeOrDefault();
+        ProviderFetchEvent event = new ProviderFetchEvent();
+        event.begin();
+        long started = System.nanoTime();
+        String outcome = ERROR;
+        int bars = 0;
+        String error = null;
+        try {
+            T result = call.get();
+            bars = barCount.applyAsInt(result);
+            outcome = SUCCESS;
+            return result;
+        } catch (RuntimeException e) {
+            error = causeOf(e);
+            meters.errors(error).increment();
+            throw e;
+        } finally {
+            meters.latency(intervalType, outcome).record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+            event.end();
+            if (event.shouldCommit()) {
+                event.provider = provider;
+                event.instrumentId = instrument.getId();
+                event.symbol = instrument.getSymbol();
+                event.interval = intervalType.name();
+                event.from = epochMillis(request.getFrom());
+                event.to = epochMillis(request.getTo());
+                event.bars = bars;
+                event.error = error;
+                event.commit();
+            }
+        }
+    }
+
+    public void recordIngested(IntervalType intervalType, long fetched, long inserted) {
+        fetchedCandles.get(intervalType).increment(fetched);
+        insertedCandles.get(intervalType).increment(inserted);
+    }
+
+    /**
+     * @param mode {@code insert} or {@code upsert}
+     */
+    public void recordPersistBatch(String mode, int rows, long elapsedNanos, boolean succeeded) {
+        PersistMeters meters = persistMeters.computeIfAbsent(mode, PersistMeters::new);
+        (succeeded ? meters.succeeded : meters.failed).record(elapsedNanos, TimeUnit.NANOSECONDS);
+        meters.rows.record(rows);
+    }
+
+    /**
+     * Records a scheduled ingestion cycle; one that ran longer than {@code window} is also counted
+     * as an overrun, since the scheduler skips the triggers it missed.
+     */
+    public void recordCycle(IntervalType intervalType, Duration elapsed, Duration window, boolean succeeded) {
+        Timer.builder("marketdata.ingestion.cycle")
+                .description("Scheduled ingestion cycle duration")
+                .tag("interval", intervalType.name())
+                .tag("outcome", succeeded ? SUCCESS : ERROR)
+                .publishPercentileHistogram()
+                .register(registry)
+                .record(elapsed);
+        if (elapsed.compareTo(window) > 0) {
+            Counter.builder("marketdata.ingestion.cycle.overruns")
+                    .description("Scheduled ingestion cycles that did not finish inside their window")
+                    .tag("interval", intervalType.name())
+                    .register(registry)
+                    .increment();
+        }
+        lastCycleCompletedMillis.set(System.currentTimeMillis());
+    }
+
+    /**
+     * Registers the freshness lag gauge of one series: now minus the end of its latest stored
+     * closed bar. Registering the same series again is a no-op.
+     */
+    public void trackFreshness(long instrumentId, IntervalType intervalType, Supplier<Instant> lastClosedStart) {
+        long intervalMillis = intervalType.getMinutes() * 60_000L;
+        Gauge.builder("marketdata.candles.freshness.lag", () -> {
+                    Instant start = lastClosedStart.get();
+                    return start == null
+                            ? Double.NaN
+                            : (System.currentTimeMillis() - start.toEpochMilli() - intervalMillis) / 1000.0;
+                })
+                .description("Seconds since the end of the latest stored closed candle")
+                .baseUnit("seconds")
+                .tag("instrument", Long.toString(instrumentId))
+                .tag("interval", intervalType.name())
+                .register(registry);
+    }
+
+    /**
+     * Registers the gauge of journaled bytes still waiting to be written to the database.
+     */
+    public void trackJournalBacklog(Supplier<Long> pendingBytes) {
+        Gauge.builder("marketdata.ingestion.journal.pending", () -> pendingBytes.get().doubleValue())
+                .description("Journaled candle bytes not yet replayed into the database")
+                .baseUnit("bytes")
+                .register(registry);
+    }
+
+    /**
+     * Counts a journaled batch of {@code rows} candles the database refused, moved aside by replay.
+     */
+    public void recordJournalRejected(int rows, Throwable error) {
+        Counter.builder("marketdata.ingestion.journal.rejected")
+                .description("Journaled candles moved aside after a non-transient write failure")
+                .tag("cause", causeOf(error))
+                .register(registry)
+                .increment(rows);
+    }
+
+    public void recordSessionRefresh(String provider, boolean succeeded) {
+        Counter.builder("marketdata.session.refresh")
+                .description("Scheduled provider session refreshes by outcome")
+                .tag("provider", provider)
+                .tag("outcome", succeeded ? SUCCESS : ERROR)
+                .register(registry)
+                .increment();
+    }
+
+    /**
+     * Counts a fetch passed on from {@code provider} to the next data source, by cause.
+     */
+    public void recordFailover(String provider, Throwable error) {
+        Counter.builder("marketdata.provider.failover")
+                .description("Provider fetches failed over to the next data source")
+                .tag("provider", provider)
+                .tag("cause", causeOf(error))
+                .register(registry)
+                .increment();
+    }
+
+    /**
+     * Counts a hedged fetch sent to {@code provider} and whether its answer was the one used.
+     */
+    public void recordHedge(String provider, boolean won) {
+        Counter.builder("marketdata.provider.hedge")
+                .description("Hedged provider fetches by whether they answered first")
+                .tag("provider", provider)
+                .tag("outcome", won ? "won" : "lost")
+                .register(registry)
+                .increment();
+    }
+
+    // Provider failures arrive wrapped in MarketDataException; the wrapped exception names the cause.
+    private static String causeOf(Throwable error) {
+        Throwable cause = error instanceof MarketDataException && error.getCause() != null
+                ? error.getCause()
+                : error;
+        return cause.getClass().getSimpleName();
+    }
+
+    private static long epochMillis(Instant instant) {
+        return instant == null ? 0L : instant.toEpochMilli();
+    }
+
+    /**
+     * Fetch meters of one provider; latency timers are registered on first use of each interval
+     * and outcome, so idle combinations export no empty histograms.
+     */
+    private final class ProviderMeters {
+
+        private final String provider;
+        private final Map<IntervalType, Timer> succeeded = new ConcurrentHashMap<>();
+        private final Map<IntervalType, Timer> failed = new ConcurrentHashMap<>();
+        private final Map<String, Counter> errors = new ConcurrentHashMap<>();
+
+        private ProviderMeters(String provider) {
+            this.provider = provider;
+        }
+
+        private Timer latency(IntervalType intervalType, String outcome) {
+            Map<IntervalType, Timer> timers = SUCCESS.equals(outcome) ? succeeded : failed;
+            return timers.computeIfAbsent(intervalType, interval -> Timer.builder("marketdata.provider.fetch")
+                    .description("Provider candle fetch latency, excluding rate-limit waits")
+                    .tag("provider", provider)
+                    .tag("interval", interval.name())
+                    .tag("outcome", outcome)
+                    .publishPercentileHistogram()
+                    .register(registry));
+        }
+
+        private Counter errors(String cause) {
+            return errors.computeIfAbsent(cause, c -> Counter.builder("marketdata.provider.fetch.errors")
+                    .description("Failed provider candle fetches by cause")
+                    .tag("provider", provider)
+                    .tag("cause", c)
+                    .register(registry));
+        }
+    }
+
+    private final class PersistMeters {
+
+        private final Timer succeeded;
+        private final Timer failed;
+        private final DistributionSummary rows;
+
+        private PersistMeters(String mode) {
+            this.succeeded = batchTimer(mode, SUCCESS);
+            this.failed = batchTimer(mode, ERROR);
+            this.rows = DistributionSummary.builder("marketdata.persist.batch.rows")
+                    .description("Candles per written batch")
+                    .tag("mode", mode)
+                    .register(registry);
+        }
+
+        private Timer batchTimer(String mode, String outcome) {
+            return Timer.builder("marketdata.persist.batch")
+                    .description("Candle batch write latency, one transaction per batch")
+                    .tag("mode", mode)
+                    .tag("outcome", outcome)
+                    .publishPercentileHistogram()
+                    .register(registry);
+        }
+    }
+}
@@ -1,11 +1,13 @@
 package com.example.stockanalyzer.marketdata.provider;
 
+import java.time.Duration;
 import java.util.List;
 
 import com.example.stockanalyzer.marketdata.dto.FetchCandlesRequest;
 import com.example.stockanalyzer.marketdata.entites.Candle;
 import com.example.stockanalyzer.marketdata.entites.DataSource;
 import com.example.stockanalyzer.marketdata.entites.Instrument;
+import com.example.stockanalyzer.marketdata.entites.IntervalType;
 
 public interface MarketDataProvider {
 
@@ -13,8 +15,28 @@ public interface MarketDataProvider {
 
     String getProviderName();
 
+    /**
+     * Longest {@code from}/{@code to} range a single {@link #fetchCandles} call may request for the
+     * interval. Backfills are split into chunks of at most this length.
+     */
+    default Duration maxRequestRange(IntervalType intervalType) {
+        return Duration.ofDays(30);
+    }
+
     List<Candle> fetchCandles(
             DataSource dataSource,
             Instrument instrument,
             FetchCandlesRequest request);
+
+    /**
+     * Performs only the provider call and defers mapping to {@link RawCandles#toCandles()}.
+     * Providers that cannot separate the two just fetch eagerly.
+     */
+    default RawCandles fetchRawCandles(
+            DataSource dataSource,
+            Instrument instrument,
+            FetchCandlesRequest request) {
+        List<Candle> candles = fetchCandles(dataSource, instrument, request);
+        return () -> candles;
+    }
 }
@@ -1,6 +1,8 @@
 package com.example.stockanalyzer.marketdata.provider;
 
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.springframework.stereotype.Component;
 
@@ -14,8 +16,19 @@ import lombok.RequiredArgsConstructor;
 public class MarketDataProviderRegistry {
 
     private final List<MarketDataProvider> providers;
+    private final Map<Long, MarketDataProvider> byDataSourceId = new ConcurrentHashMap<>();
 
+    /**
+     * Matches are memoized per data source id, so the fetch path does not rescan the list.
+     */
     public MarketDataProvider resolve(DataSource dataSource) {
+        if (dataSource.getId() == null) {
+            return find(dataSource);
+        }
+        return byDataSourceId.computeIfAbsent(dataSource.getId(), id -> find(dataSource));
+    }
+
+    private MarketDataProvider find(DataSource dataSource) {
         return providers.stream()
                 .filter(provider -> provider.supports(dataSource))
                 .findFirst()
@@ -0,0 +1,31 @@
+package com.example.stockanalyzer.marketdata.provider;
+
+import java.util.List;
+
+import com.example.stockanalyzer.marketdata.entites.Candle;
+import com.example.stockanalyzer.marketdata.ingestion.CandleBatch;
+
+/**
+ * Provider response that has been fetched but not yet mapped to {@link Candle} entities, so the
+ * network call and the mapping can run on different pipeline stages.
+ */
+@FunctionalInterface
+public interface RawCandles {
+
+    List<Candle> toCandles();
+
+    /**
+     * Maps the response into {@code batch}. Providers that can map straight to primitives
+     * override this to skip building entities.
+     */
+    default void appendTo(CandleBatch batch) {
+        toCandles().forEach(batch::add);
+    }
+
+    /**
+     * Number of bars in the response. Providers that defer mapping override this so it stays cheap.
+     */
+    default int size() {
+        return toCandles().size();
+    }
+}
@@ -1,12 +1,12 @@
 package com.example.stockanalyzer.marketdata.provider.impl;
 
+import java.time.Duration;
 import java.time.Instant;
-import java.time.ZoneId;
 import java.util.Date;
 import java.util.List;
 import org.springframework.stereotype.Component;
-import com.example.stockanalyzer.marketdata.auth.ProviderAuthRegistry;
 import com.example.stockanalyzer.marketdata.auth.KiteClientFactory;
+import com.example.stockanalyzer.marketdata.auth.SessionValidityCache;
 import com.example.stockanalyzer.marketdata.dto.FetchCandlesRequest;
 import com.example.stockanalyzer.marketdata.entites.Candle;
 import com.example.stockanalyzer.marketdata.entites.DataSource;
@@ -14,9 +14,13 @@ import com.example.stockanalyzer.marketdata.entites.Instrument;
 import com.example.stockanalyzer.marketdata.entites.IntervalType;
 import com.example.stockanalyzer.marketdata.entites.ProviderType;
 import com.example.stockanalyzer.marketdata.exception.MarketDataException;
+import com.example.stockanalyzer.marketdata.ingestion.CandleBatch;
+import com.example.stockanalyzer.marketdata.ingestion.IngestionWatermarkService;
 import com.example.stockanalyzer.marketdata.mapper.KiteCandleMapper;
 import com.example.stockanalyzer.marketdata.mapper.KiteIntervalMapper;
+import com.example.stockanalyzer.marketdata.mapper.ZoneOffsets;
 import com.example.stockanalyzer.marketdata.provider.MarketDataProvider;
+import com.example.stockanalyzer.marketdata.provider.RawCandles;
 import com.zerodhatech.kiteconnect.KiteConnect;
 import com.zerodhatech.kiteconnect.kitehttp.exceptions.KiteException;
 import com.zerodhatech.models.HistoricalData;
@@ -27,7 +31,8 @@ import lombok.RequiredArgsConstructor;
 public class KiteMarketDataProvider implements MarketDataProvider {
 
     private final KiteClientFactory kiteClientFactory;
-    private final ProviderAuthRegistry authRegistry;
+    private final SessionValidityCache sessionValidityCache;
+    private final IngestionWatermarkService watermarkService;
 
     @Override
     public boolean supports(DataSource dataSource) {
@@ -41,29 +46,40 @@ public class KiteMarketDataProvider implements MarketDataProvider {
         return "Kite";
     }
 
+    @Override
+    public Duration maxRequestRange(IntervalType intervalType) {
+        return KiteIntervalMapper.maxRequestRange(intervalType);
+    }
+
     @Override
     public List<Candle> fetchCandles(
             DataSource dataSource,
             Instrument instrument,
             FetchCandlesRequest request) {
+        return fetchRawCandles(dataSource, instrument, request).toCandles();
+    }
 
-        if (!authRegistry.resolve(dataSource).hasValidSession(dataSource)) {
+    @Override
+    public RawCandles fetchRawCandles(
+            DataSource dataSource,
+            Instrument instrument,
+            FetchCandlesRequest request) {
+
+        if (!sessionValidityCache.isValid(dataSource)) {
             throw new MarketDataException("No valid Kite session for data source: " + dataSource.getName());
         }
         if (instrument.getKiteInstrumentToken() == null) {
             throw new MarketDataException("Missing Kite instrument token for: " + instrument.getSymbol());
         }
 
-        IntervalType intervalType = request.getIntervalType() != null
-                ? request.getIntervalType()
-                : IntervalType.ONE_DAY;
+        IntervalType intervalType = request.intervalTypeOrDefault();
         Instant to = request.getTo() != null ? request.getTo() : Instant.now();
         Instant from = request.getFrom() != null
                 ? request.getFrom()
-                : to.minusSeconds(intervalType.getMinutes() * 60L * 3L);
+                : watermarkService.fetchFrom(instrument.getId(), intervalType, to);
 
         try {
-            KiteConnect kiteConnect = kiteClientFactory.createAuthenticated(dataSource);
+            KiteConnect kiteConnect = kiteClientFactory.getAuthenticated(dataSource);
             HistoricalData response = kiteConnect.getHistoricalData(
                     Date.from(from),
                     Date.from(to),
@@ -72,14 +88,38 @@ public class KiteMarketDataProvider implements MarketDataProvider {
                     false,
                     false);
 
-            ZoneId exchangeZone = ZoneId.of(instrument.getExchange().getTimezone());
-            return response.dataArrayList.stream()
-                    .map(bar -> KiteCandleMapper.toCandle(instrument, intervalType, bar, exchangeZone))
-                    .toList();
+            ZoneOffsets exchangeZone = ZoneOffsets.of(instrument.getExchange().getTimezone());
+            return new KiteRawCandles(instrument, intervalType, response.dataArrayList, exchangeZone);
         } catch (Exception e) {
             throw new MarketDataException("Failed to fetch Kite candles for: " + instrument.getSymbol(), e);
         } catch (KiteException e) {
             throw new MarketDataException("Failed to fetch Kite candles for: " + instrument.getSymbol(), e);
         }
     }
+
+    private record KiteRawCandles(
+            Instrument instrument,
+            IntervalType intervalType,
+            List<HistoricalData> bars,
+            ZoneOffsets exchangeZone) implements RawCandles {
+
+        @Override
+        public List<Candle> toCandles() {
+            return bars.stream()
+                    .map(bar -> KiteCandleMapper.toCandle(instrument, intervalType, bar, exchangeZone))
+                    .toList();
+        }
+
+        @Override
+        public void appendTo(CandleBatch batch) {
+            for (HistoricalData bar : bars) {
+                KiteCandleMapper.appendTo(batch, instrument, intervalType, bar, exchangeZone);
+            }
+        }
+
+        @Override
+        public int size() {
+            return bars.size();
+        }
+    }
 }
@@ -0,0 +1,26 @@
+package com.example.stockanalyzer.marketdata.repository;
+
+import java.util.List;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import com.example.stockanalyzer.marketdata.entites.BackfillChunk;
+import com.example.stockanalyzer.marketdata.entites.BackfillStatus;
+
+public interface BackfillChunkRepository extends JpaRepository<BackfillChunk, Long> {
+
+    List<BackfillChunk> findByJobIdAndStatusOrderByIdAsc(Long jobId, BackfillStatus status);
+
+    long countByJobIdAndStatus(Long jobId, BackfillStatus status);
+
+    @Query("select distinct c.instrumentId from BackfillChunk c where c.jobId = :jobId")
+    List<Long> findInstrumentIdsByJobId(@Param("jobId") Long jobId);
+
+    @Modifying
+    @Query("update BackfillChunk c set c.status = :to where c.jobId = :jobId and c.status = :from")
+    int updateStatus(
+            @Param("jobId") Long jobId,
+            @Param("from") BackfillStatus from,
+            @Param("to") BackfillStatus to);
+}
@@ -0,0 +1,32 @@
+package com.example.stockanalyzer.marketdata.repository;
+
+import java.util.Collection;
+import java.util.List;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import com.example.stockanalyzer.marketdata.entites.BackfillJob;
+import com.example.stockanalyzer.marketdata.entites.BackfillStatus;
+
+public interface BackfillJobRepository extends JpaRepository<BackfillJob, Long> {
+
+    List<BackfillJob> findByStatusIn(Collection<BackfillStatus> statuses);
+
+    List<BackfillJob> findAllByOrderByIdDesc();
+
+    @Modifying
+    @Query("update BackfillJob j set j.completedChunks = j.completedChunks + 1, "
+            + "j.candlesFetched = j.candlesFetched + :fetched, "
+            + "j.candlesInserted = j.candlesInserted + :inserted "
+            + "where j.id = :jobId")
+    int recordChunkCompleted(
+            @Param("jobId") Long jobId,
+            @Param("fetched") long fetched,
+            @Param("inserted") long inserted);
+
+    @Modifying
+    @Query("update BackfillJob j set j.failedChunks = j.failedChunks + 1, j.lastError = :error "
+            + "where j.id = :jobId")
+    int recordChunkFailed(@Param("jobId") Long jobId, @Param("error") String error);
+}
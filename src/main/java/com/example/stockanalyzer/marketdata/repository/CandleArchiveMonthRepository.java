@@ -0,0 +1,17 @@
+package com.example.stockanalyzer.marketdata.repository;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import org.springframework.data.jpa.repository.JpaRepository;
+import com.example.stockanalyzer.marketdata.entites.ArchiveStatus;
+import com.example.stockanalyzer.marketdata.entites.CandleArchiveMonth;
+
+public interface CandleArchiveMonthRepository extends JpaRepository<CandleArchiveMonth, Long> {
+
+    Optional<CandleArchiveMonth> findByMonthStart(LocalDate monthStart);
+
+    List<CandleArchiveMonth> findByStatus(ArchiveStatus status);
+
+    List<CandleArchiveMonth> findAllByOrderByMonthStartAsc();
+}
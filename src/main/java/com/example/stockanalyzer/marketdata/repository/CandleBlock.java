@@ -0,0 +1,230 @@
+package com.example.stockanalyzer.marketdata.repository;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+import com.example.stockanalyzer.marketdata.dto.CandleResponse;
+import com.example.stockanalyzer.marketdata.entites.IntervalType;
+import com.example.stockanalyzer.marketdata.mapper.PriceScale;
+
+/**
+ * The bars of one {@code candle_blocks} row, decoded into columns sorted by start so they can be
+ * merged with incoming bars and encoded back.
+ *
+ * Encoding: a version byte and the bar count, then per bar the start as a delta from the previous
+ * start (the first from the day's midnight), the end as an offset from the start, zigzag deltas of
+ * open, high, low and close from the previous bar in {@link PriceScale} units, and the volume, all
+ * as unsigned LEB128 varints. A one-minute session of 375 bars packs into roughly 4 KB.
+ */
+final class CandleBlock {
+
+    private static final byte VERSION = 1;
+
+    private final long dayStartSecond;
+    private long[] start;
+    private long[] end;
+    private long[] open;
+    private long[] high;
+    private long[] low;
+    private long[] close;
+    private long[] volume;
+    private int size;
+    private boolean changed;
+
+    CandleBlock(long dayStartSecond, int capacity) {
+        this.dayStartSecond = dayStartSecond;
+        int initial = Math.max(16, capacity);
+        start = new long[initial];
+        end = new long[initial];
+        open = new long[initial];
+        high = new long[initial];
+        low = new long[initial];
+        close = new long[initial];
+        volume = new long[initial];
+    }
+
+    static CandleBlock decode(long dayStartSecond, byte[] bytes) {
+        if (bytes[0] != VERSION) {
+            throw new IllegalStateException("Unknown candle block version " + bytes[0]);
+        }
+        int[] position = {1};
+        int count = (int) readVarLong(bytes, position);
+        CandleBlock block = new CandleBlock(dayStartSecond, count);
+        long previousStart = dayStartSecond;
+        long previousOpen = 0;
+        long previousHigh = 0;
+        long previousLow = 0;
+        long previousClose = 0;
+        for (int i = 0; i < count; i++) {
+            previousStart += readVarLong(bytes, position);
+            block.start[i] = previousStart;
+            block.end[i] = previousStart + zigzagDecode(readVarLong(bytes, position));
+            previousOpen += zigzagDecode(readVarLong(bytes, position));
+            previousHigh += zigzagDecode(readVarLong(bytes, position));
+            previousLow += zigzagDecode(readVarLong(bytes, position));
+            previousClose += zigzagDecode(readVarLong(bytes, position));
+            block.open[i] = previousOpen;
+            block.high[i] = previousHigh;
+            block.low[i] = previousLow;
+            block.close[i] = previousClose;
+            block.volume[i] = zigzagDecode(readVarLong(bytes, position));
+        }
+        block.size = count;
+        return block;
+    }
+
+    /**
+     * Adds a bar, or overwrites the stored bar with the same start when {@code overwrite} is set.
+     *
+     * @return whether the bar was not stored before
+     */
+    boolean put(long startSecond, long endSecond, long scaledOpen, long scaledHigh, long scaledLow,
+                long scaledClose, long barVolume, boolean overwrite) {
+        // Bars almost always arrive in order, so try the append position before searching.
+        int index = size == 0 || start[size - 1] < startSecond
+                ? -size - 1
+                : Arrays.binarySearch(start, 0, size, startSecond);
+        if (index >= 0) {
+            if (overwrite) {
+                set(index, startSecond, endSecond, scaledOpen, scaledHigh, scaledLow, scaledClose, barVolume);
+            }
+            return false;
+        }
+        int insertAt = -index - 1;
+        if (size == start.length) {
+            grow(size * 2);
+        }
+        for (long[] column : new long[][] {start, end, open, high, low, close, volume}) {
+            System.arraycopy(column, insertAt, column, insertAt + 1, size - insertAt);
+        }
+        size++;
+        set(insertAt, startSecond, endSecond, scaledOpen, scaledHigh, scaledLow, scaledClose, barVolume);
+        return true;
+    }
+
+    int size() {
+        return size;
+    }
+
+    boolean changed() {
+        return changed;
+    }
+
+    byte[] encode() {
+        byte[] bytes = new byte[16 + size * 7 * 10];
+        int[] position = {0};
+        bytes[position[0]++] = VERSION;
+        writeVarLong(bytes, position, size);
+        long previousStart = dayStartSecond;
+        long previousOpen = 0;
+        long previousHigh = 0;
+        long previousLow = 0;
+        long previousClose = 0;
+        for (int i = 0; i < size; i++) {
+            writeVarLong(bytes, position, start[i] - previousStart);
+            writeVarLong(bytes, position, zigzagEncode(end[i] - start[i]));
+            writeVarLong(bytes, position, zigzagEncode(open[i] - previousOpen));
+            writeVarLong(bytes, position, zigzagEncode(high[i] - previousHigh));
+            writeVarLong(bytes, position, zigzagEncode(low[i] - previousLow));
+            writeVarLong(bytes, position, zigzagEncode(close[i] - previousClose));
+            writeVarLong(bytes, position, zigzagEncode(volume[i]));
+            previousStart = start[i];
+            previousOpen = open[i];
+            previousHigh = high[i];
+            previousLow = low[i];
+            previousClose = close[i];
+        }
+        return Arrays.copyOf(bytes, position[0]);
+    }
+
+    /**
+     * Appends bars with {@code afterSecondExclusive < start <= toSecond} to {@code out} until it
+     * holds {@code limit} rows.
+     */
+    void read(long afterSecondExclusive, long toSecond, int limit, long instrumentId, IntervalType intervalType,
+              String symbol, String exchangeCode, List<CandleResponse> out) {
+        int first = Arrays.binarySearch(start, 0, size, afterSecondExclusive);
+        first = first >= 0 ? first + 1 : -first - 1;
+        for (int i = first; i < size && start[i] <= toSecond && out.size() < limit; i++) {
+            out.add(new CandleResponse(
+                    null,
+                    instrumentId,
+                    symbol,
+                    exchangeCode,
+                    intervalType,
+                    Instant.ofEpochSecond(start[i]),
+                    Instant.ofEpochSecond(end[i]),
+                    PriceScale.toBigDecimal(open[i]),
+                    PriceScale.toBigDecimal(high[i]),
+                    PriceScale.toBigDecimal(low[i]),
+                    PriceScale.toBigDecimal(close[i]),
+                    volume[i],
+                    null,
+                    null,
+                    null,
+                    null));
+        }
+    }
+
+    /**
+     * Passes bars with {@code afterSecondExclusive < start <= toSecond} to {@code sink} as stored.
+     */
+    void scan(long afterSecondExclusive, long toSecond, long instrumentId, IntervalType intervalType,
+              CandleMonthRepository.RowSink sink) {
+        int first = Arrays.binarySearch(start, 0, size, afterSecondExclusive);
+        first = first >= 0 ? first + 1 : -first - 1;
+        for (int i = first; i < size && start[i] <= toSecond; i++) {
+            sink.row(instrumentId, intervalType, start[i], end[i], open[i], high[i], low[i], close[i], volume[i]);
+        }
+    }
+
+    private void set(int i, long startSecond, long endSecond, long scaledOpen, long scaledHigh, long scaledLow,
+                     long scaledClose, long barVolume) {
+        start[i] = startSecond;
+        end[i] = endSecond;
+        open[i] = scaledOpen;
+        high[i] = scaledHigh;
+        low[i] = scaledLow;
+        close[i] = scaledClose;
+        volume[i] = barVolume;
+        changed = true;
+    }
+
+    private void grow(int capacity) {
+        start = Arrays.copyOf(start, capacity);
+        end = Arrays.copyOf(end, capacity);
+        open = Arrays.copyOf(open, capacity);
+        high = Arrays.copyOf(high, capacity);
+        low = Arrays.copyOf(low, capacity);
+        close = Arrays.copyOf(close, capacity);
+        volume = Arrays.copyOf(volume, capacity);
+    }
+
+    private static long readVarLong(byte[] bytes, int[] position) {
+        long value = 0;
+        int shift = 0;
+        byte b;
+        do {
+            b = bytes[position[0]++];
+            value |= (long) (b & 0x7F) << shift;
+            shift += 7;
+        } while (b < 0);
+        return value;
+    }
+
+    private static void writeVarLong(byte[] bytes, int[] position, long value) {
+        while ((value & ~0x7FL) != 0) {
+            bytes[position[0]++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        bytes[position[0]++] = (byte) value;
+    }
+
+    private static long zigzagEncode(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static long zigzagDecode(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+}
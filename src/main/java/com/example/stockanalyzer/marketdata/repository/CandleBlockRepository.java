@@ -0,0 +1,356 @@
+package com.example.stockanalyzer.marketdata.repository;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TimeZone;
+import java.util.TreeMap;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import com.example.stockanalyzer.marketdata.dto.CandleResponse;
+import com.example.stockanalyzer.marketdata.entites.IntervalType;
+import com.example.stockanalyzer.marketdata.ingestion.CandleBatch;
+
+/**
+ * {@code candle_blocks} access for the intervals listed in {@code candles.storage.block-intervals}:
+ * one row per instrument, interval and UTC day holding the day's bars as a {@link CandleBlock}.
+ * Callers read and write bars; the blocks are decoded and re-encoded here.
+ *
+ * Writes lock the touched blocks with {@code SELECT ... FOR UPDATE} in key order, merge the new
+ * bars in and write each changed block back, so the in-progress day is appended to and revised in
+ * place. Missing blocks are first created empty, so the lock is always a record lock: locking a row
+ * that does not exist takes only a gap lock, which lets two writers creating the same day deadlock
+ * (REPEATABLE READ) or overwrite each other (READ COMMITTED).
+ * Like {@link CandleBulkRepositoryImpl} they join the caller's transaction.
+ */
+@Repository
+public class CandleBlockRepository {
+
+    private static final long SECONDS_PER_DAY = 86_400L;
+
+    private static final int MAX_BLOCKS_PER_STATEMENT = 200;
+
+    private static final String INSERT_EMPTY_PREFIX = "INSERT INTO candle_blocks "
+            + "(instrument_id, interval_type, block_day, bar_count, bars, updated_at) VALUES ";
+
+    // A no-op update rather than IGNORE: it takes an exclusive lock on an existing block, where
+    // IGNORE takes a shared one that concurrent writers would then deadlock upgrading.
+    private static final String INSERT_EMPTY_SUFFIX = " ON DUPLICATE KEY UPDATE bar_count = bar_count";
+
+    private static final byte[] EMPTY_BARS = new CandleBlock(0, 0).encode();
+
+    private static final String SELECT_FOR_UPDATE_PREFIX = "SELECT instrument_id, interval_type, block_day, bars "
+            + "FROM candle_blocks WHERE (instrument_id, interval_type, block_day) IN (";
+
+    private static final String UPSERT_PREFIX = "INSERT INTO candle_blocks "
+            + "(instrument_id, interval_type, block_day, bar_count, bars, updated_at) VALUES ";
+
+    private static final String UPSERT_SUFFIX = " ON DUPLICATE KEY UPDATE "
+            + "bar_count = VALUES(bar_count), "
+            + "bars = VALUES(bars), "
+            + "updated_at = VALUES(updated_at)";
+
+    private static final String PAGE = "SELECT b.block_day, b.bars, i.symbol, e.code "
+            + "FROM candle_blocks b "
+            + "JOIN instrument i ON i.id = b.instrument_id "
+            + "JOIN exchange e ON e.id = i.exchange_id "
+            + "WHERE b.instrument_id = ? AND b.interval_type = ? AND b.block_day BETWEEN ? AND ? "
+            + "ORDER BY b.block_day";
+
+    private static final String SCAN = "SELECT block_day, bars FROM candle_blocks "
+            + "WHERE instrument_id = ? AND interval_type = ? AND block_day BETWEEN ? AND ? "
+            + "ORDER BY block_day";
+
+    private static final String SCAN_CHANGED = "SELECT block_day, bars FROM candle_blocks "
+            + "WHERE instrument_id = ? AND interval_type = ? AND block_day >= ? AND updated_at > ? "
+            + "ORDER BY block_day";
+
+    // Every block in the table, whatever candles.storage.block-intervals says now, so blocks of an
+    // interval since moved back to candles are still archived with their month.
+    private static final String SCAN_MONTH = "SELECT instrument_id, interval_type, block_day, bars FROM candle_blocks "
+            + "WHERE block_day >= ? AND block_day < ? "
+            + "ORDER BY instrument_id, interval_type, block_day";
+
+    private static final String DELETE_MONTH = "DELETE FROM candle_blocks "
+            + "WHERE block_day >= ? AND block_day < ? AND updated_at < ? LIMIT ?";
+
+    // One probe per series on the primary key, as CandleMonthRepository does for candles.
+    private static final String EARLIEST = "SELECT MIN(first_day) FROM ("
+            + "SELECT MIN(block_day) AS first_day FROM candle_blocks GROUP BY instrument_id, interval_type) firsts";
+
+    private static final int DELETE_CHUNK_BLOCKS = 1_000;
+
+    private static final Comparator<BlockKey> KEY_ORDER = Comparator.comparingLong(BlockKey::instrumentId)
+            .thenComparing(BlockKey::intervalType)
+            .thenComparingLong(BlockKey::epochDay);
+
+    private static final ThreadLocal<Calendar> UTC_CALENDAR =
+            ThreadLocal.withInitial(() -> Calendar.getInstance(TimeZone.getTimeZone("UTC")));
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Set<IntervalType> blockIntervals;
+
+    public CandleBlockRepository(
+            JdbcTemplate jdbcTemplate,
+            @Value("${candles.storage.block-intervals:}") List<IntervalType> blockIntervals) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.blockIntervals = blockIntervals.isEmpty()
+                ? EnumSet.noneOf(IntervalType.class)
+                : EnumSet.copyOf(blockIntervals);
+    }
+
+    /**
+     * Whether bars of {@code intervalType} live in {@code candle_blocks} instead of {@code candles}.
+     */
+    public boolean stores(IntervalType intervalType) {
+        return blockIntervals.contains(intervalType);
+    }
+
+    public boolean isEnabled() {
+        return !blockIntervals.isEmpty();
+    }
+
+    /**
+     * Merges the batch into its blocks. Bars already stored are kept unless {@code overwrite}.
+     *
+     * @return number of bars that were not already stored
+     */
+    public int merge(CandleBatch candles, boolean overwrite) {
+        Map<BlockKey, List<Integer>> rowsByBlock = new TreeMap<>(KEY_ORDER);
+        for (int i = 0; i < candles.size(); i++) {
+            BlockKey key = new BlockKey(
+                    candles.instrumentId(i),
+                    candles.intervalType(i),
+                    Math.floorDiv(candles.startSecond(i), SECONDS_PER_DAY));
+            rowsByBlock.computeIfAbsent(key, k -> new ArrayList<>()).add(i);
+        }
+        List<BlockKey> keys = new ArrayList<>(rowsByBlock.keySet());
+        Timestamp now = Timestamp.from(Instant.now());
+        int inserted = 0;
+        for (int from = 0; from < keys.size(); from += MAX_BLOCKS_PER_STATEMENT) {
+            List<BlockKey> chunk = keys.subList(from, Math.min(from + MAX_BLOCKS_PER_STATEMENT, keys.size()));
+            insertMissing(chunk, now);
+            Map<BlockKey, CandleBlock> blocks = lockBlocks(chunk);
+            List<BlockKey> changedKeys = new ArrayList<>(chunk.size());
+            for (BlockKey key : chunk) {
+                List<Integer> rows = rowsByBlock.get(key);
+                CandleBlock block = blocks.computeIfAbsent(key,
+                        k -> new CandleBlock(k.epochDay() * SECONDS_PER_DAY, rows.size()));
+                for (int i : rows) {
+                    if (block.put(
+                            candles.startSecond(i),
+                            candles.endSecond(i),
+                            candles.open(i),
+                            candles.high(i),
+                            candles.low(i),
+                            candles.close(i),
+                            candles.volume(i),
+                            overwrite)) {
+                        inserted++;
+                    }
+                }
+                if (block.changed()) {
+                    changedKeys.add(key);
+                }
+            }
+            writeBlocks(changedKeys, blocks, now);
+        }
+        return inserted;
+    }
+
+    /**
+     * Bars with {@code after < start <= to} in start order, at most {@code limit} of them. Each
+     * day in range is one primary-key lookup.
+     */
+    public List<CandleResponse> findPageAfter(
+            Long instrumentId, IntervalType intervalType, Instant after, Instant to, int limit) {
+        long afterSecond = after.getEpochSecond();
+        long toSecond = to.getEpochSecond();
+        List<CandleResponse> result = new ArrayList<>(Math.min(limit, 1024));
+        jdbcTemplate.query(PAGE, ps -> {
+            ps.setLong(1, instrumentId);
+            ps.setString(2, intervalType.name());
+            ps.setObject(3, LocalDate.ofEpochDay(Math.floorDiv(afterSecond, SECONDS_PER_DAY)));
+            ps.setObject(4, LocalDate.ofEpochDay(Math.floorDiv(toSecond, SECONDS_PER_DAY)));
+        }, rs -> {
+            if (result.size() < limit) {
+                long dayStart = rs.getObject(1, LocalDate.class).toEpochDay() * SECONDS_PER_DAY;
+                CandleBlock.decode(dayStart, rs.getBytes(2)).read(
+                        afterSecond, toSecond, limit, instrumentId, intervalType,
+                        rs.getString(3), rs.getString(4), result);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Streams the bars with {@code after < start <= to} to {@code sink} in start order, without
+     * building a response object per bar.
+     */
+    public void scan(long instrumentId, IntervalType intervalType, long afterSecond, long toSecond,
+                     CandleMonthRepository.RowSink sink) {
+        jdbcTemplate.query(SCAN, ps -> {
+            ps.setLong(1, instrumentId);
+            ps.setString(2, intervalType.name());
+            ps.setObject(3, LocalDate.ofEpochDay(Math.floorDiv(afterSecond, SECONDS_PER_DAY)));
+            ps.setObject(4, LocalDate.ofEpochDay(Math.floorDiv(toSecond, SECONDS_PER_DAY)));
+        }, rs -> {
+            long dayStart = rs.getObject(1, LocalDate.class).toEpochDay() * SECONDS_PER_DAY;
+            CandleBlock.decode(dayStart, rs.getBytes(2)).scan(afterSecond, toSecond, instrumentId, intervalType, sink);
+        });
+    }
+
+    /**
+     * Streams every bar with {@code after < start} of the blocks written after
+     * {@code updatedAfterSecond} to {@code sink}, in start order.
+     */
+    public void scanChangedSince(long instrumentId, IntervalType intervalType, long afterSecond,
+                                 long updatedAfterSecond, CandleMonthRepository.RowSink sink) {
+        jdbcTemplate.query(SCAN_CHANGED, ps -> {
+            ps.setLong(1, instrumentId);
+            ps.setString(2, intervalType.name());
+            ps.setObject(3, LocalDate.ofEpochDay(Math.floorDiv(afterSecond, SECONDS_PER_DAY)));
+            ps.setTimestamp(4, Timestamp.from(Instant.ofEpochSecond(updatedAfterSecond)), UTC_CALENDAR.get());
+        }, rs -> {
+            long dayStart = rs.getObject(1, LocalDate.class).toEpochDay() * SECONDS_PER_DAY;
+            CandleBlock.decode(dayStart, rs.getBytes(2))
+                    .scan(afterSecond, Long.MAX_VALUE, instrumentId, intervalType, sink);
+        });
+    }
+
+    /**
+     * Streams every bar of the blocks of {@code month} to {@code sink}, ordered by instrument,
+     * interval and start, without buffering the result set.
+     */
+    public void scanMonth(YearMonth month, CandleMonthRepository.RowSink sink) {
+        jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(
+                    SCAN_MONTH, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            ps.setFetchSize(Integer.MIN_VALUE);
+            ps.setObject(1, month.atDay(1));
+            ps.setObject(2, month.plusMonths(1).atDay(1));
+            return ps;
+        }, rs -> {
+            long epochDay = rs.getObject(3, LocalDate.class).toEpochDay();
+            CandleBlock.decode(epochDay * SECONDS_PER_DAY, rs.getBytes(4)).scan(
+                    Long.MIN_VALUE, Long.MAX_VALUE, rs.getLong(1), IntervalType.valueOf(rs.getString(2)), sink);
+        });
+    }
+
+    /**
+     * Deletes the blocks of {@code month} last written before {@code writtenBefore}, in short
+     * chunks. A block a late bar was merged into after the archive scan started survives whole.
+     *
+     * @return number of blocks deleted
+     */
+    public long deleteArchived(YearMonth month, Instant writtenBefore) {
+        Timestamp cutoff = Timestamp.from(writtenBefore);
+        long deleted = 0;
+        int chunk;
+        do {
+            chunk = jdbcTemplate.update(DELETE_MONTH, ps -> {
+                ps.setObject(1, month.atDay(1));
+                ps.setObject(2, month.plusMonths(1).atDay(1));
+                ps.setTimestamp(3, cutoff, UTC_CALENDAR.get());
+                ps.setInt(4, DELETE_CHUNK_BLOCKS);
+            });
+            deleted += chunk;
+        } while (chunk == DELETE_CHUNK_BLOCKS);
+        return deleted;
+    }
+
+    /**
+     * Month of the oldest stored block, if any.
+     */
+    public Optional<YearMonth> earliestMonth() {
+        LocalDate earliest = jdbcTemplate.query(EARLIEST,
+                rs -> rs.next() ? rs.getObject(1, LocalDate.class) : null);
+        return Optional.ofNullable(earliest).map(YearMonth::from);
+    }
+
+    private void insertMissing(List<BlockKey> keys, Timestamp now) {
+        StringBuilder sql = new StringBuilder(INSERT_EMPTY_PREFIX);
+        for (int i = 0; i < keys.size(); i++) {
+            sql.append(i == 0 ? "(?, ?, ?, 0, ?, ?)" : ", (?, ?, ?, 0, ?, ?)");
+        }
+        sql.append(INSERT_EMPTY_SUFFIX);
+        jdbcTemplate.update(sql.toString(), ps -> {
+            Calendar utc = UTC_CALENDAR.get();
+            int index = 1;
+            for (BlockKey key : keys) {
+                ps.setLong(index++, key.instrumentId());
+                ps.setString(index++, key.intervalType().name());
+                ps.setObject(index++, LocalDate.ofEpochDay(key.epochDay()));
+                ps.setBytes(index++, EMPTY_BARS);
+                ps.setTimestamp(index++, now, utc);
+            }
+        });
+    }
+
+    private Map<BlockKey, CandleBlock> lockBlocks(List<BlockKey> keys) {
+        StringBuilder sql = new StringBuilder(SELECT_FOR_UPDATE_PREFIX);
+        for (int i = 0; i < keys.size(); i++) {
+            sql.append(i == 0 ? "(?, ?, ?)" : ", (?, ?, ?)");
+        }
+        sql.append(") ORDER BY instrument_id, interval_type, block_day FOR UPDATE");
+        Map<BlockKey, CandleBlock> blocks = new HashMap<>(keys.size() * 2);
+        jdbcTemplate.query(sql.toString(), ps -> {
+            int index = 1;
+            for (BlockKey key : keys) {
+                ps.setLong(index++, key.instrumentId());
+                ps.setString(index++, key.intervalType().name());
+                ps.setObject(index++, LocalDate.ofEpochDay(key.epochDay()));
+            }
+        }, rs -> {
+            long epochDay = rs.getObject(3, LocalDate.class).toEpochDay();
+            blocks.put(
+                    new BlockKey(rs.getLong(1), IntervalType.valueOf(rs.getString(2)), epochDay),
+                    CandleBlock.decode(epochDay * SECONDS_PER_DAY, rs.getBytes(4)));
+        });
+        return blocks;
+    }
+
+    private void writeBlocks(List<BlockKey> keys, Map<BlockKey, CandleBlock> blocks, Timestamp now) {
+        if (keys.isEmpty()) {
+            return;
+        }
+        StringBuilder sql = new StringBuilder(UPSERT_PREFIX);
+        for (int i = 0; i < keys.size(); i++) {
+            sql.append(i == 0 ? "(?, ?, ?, ?, ?, ?)" : ", (?, ?, ?, ?, ?, ?)");
+        }
+        sql.append(UPSERT_SUFFIX);
+        jdbcTemplate.update(sql.toString(), ps -> bindBlocks(ps, keys, blocks, now));
+    }
+
+    private static void bindBlocks(PreparedStatement ps, List<BlockKey> keys, Map<BlockKey, CandleBlock> blocks,
+                                   Timestamp now) throws SQLException {
+        Calendar utc = UTC_CALENDAR.get();
+        int index = 1;
+        for (BlockKey key : keys) {
+            CandleBlock block = blocks.get(key);
+            ps.setLong(index++, key.instrumentId());
+            ps.setString(index++, key.intervalType().name());
+            ps.setObject(index++, LocalDate.ofEpochDay(key.epochDay()));
+            ps.setInt(index++, block.size());
+            ps.setBytes(index++, block.encode());
+            ps.setTimestamp(index++, now, utc);
+        }
+    }
+
+    private record BlockKey(long instrumentId, IntervalType intervalType, long epochDay) {
+    }
+}
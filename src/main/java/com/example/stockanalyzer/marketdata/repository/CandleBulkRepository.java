@@ -0,0 +1,24 @@
+package com.example.stockanalyzer.marketdata.repository;
+
+import com.example.stockanalyzer.marketdata.entites.Candle;
+import com.example.stockanalyzer.marketdata.ingestion.CandleBatch;
+
+/**
+ * Bulk write operations for {@link Candle} rows that bypass the per-entity JPA path.
+ */
+public interface CandleBulkRepository {
+
+    /**
+     * Inserts the given candles with multi-row {@code INSERT IGNORE} statements, skipping rows that
+     * already exist under {@code uk_candles_instrument_interval_start}.
+     *
+     * @return number of rows actually inserted
+     */
+    int insertIgnoreAll(CandleBatch candles);
+
+    /**
+     * Inserts the given candles, overwriting OHLCV of rows that already exist. Used for bars that
+     * are still being revised, such as locally rolled-up intervals.
+     */
+    void upsertAll(CandleBatch candles);
+}
@@ -0,0 +1,166 @@
+package com.example.stockanalyzer.marketdata.repository;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.Calendar;
+import java.util.TimeZone;
+import org.springframework.jdbc.core.JdbcTemplate;
+import com.example.stockanalyzer.marketdata.ingestion.CandleBatch;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * JDBC implementation of {@link CandleBulkRepository}.
+ *
+ * IDENTITY ids disable Hibernate JDBC batching, so candles are written as multi-row statements
+ * instead. {@code INSERT IGNORE} reports only the inserted rows as affected, which keeps the
+ * "new candles" count exact regardless of the driver's found-rows setting.
+ *
+ * Rows are bound from {@link CandleBatch} primitives: timestamps as epoch seconds added to the
+ * UTC epoch in SQL (matching Hibernate's TIMESTAMP_UTC storage without a session time zone
+ * conversion) and prices as {@code PriceScale} longs multiplied by {@code 0.0001}, which is exact
+ * DECIMAL arithmetic. No {@code Timestamp} or {@code BigDecimal} is allocated per row.
+ *
+ * Bars of the intervals kept in {@code candle_blocks} are split off and merged into their blocks
+ * by {@link CandleBlockRepository} instead.
+ */
+@RequiredArgsConstructor
+public class CandleBulkRepositoryImpl implements CandleBulkRepository {
+
+    static final int MAX_ROWS_PER_STATEMENT = 500;
+
+    private static final String COLUMNS = "candles ("
+            + "instrument_id, interval_type, candle_start, candle_end, "
+            + "open_price, high_price, low_price, close_price, "
+            + "volume, trade_count, vwap, created_at, updated_at) VALUES ";
+
+    private static final String INSERT_IGNORE_PREFIX = "INSERT IGNORE INTO " + COLUMNS;
+
+    private static final String UPSERT_PREFIX = "INSERT INTO " + COLUMNS;
+
+    private static final String UPSERT_SUFFIX = " ON DUPLICATE KEY UPDATE "
+            + "candle_end = VALUES(candle_end), "
+            + "open_price = VALUES(open_price), "
+            + "high_price = VALUES(high_price), "
+            + "low_price = VALUES(low_price), "
+            + "close_price = VALUES(close_price), "
+            + "volume = VALUES(volume), "
+            + "trade_count = VALUES(trade_count), "
+            + "vwap = VALUES(vwap), "
+            + "updated_at = VALUES(updated_at)";
+
+    private static final String EPOCH_SECONDS = "TIMESTAMPADD(SECOND, ?, TIMESTAMP '1970-01-01 00:00:00')";
+
+    private static final String SCALED_PRICE = "? * 0.0001";
+
+    private static final String ROW_PLACEHOLDERS = "(?, ?, "
+            + EPOCH_SECONDS + ", " + EPOCH_SECONDS + ", "
+            + SCALED_PRICE + ", " + SCALED_PRICE + ", " + SCALED_PRICE + ", " + SCALED_PRICE + ", "
+            + "?, NULL, NULL, ?, ?)";
+
+    private static final String FULL_INSERT_IGNORE = statementSql(INSERT_IGNORE_PREFIX, MAX_ROWS_PER_STATEMENT, "");
+
+    private static final String FULL_UPSERT = statementSql(UPSERT_PREFIX, MAX_ROWS_PER_STATEMENT, UPSERT_SUFFIX);
+
+    // Audit columns keep Hibernate's default Instant binding (TIMESTAMP_UTC) so both write paths agree.
+    private static final ThreadLocal<Calendar> UTC_CALENDAR =
+            ThreadLocal.withInitial(() -> Calendar.getInstance(TimeZone.getTimeZone("UTC")));
+
+    private final JdbcTemplate jdbcTemplate;
+    private final CandleBlockRepository candleBlockRepository;
+
+    @Override
+    public int insertIgnoreAll(CandleBatch candles) {
+        if (!candleBlockRepository.isEnabled()) {
+            return insertIgnoreRows(candles);
+        }
+        CandleBatch rows = new CandleBatch(candles.size());
+        CandleBatch blocks = new CandleBatch(candles.size());
+        split(candles, rows, blocks);
+        return insertIgnoreRows(rows) + (blocks.isEmpty() ? 0 : candleBlockRepository.merge(blocks, false));
+    }
+
+    @Override
+    public void upsertAll(CandleBatch candles) {
+        if (!candleBlockRepository.isEnabled()) {
+            upsertRows(candles);
+            return;
+        }
+        CandleBatch rows = new CandleBatch(candles.size());
+        CandleBatch blocks = new CandleBatch(candles.size());
+        split(candles, rows, blocks);
+        upsertRows(rows);
+        if (!blocks.isEmpty()) {
+            candleBlockRepository.merge(blocks, true);
+        }
+    }
+
+    private int insertIgnoreRows(CandleBatch candles) {
+        if (candles.isEmpty()) {
+            return 0;
+        }
+        Timestamp now = Timestamp.from(Instant.now());
+        int inserted = 0;
+
+        for (int start = 0; start < candles.size(); start += MAX_ROWS_PER_STATEMENT) {
+            int from = start;
+            int to = Math.min(start + MAX_ROWS_PER_STATEMENT, candles.size());
+            String sql = to - from == MAX_ROWS_PER_STATEMENT
+                    ? FULL_INSERT_IGNORE
+                    : statementSql(INSERT_IGNORE_PREFIX, to - from, "");
+            inserted += jdbcTemplate.update(sql, ps -> bindRows(ps, candles, from, to, now));
+        }
+        return inserted;
+    }
+
+    private void upsertRows(CandleBatch candles) {
+        Timestamp now = Timestamp.from(Instant.now());
+        for (int start = 0; start < candles.size(); start += MAX_ROWS_PER_STATEMENT) {
+            int from = start;
+            int to = Math.min(start + MAX_ROWS_PER_STATEMENT, candles.size());
+            String sql = to - from == MAX_ROWS_PER_STATEMENT
+                    ? FULL_UPSERT
+                    : statementSql(UPSERT_PREFIX, to - from, UPSERT_SUFFIX);
+            jdbcTemplate.update(sql, ps -> bindRows(ps, candles, from, to, now));
+        }
+    }
+
+    private void split(CandleBatch candles, CandleBatch rows, CandleBatch blocks) {
+        for (int i = 0; i < candles.size(); i++) {
+            (candleBlockRepository.stores(candles.intervalType(i)) ? blocks : rows).add(candles, i);
+        }
+    }
+
+    private static void bindRows(PreparedStatement ps, CandleBatch candles, int from, int to, Timestamp now)
+            throws SQLException {
+        Calendar utc = UTC_CALENDAR.get();
+        int index = 1;
+        for (int i = from; i < to; i++) {
+            ps.setLong(index++, candles.instrumentId(i));
+            ps.setString(index++, candles.intervalType(i).name());
+            ps.setLong(index++, candles.startSecond(i));
+            ps.setLong(index++, candles.endSecond(i));
+            ps.setLong(index++, candles.open(i));
+            ps.setLong(index++, candles.high(i));
+            ps.setLong(index++, candles.low(i));
+            ps.setLong(index++, candles.close(i));
+            ps.setLong(index++, candles.volume(i));
+            ps.setTimestamp(index++, now, utc);
+            ps.setTimestamp(index++, now, utc);
+        }
+    }
+
+    private static String statementSql(String prefix, int rows, String suffix) {
+        StringBuilder sql = new StringBuilder(prefix.length() + rows * (ROW_PLACEHOLDERS.length() + 2) + suffix.length());
+        sql.append(prefix);
+        for (int i = 0; i < rows; i++) {
+            if (i > 0) {
+                sql.append(", ");
+            }
+            sql.append(ROW_PLACEHOLDERS);
+        }
+        sql.append(suffix);
+        return sql.toString();
+    }
+}
@@ -0,0 +1,124 @@
+package com.example.stockanalyzer.marketdata.repository;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.Calendar;
+import java.util.Optional;
+import java.util.TimeZone;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import com.example.stockanalyzer.marketdata.entites.IntervalType;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Whole-month scans and deletes of {@code candles} for the file archive. Every statement bounds
+ * {@code candle_start} to one UTC month, so it prunes to that month's partition.
+ *
+ * Rows are read the way {@link CandleBulkRepositoryImpl} writes them: epoch seconds and
+ * {@code PriceScale} longs computed in SQL, so a month streams without a {@code Timestamp} or
+ * {@code BigDecimal} per row.
+ */
+@Repository
+@RequiredArgsConstructor
+public class CandleMonthRepository {
+
+    private static final String EPOCH = "TIMESTAMP '1970-01-01 00:00:00'";
+
+    private static final String MONTH_RANGE = "candle_start >= TIMESTAMPADD(SECOND, ?, " + EPOCH + ") "
+            + "AND candle_start < TIMESTAMPADD(SECOND, ?, " + EPOCH + ")";
+
+    private static final String SCAN = "SELECT instrument_id, interval_type, "
+            + "TIMESTAMPDIFF(SECOND, " + EPOCH + ", candle_start), "
+            + "TIMESTAMPDIFF(SECOND, " + EPOCH + ", candle_end), "
+            + "CAST(open_price * 10000 AS SIGNED), CAST(high_price * 10000 AS SIGNED), "
+            + "CAST(low_price * 10000 AS SIGNED), CAST(close_price * 10000 AS SIGNED), volume "
+            + "FROM candles WHERE " + MONTH_RANGE + " "
+            + "ORDER BY instrument_id, interval_type, candle_start";
+
+    private static final String DELETE = "DELETE FROM candles WHERE " + MONTH_RANGE + " AND updated_at < ? LIMIT ?";
+
+    // Loose index scan over uk_candles_instrument_interval_start: one probe per series and partition.
+    private static final String EARLIEST = "SELECT MIN(first_start) FROM ("
+            + "SELECT MIN(candle_start) AS first_start FROM candles GROUP BY instrument_id, interval_type) firsts";
+
+    private static final int DELETE_CHUNK_ROWS = 10_000;
+
+    private static final ThreadLocal<Calendar> UTC_CALENDAR =
+            ThreadLocal.withInitial(() -> Calendar.getInstance(TimeZone.getTimeZone("UTC")));
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Receives one stored candle; rows arrive ordered by instrument, interval and start.
+     */
+    @FunctionalInterface
+    public interface RowSink {
+        void row(long instrumentId, IntervalType intervalType, long startSecond, long endSecond,
+                 long open, long high, long low, long close, long volume);
+    }
+
+    /**
+     * Streams every candle of {@code month} to {@code sink} without buffering the result set.
+     */
+    public void scan(YearMonth month, RowSink sink) {
+        jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(SCAN, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            // Connector/J streams row by row only with this sentinel fetch size.
+            ps.setFetchSize(Integer.MIN_VALUE);
+            bindMonth(ps, month, 1);
+            return ps;
+        }, rs -> {
+            sink.row(
+                    rs.getLong(1),
+                    IntervalType.valueOf(rs.getString(2)),
+                    rs.getLong(3),
+                    rs.getLong(4),
+                    rs.getLong(5),
+                    rs.getLong(6),
+                    rs.getLong(7),
+                    rs.getLong(8),
+                    rs.getLong(9));
+        });
+    }
+
+    /**
+     * Deletes the month's rows last written before {@code writtenBefore}, in short chunks so no
+     * statement holds locks on the whole month. Rows inserted or upserted after the archive scan
+     * started survive and keep being served from the table.
+     *
+     * @return number of rows deleted
+     */
+    public long deleteArchived(YearMonth month, Instant writtenBefore) {
+        Timestamp cutoff = Timestamp.from(writtenBefore);
+        long deleted = 0;
+        int chunk;
+        do {
+            chunk = jdbcTemplate.update(DELETE, ps -> {
+                bindMonth(ps, month, 1);
+                ps.setTimestamp(3, cutoff, UTC_CALENDAR.get());
+                ps.setInt(4, DELETE_CHUNK_ROWS);
+            });
+            deleted += chunk;
+        } while (chunk == DELETE_CHUNK_ROWS);
+        return deleted;
+    }
+
+    /**
+     * Month of the oldest stored candle, if any.
+     */
+    public Optional<YearMonth> earliestMonth() {
+        Timestamp earliest = jdbcTemplate.query(EARLIEST,
+                rs -> rs.next() ? rs.getTimestamp(1, UTC_CALENDAR.get()) : null);
+        return Optional.ofNullable(earliest)
+                .map(value -> YearMonth.from(value.toInstant().atOffset(ZoneOffset.UTC)));
+    }
+
+    private static void bindMonth(PreparedStatement ps, YearMonth month, int firstIndex) throws java.sql.SQLException {
+        ps.setLong(firstIndex, month.atDay(1).atStartOfDay().toEpochSecond(ZoneOffset.UTC));
+        ps.setLong(firstIndex + 1, month.plusMonths(1).atDay(1).atStartOfDay().toEpochSecond(ZoneOffset.UTC));
+    }
+}
@@ -0,0 +1,91 @@
+package com.example.stockanalyzer.marketdata.repository;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Optional;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * DDL access to the RANGE COLUMNS partitions of {@code candles} (see
+ * {@code V9__partition_candles.sql}). Monthly partitions are named {@code pYYYYMM} and hold
+ * {@code candle_start} in that UTC month; {@code p_future} catches everything beyond the last one.
+ */
+@Repository
+@RequiredArgsConstructor
+public class CandlePartitionRepository {
+
+    private static final String FUTURE_PARTITION = "p_future";
+
+    private static final DateTimeFormatter PARTITION_NAME = DateTimeFormatter.ofPattern("'p'yyyyMM");
+
+    private static final String LAST_BOUNDARY = "SELECT PARTITION_DESCRIPTION FROM information_schema.PARTITIONS "
+            + "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'candles' "
+            + "AND PARTITION_NAME IS NOT NULL AND PARTITION_NAME <> '" + FUTURE_PARTITION + "' "
+            + "ORDER BY PARTITION_ORDINAL_POSITION DESC LIMIT 1";
+
+    private static final String FUTURE_ROWS = "SELECT COUNT(*) FROM candles PARTITION (" + FUTURE_PARTITION + ")";
+
+    private static final String PARTITION_EXISTS = "SELECT COUNT(*) FROM information_schema.PARTITIONS "
+            + "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'candles' AND PARTITION_NAME = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Exclusive upper bound of the last bounded partition, i.e. the first day {@code p_future}
+     * would receive; empty when the table is not partitioned.
+     */
+    public Optional<LocalDate> lastBoundary() {
+        List<String> descriptions = jdbcTemplate.queryForList(LAST_BOUNDARY, String.class);
+        if (descriptions.isEmpty() || descriptions.get(0) == null) {
+            return Optional.empty();
+        }
+        // RANGE COLUMNS descriptions are quoted literals such as '2027-01-01 00:00:00'
+        String literal = descriptions.get(0).replace("'", "").trim();
+        return Optional.of(LocalDate.parse(literal.substring(0, 10)));
+    }
+
+    public boolean futurePartitionEmpty() {
+        Long rows = jdbcTemplate.queryForObject(FUTURE_ROWS, Long.class);
+        return rows == null || rows == 0;
+    }
+
+    /**
+     * Splits {@code p_future} into one partition per month followed by a new {@code p_future}.
+     * Months must be consecutive and start at {@link #lastBoundary()}. While {@code p_future} is
+     * empty this only rewrites metadata.
+     */
+    public void addMonthlyPartitions(List<YearMonth> months) {
+        if (months.isEmpty()) {
+            return;
+        }
+        StringBuilder sql = new StringBuilder("ALTER TABLE candles REORGANIZE PARTITION ")
+                .append(FUTURE_PARTITION)
+                .append(" INTO (");
+        for (YearMonth month : months) {
+            sql.append("PARTITION ").append(PARTITION_NAME.format(month))
+                    .append(" VALUES LESS THAN ('").append(month.plusMonths(1).atDay(1)).append(" 00:00:00'), ");
+        }
+        sql.append("PARTITION ").append(FUTURE_PARTITION).append(" VALUES LESS THAN (MAXVALUE))");
+        jdbcTemplate.execute(sql.toString());
+    }
+
+    /**
+     * Rebuilds the month's own partition to give back the space of rows deleted from it. Months
+     * inside the yearly or history partitions are left alone; InnoDB reuses their free pages.
+     *
+     * @return whether a monthly partition existed and was rebuilt
+     */
+    public boolean rebuildMonthlyPartition(YearMonth month) {
+        String name = PARTITION_NAME.format(month);
+        Long matches = jdbcTemplate.queryForObject(PARTITION_EXISTS, Long.class, name);
+        if (matches == null || matches == 0) {
+            return false;
+        }
+        jdbcTemplate.execute("ALTER TABLE candles REBUILD PARTITION " + name);
+        return true;
+    }
+}
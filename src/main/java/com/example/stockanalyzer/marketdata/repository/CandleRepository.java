@@ -3,11 +3,20 @@ package com.example.stockanalyzer.marketdata.repository;
 import java.time.Instant;
 import java.util.List;
 import java.util.Optional;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import com.example.stockanalyzer.marketdata.dto.CandleResponse;
 import com.example.stockanalyzer.marketdata.entites.Candle;
 import com.example.stockanalyzer.marketdata.entites.IntervalType;
 
-public interface CandleRepository extends JpaRepository<Candle, Long> {
+/**
+ * {@code candles} is RANGE partitioned by month on {@code candle_start}; every query here
+ * constrains {@code candleStart} so MySQL prunes to the partitions in range. Lookups by {@code id}
+ * alone (e.g. {@code findById}) probe every partition and are not used on hot paths.
+ */
+public interface CandleRepository extends JpaRepository<Candle, Long>, CandleBulkRepository {
 
     Optional<Candle> findByInstrumentIdAndIntervalTypeAndCandleStart(
             Long instrumentId,
@@ -19,4 +28,25 @@ public interface CandleRepository extends JpaRepository<Candle, Long> {
             IntervalType intervalType,
             Instant from,
             Instant to);
+
+    /**
+     * One keyset page of candles with {@code after < candleStart <= to}, projected straight into
+     * {@link CandleResponse} so no entity graph is built and no lazy association is touched.
+     */
+    @Query("SELECT new com.example.stockanalyzer.marketdata.dto.CandleResponse("
+            + "c.id, i.id, i.symbol, e.code, c.intervalType, c.candleStart, c.candleEnd, "
+            + "c.openPrice, c.highPrice, c.lowPrice, c.closePrice, c.volume, c.tradeCount, c.vwap, "
+            + "c.createdAt, c.updatedAt) "
+            + "FROM Candle c JOIN c.instrument i JOIN i.exchange e "
+            + "WHERE c.instrument.id = :instrumentId "
+            + "AND c.intervalType = :intervalType "
+            + "AND c.candleStart > :after "
+            + "AND c.candleStart <= :to "
+            + "ORDER BY c.candleStart ASC")
+    List<CandleResponse> findPageAfter(
+            @Param("instrumentId") Long instrumentId,
+            @Param("intervalType") IntervalType intervalType,
+            @Param("after") Instant after,
+            @Param("to") Instant to,
+            Limit limit);
 }
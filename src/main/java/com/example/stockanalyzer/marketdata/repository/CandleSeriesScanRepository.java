@@ -0,0 +1,86 @@
+package com.example.stockanalyzer.marketdata.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import com.example.stockanalyzer.marketdata.entites.IntervalType;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Primitive range reads of one series, for callers that aggregate stored bars rather than return
+ * them. Bars come from {@code candle_blocks} for the intervals kept there and from {@code candles}
+ * otherwise, read as in {@link CandleMonthRepository}: epoch seconds and {@code PriceScale} longs
+ * computed in SQL, with no entity, {@code Timestamp} or {@code BigDecimal} per row.
+ */
+@Repository
+@RequiredArgsConstructor
+public class CandleSeriesScanRepository {
+
+    private static final String EPOCH = "TIMESTAMP '1970-01-01 00:00:00'";
+
+    private static final String SELECT = "SELECT "
+            + "TIMESTAMPDIFF(SECOND, " + EPOCH + ", candle_start), "
+            + "TIMESTAMPDIFF(SECOND, " + EPOCH + ", candle_end), "
+            + "CAST(open_price * 10000 AS SIGNED), CAST(high_price * 10000 AS SIGNED), "
+            + "CAST(low_price * 10000 AS SIGNED), CAST(close_price * 10000 AS SIGNED), volume "
+            + "FROM candles WHERE instrument_id = ? AND interval_type = ? "
+            + "AND candle_start > TIMESTAMPADD(SECOND, ?, " + EPOCH + ") ";
+
+    private static final String SCAN = SELECT
+            + "AND candle_start <= TIMESTAMPADD(SECOND, ?, " + EPOCH + ") "
+            + "ORDER BY candle_start";
+
+    private static final String SCAN_CHANGED = SELECT
+            + "AND updated_at > TIMESTAMPADD(SECOND, ?, " + EPOCH + ") "
+            + "ORDER BY candle_start";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final CandleBlockRepository candleBlockRepository;
+
+    /**
+     * Streams the bars of the series with {@code afterSecond < start <= toSecond} to {@code sink}
+     * in start order.
+     */
+    public void scan(long instrumentId, IntervalType intervalType, long afterSecond, long toSecond,
+                     CandleMonthRepository.RowSink sink) {
+        if (candleBlockRepository.stores(intervalType)) {
+            candleBlockRepository.scan(instrumentId, intervalType, afterSecond, toSecond, sink);
+            return;
+        }
+        query(SCAN, instrumentId, intervalType, afterSecond, toSecond, sink);
+    }
+
+    /**
+     * Streams the bars of the series with {@code afterSecond < start} that were written after
+     * {@code updatedAfterSecond}, in start order. For block intervals every bar of a changed day
+     * is streamed.
+     */
+    public void scanChangedSince(long instrumentId, IntervalType intervalType, long afterSecond,
+                                 long updatedAfterSecond, CandleMonthRepository.RowSink sink) {
+        if (candleBlockRepository.stores(intervalType)) {
+            candleBlockRepository.scanChangedSince(instrumentId, intervalType, afterSecond, updatedAfterSecond, sink);
+            return;
+        }
+        query(SCAN_CHANGED, instrumentId, intervalType, afterSecond, updatedAfterSecond, sink);
+    }
+
+    private void query(String sql, long instrumentId, IntervalType intervalType, long afterSecond, long bound,
+                       CandleMonthRepository.RowSink sink) {
+        jdbcTemplate.query(sql, ps -> {
+            ps.setLong(1, instrumentId);
+            ps.setString(2, intervalType.name());
+            ps.setLong(3, afterSecond);
+            ps.setLong(4, bound);
+        }, rs -> {
+            sink.row(
+                    instrumentId,
+                    intervalType,
+                    rs.getLong(1),
+                    rs.getLong(2),
+                    rs.getLong(3),
+                    rs.getLong(4),
+                    rs.getLong(5),
+                    rs.getLong(6),
+                    rs.getLong(7));
+        });
+    }
+}
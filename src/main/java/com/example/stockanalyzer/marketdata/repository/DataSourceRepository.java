@@ -18,4 +18,9 @@ public interface DataSourceRepository extends JpaRepository<DataSource, Long> {
      * Find active data sources ordered by priority (ascending - lower number = higher priority)
      */
     List<DataSource> findByIsActiveTrueOrderByPriorityAsc();
+
+    /**
+     * Find active data sources that ingest live ticks over a streaming connection
+     */
+    List<DataSource> findByIsActiveTrueAndStreamingEnabledTrue();
 }
@@ -0,0 +1,28 @@
+package com.example.stockanalyzer.marketdata.repository;
+
+import java.time.Instant;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import com.example.stockanalyzer.marketdata.entites.IngestionWatermark;
+
+public interface IngestionWatermarkRepository extends JpaRepository<IngestionWatermark, Long> {
+
+    /**
+     * Inserts or moves the watermark forward; never moves it backwards.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO ingestion_watermark "
+            + "(instrument_id, interval_type, last_candle_start, created_at, updated_at) "
+            + "VALUES (:instrumentId, :intervalType, :lastCandleStart, :now, :now) "
+            + "ON DUPLICATE KEY UPDATE "
+            + "last_candle_start = GREATEST(last_candle_start, VALUES(last_candle_start)), "
+            + "updated_at = VALUES(updated_at)",
+            nativeQuery = true)
+    int advance(
+            @Param("instrumentId") Long instrumentId,
+            @Param("intervalType") String intervalType,
+            @Param("lastCandleStart") Instant lastCandleStart,
+            @Param("now") Instant now);
+}
@@ -0,0 +1,33 @@
+package com.example.stockanalyzer.marketdata.scheduler;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import com.example.stockanalyzer.marketdata.archive.CandleArchiveService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "archive.schedule.enabled", havingValue = "true")
+public class CandleArchiveScheduler {
+
+    private final CandleArchiveService candleArchiveService;
+
+    /*
+        Moves months older than archive.keep-months out of candles once a month, after the
+        partition maintenance of the same night.
+    */
+    @Scheduled(cron = "${archive.cron:0 30 3 2 * *}", zone = "UTC")
+    public void archiveDueMonths() {
+        try {
+            int archived = candleArchiveService.archiveDueMonths().size();
+            if (archived > 0) {
+                log.info("Archived {} months of candles", archived);
+            }
+        } catch (Exception e) {
+            log.error("Candle archive run failed", e);
+        }
+    }
+}
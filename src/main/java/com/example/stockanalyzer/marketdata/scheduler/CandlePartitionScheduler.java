@@ -0,0 +1,68 @@
+package com.example.stockanalyzer.marketdata.scheduler;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import com.example.stockanalyzer.marketdata.repository.CandlePartitionRepository;
+import lombok.extern.slf4j.Slf4j;
+
+@Slf4j
+@Component
+public class CandlePartitionScheduler {
+
+    private final CandlePartitionRepository partitionRepository;
+    private final boolean enabled;
+    private final int monthsAhead;
+
+    public CandlePartitionScheduler(
+            CandlePartitionRepository partitionRepository,
+            @Value("${candles.partitions.enabled:true}") boolean enabled,
+            @Value("${candles.partitions.months-ahead:3}") int monthsAhead) {
+        this.partitionRepository = partitionRepository;
+        this.enabled = enabled;
+        this.monthsAhead = monthsAhead;
+    }
+
+    /*
+        Keeps monthly candles partitions created months-ahead past the current UTC month, so p_future
+        never receives rows and splitting it stays a metadata-only change. Runs on startup and daily.
+    */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${candles.partitions.maintenance-cron:0 15 2 * * *}", zone = "UTC")
+    public void ensureFuturePartitions() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            Optional<LocalDate> lastBoundary = partitionRepository.lastBoundary();
+            if (lastBoundary.isEmpty()) {
+                log.warn("candles is not partitioned; skipping partition maintenance");
+                return;
+            }
+            YearMonth next = YearMonth.from(lastBoundary.get());
+            YearMonth through = YearMonth.now(ZoneOffset.UTC).plusMonths(monthsAhead);
+            List<YearMonth> months = new ArrayList<>();
+            for (YearMonth month = next; !month.isAfter(through); month = month.plusMonths(1)) {
+                months.add(month);
+            }
+            if (months.isEmpty()) {
+                return;
+            }
+            if (!partitionRepository.futurePartitionEmpty()) {
+                log.warn("candles p_future already holds rows; splitting it will copy them");
+            }
+            partitionRepository.addMonthlyPartitions(months);
+            log.info("Added candles partitions {} to {}", months.get(0), months.get(months.size() - 1));
+        } catch (Exception e) {
+            log.error("Candle partition maintenance failed", e);
+        }
+    }
+}
@@ -1,29 +1,54 @@
 package com.example.stockanalyzer.marketdata.scheduler;
 
+import java.time.Duration;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
+import com.example.stockanalyzer.marketdata.aggregation.CandleRollupService;
 import com.example.stockanalyzer.marketdata.entites.IntervalType;
+import com.example.stockanalyzer.marketdata.metrics.MarketDataMetrics;
 import com.example.stockanalyzer.marketdata.service.CandleIngestionService;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
 @Slf4j
 @Component
-@RequiredArgsConstructor
 public class IntradayCandleIngestionScheduler {
 
     private final CandleIngestionService candleIngestionService;
+    private final CandleRollupService candleRollupService;
+    private final MarketDataMetrics metrics;
+    private final Duration cycleWindow;
 
+    public IntradayCandleIngestionScheduler(
+            CandleIngestionService candleIngestionService,
+            CandleRollupService candleRollupService,
+            MarketDataMetrics metrics,
+            @Value("${kite.scheduler.intraday-window-ms:300000}") long cycleWindowMillis) {
+        this.candleIngestionService = candleIngestionService;
+        this.candleRollupService = candleRollupService;
+        this.metrics = metrics;
+        this.cycleWindow = Duration.ofMillis(cycleWindowMillis);
+    }
 
     /*
-        This Scheduler is called to fetch the Intraday candle stick 
+        This Scheduler is called to fetch the Intraday candle stick.
+        With rollup enabled only one-minute bars are fetched; higher intervals are derived locally.
+        A cycle longer than intraday-window-ms (the cron period) is counted as an overrun.
     */
     @Scheduled(cron = "${kite.scheduler.intraday-cron:0 */5 9-15 * * MON-FRI}", zone = "Asia/Kolkata")
     public void fetchIntradayCandles() {
+        IntervalType intervalType = candleRollupService.isEnabled()
+                ? IntervalType.ONE_MINUTE
+                : IntervalType.FIVE_MINUTE;
+        long started = System.nanoTime();
+        boolean succeeded = false;
         try {
-            candleIngestionService.fetchAndSaveForActiveInstruments(IntervalType.FIVE_MINUTE);
+            candleIngestionService.fetchAndSaveForActiveInstruments(intervalType);
+            succeeded = true;
         } catch (Exception e) {
             log.error("Intraday candle ingestion failed", e);
+        } finally {
+            metrics.recordCycle(intervalType, Duration.ofNanos(System.nanoTime() - started), cycleWindow, succeeded);
         }
     }
 }
@@ -0,0 +1,8 @@
+package com.example.stockanalyzer.marketdata.service;
+
+/**
+ * Published by {@link BrokerSessionServiceImpl} when a data source's broker session is stored as
+ * active or expired, so in-memory session state can follow without polling the database.
+ */
+public record BrokerSessionChangedEvent(Long dataSourceId, boolean active) {
+}
@@ -11,4 +11,10 @@ public interface BrokerSessionService {
     Optional<BrokerSession> findActiveSession(DataSource dataSource);
 
     void expireSession(DataSource dataSource);
+
+    /**
+     * Expires the active session only if it still carries {@code accessToken}; returns false when
+     * a newer session has already replaced it.
+     */
+    boolean expireSession(DataSource dataSource, String accessToken);
 }
@@ -2,6 +2,7 @@ package com.example.stockanalyzer.marketdata.service;
 
 import java.util.Optional;
 
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -17,10 +18,15 @@ import lombok.RequiredArgsConstructor;
 public class BrokerSessionServiceImpl implements BrokerSessionService {
 
     private final BrokerSessionRepository brokerSessionRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     public BrokerSession save(BrokerSession brokerSession) {
-        return brokerSessionRepository.save(brokerSession);
+        BrokerSession saved = brokerSessionRepository.save(brokerSession);
+        if (saved.getStatus() == BrokerSessionStatus.ACTIVE) {
+            eventPublisher.publishEvent(new BrokerSessionChangedEvent(saved.getDataSource().getId(), true));
+        }
+        return saved;
     }
 
     @Override
@@ -37,5 +43,19 @@ public class BrokerSessionServiceImpl implements BrokerSessionService {
             session.setStatus(BrokerSessionStatus.EXPIRED);
             brokerSessionRepository.save(session);
         });
+        eventPublisher.publishEvent(new BrokerSessionChangedEvent(dataSource.getId(), false));
+    }
+
+    @Override
+    @Transactional
+    public boolean expireSession(DataSource dataSource, String accessToken) {
+        Optional<BrokerSession> active = findActiveSession(dataSource)
+                .filter(session -> accessToken.equals(session.getAccessToken()));
+        active.ifPresent(session -> {
+            session.setStatus(BrokerSessionStatus.EXPIRED);
+            brokerSessionRepository.save(session);
+            eventPublisher.publishEvent(new BrokerSessionChangedEvent(dataSource.getId(), false));
+        });
+        return active.isPresent();
     }
 }
@@ -1,23 +1,35 @@
 package com.example.stockanalyzer.marketdata.service;
 
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.List;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 import com.example.stockanalyzer.marketdata.dto.FetchCandlesRequest;
 import com.example.stockanalyzer.marketdata.entites.Candle;
 import com.example.stockanalyzer.marketdata.entites.DataSource;
 import com.example.stockanalyzer.marketdata.entites.Instrument;
 import com.example.stockanalyzer.marketdata.entites.IntervalType;
 import com.example.stockanalyzer.marketdata.exception.MarketDataException;
+import com.example.stockanalyzer.marketdata.ingestion.CandleBatch;
+import com.example.stockanalyzer.marketdata.ingestion.CandleBatchPersister;
+import com.example.stockanalyzer.marketdata.ingestion.CandleIngestionPipeline;
+import com.example.stockanalyzer.marketdata.ingestion.CandleJournal;
+import com.example.stockanalyzer.marketdata.ingestion.IngestionCycleResult;
+import com.example.stockanalyzer.marketdata.ingestion.IngestionWatermarkService;
+import com.example.stockanalyzer.marketdata.ingestion.ProviderSource;
+import com.example.stockanalyzer.marketdata.metrics.MarketDataMetrics;
 import com.example.stockanalyzer.marketdata.provider.MarketDataProvider;
 import com.example.stockanalyzer.marketdata.provider.MarketDataProviderRegistry;
-import com.example.stockanalyzer.marketdata.repository.CandleRepository;
 import com.example.stockanalyzer.marketdata.repository.DataSourceRepository;
 import com.example.stockanalyzer.marketdata.repository.InstrumentRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
+/**
+ * Entry point for candle ingestion. Provider calls run outside any transaction; candles are
+ * committed in short per-batch transactions by {@link CandleBatchPersister}, or appended to the
+ * {@link CandleJournal} when it is enabled and replayed into the database from there.
+ */
 @Slf4j
 @Service
 @RequiredArgsConstructor
@@ -25,10 +37,16 @@ public class CandleIngestionService {
 
     private final DataSourceRepository dataSourceRepository;
     private final InstrumentRepository instrumentRepository;
-    private final CandleRepository candleRepository;
     private final MarketDataProviderRegistry providerRegistry;
+    private final CandleIngestionPipeline ingestionPipeline;
+    private final CandleBatchPersister candleBatchPersister;
+    private final CandleJournal candleJournal;
+    private final IngestionWatermarkService watermarkService;
+    private final MarketDataMetrics metrics;
 
-    @Transactional
+    /**
+     * @return number of new candles stored, or 0 when they were journaled for later replay
+     */
     public int fetchAndSave(FetchCandlesRequest request) {
         DataSource dataSource = dataSourceRepository.findById(request.getDataSourceId())
                 .orElseThrow(() -> new MarketDataException("Data source not found: " + request.getDataSourceId()));
@@ -36,48 +54,60 @@ public class CandleIngestionService {
                 .orElseThrow(() -> new MarketDataException("Instrument not found: " + request.getInstrumentId()));
 
         MarketDataProvider provider = providerRegistry.resolve(dataSource);
-        List<Candle> candles = provider.fetchCandles(dataSource, instrument, request);
-        return saveNewCandles(candles);
+        IntervalType intervalType = request.intervalTypeOrDefault();
+        long closedBy = Instant.now().getEpochSecond();
+        List<Candle> candles = metrics.timeFetch(provider.getProviderName(), instrument, request,
+                () -> provider.fetchCandles(dataSource, instrument, request), List::size);
+        CandleBatch batch = CandleBatch.of(candles);
+        batch.retainClosed(closedBy);
+        if (candleJournal.isEnabled()) {
+            candleJournal.append(batch);
+            watermarkService.publishJournaled(batch);
+            metrics.recordIngested(intervalType, candles.size(), 0);
+            return 0;
+        }
+        int inserted = candleBatchPersister.persist(batch);
+        metrics.recordIngested(intervalType, candles.size(), inserted);
+        return inserted;
     }
 
-    @Transactional
     public int fetchAndSaveForActiveInstruments(IntervalType intervalType) {
-        DataSource dataSource = dataSourceRepository.findByIsActiveTrueOrderByPriorityAsc().stream()
-                .findFirst()
-                .orElseThrow(() -> new MarketDataException("No active data source configured"));
-        MarketDataProvider provider = providerRegistry.resolve(dataSource);
+        List<ProviderSource> sources = activeSources();
+        if (sources.isEmpty()) {
+            throw new MarketDataException("No active data source configured");
+        }
 
-        Instant to = Instant.now();
-        Instant from = to.minusSeconds(intervalType.getMinutes() * 60L * 3L);
-        int saved = 0;
+        // A null start makes every instrument resume from its own watermark.
+        IngestionCycleResult result = ingestionPipeline.run(
+                sources,
+                instrumentRepository.findByIsActiveTrueAndKiteInstrumentTokenIsNotNull(),
+                intervalType,
+                null,
+                Instant.now());
 
-        for (Instrument instrument : instrumentRepository.findByIsActiveTrueAndKiteInstrumentTokenIsNotNull()) {
-            FetchCandlesRequest request = new FetchCandlesRequest(
-                    instrument.getId(),
-                    dataSource.getId(),
-                    intervalType,
-                    from,
-                    to);
-            saved += saveNewCandles(provider.fetchCandles(dataSource, instrument, request));
+        if (!result.failedInstrumentIds().isEmpty()) {
+            log.warn("Candle ingestion for interval {} failed for {} of {} instruments: {}",
+                    intervalType, result.failedInstrumentIds().size(), result.instruments(), result.failedInstrumentIds());
         }
-
-        log.info("Saved {} new candles for interval {}", saved, intervalType);
-        return saved;
+        log.info("Saved {} new candles ({} fetched, {} journaled, {} batches) for interval {} in {} ms",
+                result.candlesInserted(), result.candlesFetched(), result.candlesJournaled(), result.persistBatches(),
+                intervalType, result.elapsedMillis());
+        return result.candlesInserted();
     }
 
-    private int saveNewCandles(List<Candle> candles) {
-        int saved = 0;
-        for (Candle candle : candles) {
-            boolean exists = candleRepository.findByInstrumentIdAndIntervalTypeAndCandleStart(
-                    candle.getInstrument().getId(),
-                    candle.getIntervalType(),
-                    candle.getCandleStart()).isPresent();
-
-            if (!exists) {
-                candleRepository.save(candle);
-                saved++;
+    /**
+     * Active data sources in priority order, paired with their providers. A source no provider
+     * supports is skipped so it cannot take down failover to the others.
+     */
+    private List<ProviderSource> activeSources() {
+        List<ProviderSource> sources = new ArrayList<>();
+        for (DataSource dataSource : dataSourceRepository.findByIsActiveTrueOrderByPriorityAsc()) {
+            try {
+                sources.add(new ProviderSource(dataSource, providerRegistry.resolve(dataSource)));
+            } catch (MarketDataException e) {
+                log.warn("Skipping data source {}: {}", dataSource.getName(), e.getMessage());
             }
         }
-        return saved;
+        return sources;
     }
 }
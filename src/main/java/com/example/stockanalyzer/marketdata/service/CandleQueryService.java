@@ -0,0 +1,170 @@
+package com.example.stockanalyzer.marketdata.service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import com.example.stockanalyzer.marketdata.archive.CandleArchiveService;
+import com.example.stockanalyzer.marketdata.dto.CandleCacheStatsResponse;
+import com.example.stockanalyzer.marketdata.dto.CandlePageResponse;
+import com.example.stockanalyzer.marketdata.dto.CandleQueryRequest;
+import com.example.stockanalyzer.marketdata.dto.CandleResponse;
+import com.example.stockanalyzer.marketdata.entites.IntervalType;
+import com.example.stockanalyzer.marketdata.exception.MarketDataException;
+import com.example.stockanalyzer.marketdata.repository.CandleBlockRepository;
+import com.example.stockanalyzer.marketdata.repository.CandleRepository;
+import com.example.stockanalyzer.marketdata.store.CandleRangeCache;
+import com.example.stockanalyzer.marketdata.store.HotCandleStore;
+
+/**
+ * Reads stored candles page by page, keyed on {@code candle_start} instead of OFFSET so every page
+ * is a single index range scan regardless of how deep the client has paged.
+ *
+ * Pages inside the hot window are served from {@link HotCandleStore}; those rows carry no
+ * {@code id}, {@code tradeCount}, {@code vwap} or audit timestamps. Older pages go through
+ * {@link CandleRangeCache} before reaching MySQL, where each query is bounded on
+ * {@code candle_start} tightly enough to prune to the partitions the page falls in. Months moved
+ * to the file archive are read from {@link CandleArchiveService} and merged with whatever the table
+ * still holds for them. Intervals stored as {@code candle_blocks} read whole days by primary key
+ * through {@link CandleBlockRepository}.
+ */
+@Service
+public class CandleQueryService {
+
+    private final CandleRepository candleRepository;
+    private final CandleBlockRepository candleBlockRepository;
+    private final HotCandleStore hotCandleStore;
+    private final CandleRangeCache candleRangeCache;
+    private final CandleArchiveService candleArchiveService;
+    private final int defaultLimit;
+    private final int maxLimit;
+
+    public CandleQueryService(
+            CandleRepository candleRepository,
+            CandleBlockRepository candleBlockRepository,
+            HotCandleStore hotCandleStore,
+            CandleRangeCache candleRangeCache,
+            CandleArchiveService candleArchiveService,
+            @Value("${candles.query.default-limit:1000}") int defaultLimit,
+            @Value("${candles.query.max-limit:10000}") int maxLimit) {
+        this.candleRepository = candleRepository;
+        this.candleBlockRepository = candleBlockRepository;
+        this.hotCandleStore = hotCandleStore;
+        this.candleRangeCache = candleRangeCache;
+        this.candleArchiveService = candleArchiveService;
+        this.defaultLimit = defaultLimit;
+        this.maxLimit = maxLimit;
+    }
+
+    public CandleCacheStatsResponse cacheStats() {
+        return candleRangeCache.stats();
+    }
+
+    public CandlePageResponse getCandles(Long instrumentId, CandleQueryRequest request) {
+        if (request.getIntervalType() == null) {
+            throw new MarketDataException("intervalType is required");
+        }
+        Instant to = request.getTo() != null ? request.getTo() : Instant.now();
+        Instant after = request.getAfter();
+        if (after == null) {
+            if (request.getFrom() == null) {
+                throw new MarketDataException("Either from or after is required");
+            }
+            // candle_start >= from, expressed as the exclusive keyset bound. DATETIME(6) keeps
+            // microseconds, and the driver rounds anything finer, so step back a whole microsecond.
+            after = request.getFrom().minus(1, ChronoUnit.MICROS);
+        }
+        if (!after.isBefore(to)) {
+            return new CandlePageResponse(List.of(), null, false);
+        }
+        int limit = request.getLimit() == null ? defaultLimit : request.getLimit();
+        if (limit < 1 || limit > maxLimit) {
+            throw new MarketDataException("limit must be between 1 and " + maxLimit);
+        }
+
+        // One extra row tells whether another page exists without a COUNT query. Open-ended ranges
+        // end at a different "now" on every request, so they would never hit the range cache.
+        Instant afterBound = after;
+        boolean openEnded = request.getTo() == null;
+        List<CandleResponse> rows = hotCandleStore
+                .read(instrumentId, request.getIntervalType(), afterBound, to, limit + 1)
+                .orElseGet(() -> openEnded
+                        ? readStored(instrumentId, request.getIntervalType(), afterBound, to, limit + 1)
+                        : candleRangeCache.get(
+                                instrumentId, request.getIntervalType(), afterBound, to, limit + 1,
+                                () -> readStored(instrumentId, request.getIntervalType(), afterBound, to, limit + 1)));
+
+        boolean hasMore = rows.size() > limit;
+        List<CandleResponse> page = hasMore ? rows.subList(0, limit) : rows;
+        Instant nextCursor = hasMore ? page.getLast().getCandleStart() : null;
+        return new CandlePageResponse(page, nextCursor, hasMore);
+    }
+
+    /**
+     * Reads up to {@code rows} candles after {@code after} from the archive and the table. Once the
+     * archive fills the page, the table is only read up to the last archived start, where it can
+     * still hold late bars; on equal starts the table's row wins.
+     */
+    private List<CandleResponse> readStored(
+            Long instrumentId, IntervalType intervalType, Instant after, Instant to, int rows) {
+        List<CandleResponse> archived = candleArchiveService.read(instrumentId, intervalType, after, to, rows);
+        if (archived.isEmpty()) {
+            return readFromDatabase(instrumentId, intervalType, after, to, rows);
+        }
+        Instant databaseTo = archived.size() >= rows ? archived.getLast().getCandleStart() : to;
+        List<CandleResponse> stored = readFromDatabase(instrumentId, intervalType, after, databaseTo, rows);
+        List<CandleResponse> merged = new ArrayList<>(rows);
+        int a = 0;
+        int s = 0;
+        while (merged.size() < rows && (a < archived.size() || s < stored.size())) {
+            if (s == stored.size()) {
+                merged.add(archived.get(a++));
+                continue;
+            }
+            if (a == archived.size()) {
+                merged.add(stored.get(s++));
+                continue;
+            }
+            int order = archived.get(a).getCandleStart().compareTo(stored.get(s).getCandleStart());
+            if (order == 0) {
+                a++;
+            }
+            merged.add(order < 0 ? archived.get(a++) : stored.get(s++));
+        }
+        return merged;
+    }
+
+    /**
+     * Reads up to {@code rows} candles after {@code after}, one bounded window at a time. A page
+     * bounded only by {@code to} would make MySQL open every monthly partition between the cursor
+     * and now; a window sized to the page (twice its span in bar time, doubling while the series is
+     * sparse) keeps each query on the one or two partitions the page actually falls in.
+     */
+    private List<CandleResponse> readFromDatabase(
+            Long instrumentId, IntervalType intervalType, Instant after, Instant to, int rows) {
+        Duration window = Duration.ofMinutes(2L * intervalType.getMinutes() * rows);
+        List<CandleResponse> result = new ArrayList<>(rows);
+        Instant lower = after;
+        while (true) {
+            Instant upper = to.minus(window).isAfter(lower) ? lower.plus(window) : to;
+            result.addAll(findPage(instrumentId, intervalType, lower, upper, rows - result.size()));
+            if (result.size() >= rows || !upper.isBefore(to)) {
+                return result;
+            }
+            lower = upper;
+            window = window.multipliedBy(2);
+        }
+    }
+
+    private List<CandleResponse> findPage(
+            Long instrumentId, IntervalType intervalType, Instant after, Instant to, int rows) {
+        if (candleBlockRepository.stores(intervalType)) {
+            return candleBlockRepository.findPageAfter(instrumentId, intervalType, after, to, rows);
+        }
+        return candleRepository.findPageAfter(instrumentId, intervalType, after, to, Limit.of(rows));
+    }
+}
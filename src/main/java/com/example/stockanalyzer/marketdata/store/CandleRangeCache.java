@@ -0,0 +1,199 @@
+package com.example.stockanalyzer.marketdata.store;
+
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import com.example.stockanalyzer.marketdata.dto.CandleCacheStatsResponse;
+import com.example.stockanalyzer.marketdata.dto.CandleResponse;
+import com.example.stockanalyzer.marketdata.entites.IntervalType;
+import com.example.stockanalyzer.marketdata.ingestion.CandleBatch;
+import com.example.stockanalyzer.marketdata.ingestion.CandlesPersistedEvent;
+
+/**
+ * LRU cache of candle range reads, bounded by the total number of cached rows.
+ *
+ * Entries never expire by time. A {@link CandlesPersistedEvent} drops only the entries of that
+ * instrument and interval whose range reaches the earliest committed bar, so closed historical
+ * ranges stay cached while ranges over the current session are refreshed after each commit.
+ * A per-series generation, kept only while a load of that series is in flight, stops a read that
+ * raced with a commit from caching its stale rows.
+ *
+ * Only ranges with an explicit end belong here: a range ending at "now" never repeats as a key.
+ */
+@Component
+public class CandleRangeCache {
+
+    private final boolean enabled;
+    private final long maxRows;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final LinkedHashMap<RangeKey, List<CandleResponse>> entries = new LinkedHashMap<>(256, 0.75f, true);
+    private final Map<SeriesKey, Set<RangeKey>> bySeries = new HashMap<>();
+    private final Map<SeriesKey, Loading> loading = new HashMap<>();
+    private long cachedRows;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong invalidations = new AtomicLong();
+
+    public CandleRangeCache(
+            @Value("${candles.cache.enabled:true}") boolean enabled,
+            @Value("${candles.cache.max-rows:500000}") long maxRows) {
+        this.enabled = enabled;
+        this.maxRows = maxRows;
+    }
+
+    /**
+     * Returns the cached rows for the range or loads them with {@code loader} and caches the result.
+     */
+    public List<CandleResponse> get(
+            Long instrumentId,
+            IntervalType intervalType,
+            Instant afterExclusive,
+            Instant to,
+            int limit,
+            Supplier<List<CandleResponse>> loader) {
+
+        if (!enabled) {
+            return loader.get();
+        }
+        SeriesKey series = new SeriesKey(instrumentId, intervalType);
+        RangeKey key = new RangeKey(series, afterExclusive, to, limit);
+        Loading load;
+        long generation;
+        lock.lock();
+        try {
+            List<CandleResponse> cached = entries.get(key);
+            if (cached != null) {
+                hits.incrementAndGet();
+                return cached;
+            }
+            load = loading.computeIfAbsent(series, s -> new Loading());
+            load.readers++;
+            generation = load.generation;
+        } finally {
+            lock.unlock();
+        }
+
+        misses.incrementAndGet();
+        List<CandleResponse> loaded = null;
+        try {
+            loaded = List.copyOf(loader.get());
+            return loaded;
+        } finally {
+            lock.lock();
+            try {
+                if (loaded != null && loaded.size() <= maxRows
+                        && load.generation == generation && !entries.containsKey(key)) {
+                    entries.put(key, loaded);
+                    bySeries.computeIfAbsent(series, s -> new HashSet<>()).add(key);
+                    cachedRows += loaded.size();
+                    evictOverflow();
+                }
+                if (--load.readers == 0) {
+                    loading.remove(series);
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    @EventListener
+    public void onCandlesPersisted(CandlesPersistedEvent event) {
+        if (!enabled || event.candles().isEmpty()) {
+            return;
+        }
+        CandleBatch candles = event.candles();
+        Map<SeriesKey, Long> earliest = new HashMap<>();
+        for (int i = 0; i < candles.size(); i++) {
+            earliest.merge(
+                    new SeriesKey(candles.instrumentId(i), candles.intervalType(i)),
+                    candles.startSecond(i),
+                    Math::min);
+        }
+        lock.lock();
+        try {
+            earliest.forEach((series, firstStartSecond) -> {
+                Loading load = loading.get(series);
+                if (load != null) {
+                    load.generation++;
+                }
+                Set<RangeKey> keys = bySeries.get(series);
+                if (keys == null) {
+                    return;
+                }
+                for (Iterator<RangeKey> it = keys.iterator(); it.hasNext(); ) {
+                    RangeKey key = it.next();
+                    if (key.to().getEpochSecond() >= firstStartSecond) {
+                        it.remove();
+                        cachedRows -= entries.remove(key).size();
+                        invalidations.incrementAndGet();
+                    }
+                }
+                if (keys.isEmpty()) {
+                    bySeries.remove(series);
+                }
+            });
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public CandleCacheStatsResponse stats() {
+        lock.lock();
+        try {
+            return new CandleCacheStatsResponse(
+                    enabled,
+                    entries.size(),
+                    cachedRows,
+                    maxRows,
+                    hits.get(),
+                    misses.get(),
+                    evictions.get(),
+                    invalidations.get());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void evictOverflow() {
+        Iterator<Map.Entry<RangeKey, List<CandleResponse>>> it = entries.entrySet().iterator();
+        while (cachedRows > maxRows && it.hasNext()) {
+            Map.Entry<RangeKey, List<CandleResponse>> eldest = it.next();
+            it.remove();
+            cachedRows -= eldest.getValue().size();
+            Set<RangeKey> keys = bySeries.get(eldest.getKey().series());
+            if (keys != null) {
+                keys.remove(eldest.getKey());
+                if (keys.isEmpty()) {
+                    bySeries.remove(eldest.getKey().series());
+                }
+            }
+            evictions.incrementAndGet();
+        }
+    }
+
+    // Guarded by lock.
+    private static final class Loading {
+        private long generation;
+        private int readers;
+    }
+
+    private record SeriesKey(Long instrumentId, IntervalType intervalType) {
+    }
+
+    private record RangeKey(SeriesKey series, Instant afterExclusive, Instant to, int limit) {
+    }
+}
@@ -0,0 +1,268 @@
+package com.example.stockanalyzer.marketdata.store;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import com.example.stockanalyzer.marketdata.dto.CandleResponse;
+import com.example.stockanalyzer.marketdata.entites.IntervalType;
+import com.example.stockanalyzer.marketdata.mapper.PriceScale;
+
+/**
+ * Recent candles of one instrument and interval as parallel primitive columns sorted by start:
+ * epoch-second starts, scaled-long prices ({@link PriceScale}) and volumes. Holds at most
+ * {@code capacity} bars, dropping the oldest quarter when full.
+ *
+ * {@code coveredFrom} is the earliest start for which the series is known to hold every stored
+ * bar; reads starting before it must go to the database.
+ *
+ * Until the series is verified, bars from the database are {@link #load loaded} over the ones held
+ * (a snapshot may be stale), except bars an upsert event wrote meanwhile: those carry a value
+ * committed no earlier than the one the top-up query read.
+ */
+final class CandleSeries {
+
+    static final long NOT_RESTORED = Long.MIN_VALUE;
+
+    final long instrumentId;
+    final IntervalType intervalType;
+    final String symbol;
+    final String exchangeCode;
+    // Stored bars updated after this epoch second may differ from the held ones; NOT_RESTORED for
+    // a series created empty, which loads its whole range.
+    final long changedSince;
+
+    // Held while the series is filled from the database, so concurrent first reads query once.
+    final ReentrantLock topUpLock = new ReentrantLock();
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final int capacity;
+    private long[] start;
+    private long[] open;
+    private long[] high;
+    private long[] low;
+    private long[] close;
+    private long[] volume;
+    private int size;
+    private long coveredFrom;
+    private volatile boolean verified;
+    private Set<Long> upsertedBeforeVerified = new HashSet<>();
+
+    CandleSeries(long instrumentId, IntervalType intervalType, String symbol, String exchangeCode, int capacity,
+                 long coveredFrom, long changedSince) {
+        this.instrumentId = instrumentId;
+        this.intervalType = intervalType;
+        this.symbol = symbol;
+        this.exchangeCode = exchangeCode;
+        this.changedSince = changedSince;
+        this.capacity = capacity;
+        this.coveredFrom = coveredFrom;
+        int initial = Math.min(capacity, 64);
+        this.start = new long[initial];
+        this.open = new long[initial];
+        this.high = new long[initial];
+        this.low = new long[initial];
+        this.close = new long[initial];
+        this.volume = new long[initial];
+    }
+
+    /**
+     * Inserts or replaces the bar starting at {@code startSecond}. Bars older than the covered
+     * range are ignored since the series could not prove it holds their neighbours.
+     */
+    void upsert(long startSecond, long o, long h, long l, long c, long v) {
+        put(startSecond, o, h, l, c, v, Write.UPSERT);
+    }
+
+    /**
+     * Like {@link #upsert} but keeps a bar already held, mirroring {@code INSERT IGNORE}.
+     */
+    void insertIfAbsent(long startSecond, long o, long h, long l, long c, long v) {
+        put(startSecond, o, h, l, c, v, Write.INSERT_IF_ABSENT);
+    }
+
+    /**
+     * Puts a bar read from a snapshot or the database, replacing the one held unless an upsert
+     * event wrote it before the series was verified.
+     */
+    void load(long startSecond, long o, long h, long l, long c, long v) {
+        put(startSecond, o, h, l, c, v, Write.LOAD);
+    }
+
+    private void put(long startSecond, long o, long h, long l, long c, long v, Write write) {
+        lock.writeLock().lock();
+        try {
+            if (startSecond < coveredFrom) {
+                return;
+            }
+            if (upsertedBeforeVerified != null) {
+                if (write == Write.UPSERT) {
+                    upsertedBeforeVerified.add(startSecond);
+                } else if (write == Write.LOAD && upsertedBeforeVerified.contains(startSecond)) {
+                    return;
+                }
+            }
+            int index;
+            if (size == 0 || startSecond > start[size - 1]) {
+                index = size;
+            } else {
+                index = Arrays.binarySearch(start, 0, size, startSecond);
+                if (index >= 0) {
+                    if (write != Write.INSERT_IF_ABSENT) {
+                        set(index, startSecond, o, h, l, c, v);
+                    }
+                    return;
+                }
+                index = -index - 1;
+            }
+            if (size == capacity) {
+                int drop = Math.max(1, capacity / 4);
+                shiftLeft(drop);
+                index -= drop;
+                coveredFrom = size > 0 ? start[0] : startSecond;
+                if (index < 0) {
+                    return;
+                }
+            }
+            ensureLength(size + 1);
+            if (index < size) {
+                shiftRight(index);
+            }
+            set(index, startSecond, o, h, l, c, v);
+            size++;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    boolean covers(long fromSecond) {
+        return fromSecond >= coveredFrom;
+    }
+
+    boolean isVerified() {
+        return verified;
+    }
+
+    void markVerified() {
+        lock.writeLock().lock();
+        try {
+            upsertedBeforeVerified = null;
+            verified = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    long coveredFrom() {
+        lock.readLock().lock();
+        try {
+            return coveredFrom;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Bars with {@code fromSecond < start <= toSecond} (exclusive lower bound, for keyset paging),
+     * at most {@code limit} of them.
+     */
+    List<CandleResponse> read(long fromSecondExclusive, long toSecond, int limit) {
+        lock.readLock().lock();
+        try {
+            int first = Arrays.binarySearch(start, 0, size, fromSecondExclusive);
+            first = first >= 0 ? first + 1 : -first - 1;
+            List<CandleResponse> result = new ArrayList<>(Math.min(limit, Math.max(0, size - first)));
+            long intervalSeconds = intervalType.getMinutes() * 60L;
+            for (int i = first; i < size && start[i] <= toSecond && result.size() < limit; i++) {
+                result.add(new CandleResponse(
+                        null,
+                        instrumentId,
+                        symbol,
+                        exchangeCode,
+                        intervalType,
+                        Instant.ofEpochSecond(start[i]),
+                        Instant.ofEpochSecond(start[i] + intervalSeconds),
+                        PriceScale.toBigDecimal(open[i]),
+                        PriceScale.toBigDecimal(high[i]),
+                        PriceScale.toBigDecimal(low[i]),
+                        PriceScale.toBigDecimal(close[i]),
+                        volume[i],
+                        null,
+                        null,
+                        null,
+                        null));
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Runs {@code writer} under the read lock with a consistent view of the columns.
+     */
+    void snapshot(ColumnWriter writer) {
+        lock.readLock().lock();
+        try {
+            writer.write(coveredFrom, size, start, open, high, low, close, volume);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private enum Write {
+        UPSERT, INSERT_IF_ABSENT, LOAD
+    }
+
+    @FunctionalInterface
+    interface ColumnWriter {
+        void write(long coveredFrom, int size, long[] start, long[] open, long[] high, long[] low, long[] close, long[] volume);
+    }
+
+    private void set(int i, long s, long o, long h, long l, long c, long v) {
+        start[i] = s;
+        open[i] = o;
+        high[i] = h;
+        low[i] = l;
+        close[i] = c;
+        volume[i] = v;
+    }
+
+    private void ensureLength(int required) {
+        if (required <= start.length) {
+            return;
+        }
+        int length = Math.min(capacity, Math.max(required, start.length * 2));
+        start = Arrays.copyOf(start, length);
+        open = Arrays.copyOf(open, length);
+        high = Arrays.copyOf(high, length);
+        low = Arrays.copyOf(low, length);
+        close = Arrays.copyOf(close, length);
+        volume = Arrays.copyOf(volume, length);
+    }
+
+    private void shiftRight(int index) {
+        int count = size - index;
+        System.arraycopy(start, index, start, index + 1, count);
+        System.arraycopy(open, index, open, index + 1, count);
+        System.arraycopy(high, index, high, index + 1, count);
+        System.arraycopy(low, index, low, index + 1, count);
+        System.arraycopy(close, index, close, index + 1, count);
+        System.arraycopy(volume, index, volume, index + 1, count);
+    }
+
+    private void shiftLeft(int drop) {
+        int count = size - drop;
+        System.arraycopy(start, drop, start, 0, count);
+        System.arraycopy(open, drop, open, 0, count);
+        System.arraycopy(high, drop, high, 0, count);
+        System.arraycopy(low, drop, low, 0, count);
+        System.arraycopy(close, drop, close, 0, count);
+        System.arraycopy(volume, drop, volume, 0, count);
+        size = count;
+    }
+}
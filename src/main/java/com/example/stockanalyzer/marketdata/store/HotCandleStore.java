@@ -0,0 +1,342 @@
+package com.example.stockanalyzer.marketdata.store;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.DayOfWeek;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import com.example.stockanalyzer.marketdata.dto.CandleResponse;
+import com.example.stockanalyzer.marketdata.entites.Exchange;
+import com.example.stockanalyzer.marketdata.entites.Instrument;
+import com.example.stockanalyzer.marketdata.entites.IntervalType;
+import com.example.stockanalyzer.marketdata.ingestion.CandleBatch;
+import com.example.stockanalyzer.marketdata.ingestion.CandlesPersistedEvent;
+import com.example.stockanalyzer.marketdata.repository.CandleMonthRepository;
+import com.example.stockanalyzer.marketdata.repository.CandleSeriesScanRepository;
+import com.example.stockanalyzer.marketdata.repository.InstrumentRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * In-memory window of recent candles per (instrument, interval), stored as {@link CandleSeries}
+ * primitive columns. A series is created and seeded from the database on its first read and is
+ * then kept current from {@link CandlesPersistedEvent}s.
+ *
+ * A series holds the last {@code sessions} session days of its exchange, counted as weekdays (an
+ * exchange holiday in the window leaves one session fewer), and up to a third more before it
+ * trims its oldest bars.
+ *
+ * The window is snapshotted to a memory-mapped file periodically and on shutdown and mapped back
+ * in on startup, so a restart does not have to re-query MySQL. A crash can lose bars written after
+ * the last snapshot, so before its first read each restored series fetches only the stored bars
+ * updated since shortly before the snapshot was taken, and those replace the restored ones.
+ */
+@Slf4j
+@Component
+public class HotCandleStore {
+
+    private static final int SNAPSHOT_MAGIC = 0x48435331; // "HCS1"
+    private static final int SNAPSHOT_VERSION = 2;
+    // Rows are stamped before their transaction commits and reach the series after it does, so a
+    // row stamped shortly before the snapshot may still be missing from it.
+    private static final long SNAPSHOT_OVERLAP_SECONDS = 300;
+    private static final long SECONDS_PER_DAY = 86_400L;
+
+    private final CandleSeriesScanRepository scanRepository;
+    private final InstrumentRepository instrumentRepository;
+    private final boolean enabled;
+    private final int sessions;
+    private final int sessionMinutes;
+    private final Path snapshotPath;
+    private final Map<SeriesKey, CandleSeries> series = new ConcurrentHashMap<>();
+
+    public HotCandleStore(
+            CandleSeriesScanRepository scanRepository,
+            InstrumentRepository instrumentRepository,
+            @Value("${store.hot-window.enabled:true}") boolean enabled,
+            @Value("${store.hot-window.sessions:5}") int sessions,
+            @Value("${store.hot-window.session-minutes:375}") int sessionMinutes,
+            @Value("${store.hot-window.snapshot-path:data/hot-candles.snapshot}") String snapshotPath) {
+        this.scanRepository = scanRepository;
+        this.instrumentRepository = instrumentRepository;
+        this.enabled = enabled;
+        this.sessions = sessions;
+        this.sessionMinutes = sessionMinutes;
+        this.snapshotPath = Path.of(snapshotPath);
+    }
+
+    /**
+     * Applies committed rows to the series already held: upserted batches overwrite, inserted ones
+     * only add bars the series lacks, as {@code INSERT IGNORE} did in the database. Series are not
+     * created here, since one event cannot tell what else is stored around its rows.
+     */
+    @EventListener
+    public void onCandlesPersisted(CandlesPersistedEvent event) {
+        if (!enabled || series.isEmpty()) {
+            return;
+        }
+        CandleBatch candles = event.candles();
+        for (int i = 0; i < candles.size(); i++) {
+            CandleSeries target = series.get(new SeriesKey(candles.instrumentId(i), candles.intervalType(i)));
+            if (target == null) {
+                continue;
+            }
+            if (event.upserted()) {
+                target.upsert(candles.startSecond(i), candles.open(i), candles.high(i), candles.low(i),
+                        candles.close(i), candles.volume(i));
+            } else {
+                target.insertIfAbsent(candles.startSecond(i), candles.open(i), candles.high(i), candles.low(i),
+                        candles.close(i), candles.volume(i));
+            }
+        }
+    }
+
+    /**
+     * Candles with {@code afterExclusive < candleStart <= to}, or empty when the window does not
+     * cover {@code afterExclusive} and the caller must read from the database. The first read of a
+     * series inside the window creates it and seeds it from the database.
+     */
+    public Optional<List<CandleResponse>> read(
+            Long instrumentId,
+            IntervalType intervalType,
+            Instant afterExclusive,
+            Instant to,
+            int limit) {
+
+        if (!enabled) {
+            return Optional.empty();
+        }
+        long fromSecond = afterExclusive.getEpochSecond() + 1;
+        CandleSeries target = series.get(new SeriesKey(instrumentId, intervalType));
+        if (target == null) {
+            target = createSeries(instrumentId, intervalType, fromSecond);
+        }
+        if (target == null || !target.covers(fromSecond)) {
+            return Optional.empty();
+        }
+        if (!target.isVerified()) {
+            topUp(target);
+        }
+        return Optional.of(target.read(afterExclusive.getEpochSecond(), to.getEpochSecond(), limit));
+    }
+
+    public int seriesCount() {
+        return series.size();
+    }
+
+    @PostConstruct
+    public void warmFromSnapshot() {
+        if (!enabled || !Files.exists(snapshotPath)) {
+            return;
+        }
+        long started = System.nanoTime();
+        try (FileChannel channel = FileChannel.open(snapshotPath, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.getInt() != SNAPSHOT_MAGIC || buffer.getInt() != SNAPSHOT_VERSION) {
+                log.warn("Ignoring hot candle snapshot {} with unknown format", snapshotPath);
+                return;
+            }
+            int count = buffer.getInt();
+            long changedSince = buffer.getLong() - SNAPSHOT_OVERLAP_SECONDS;
+            IntervalType[] intervals = IntervalType.values();
+            for (int s = 0; s < count; s++) {
+                long instrumentId = buffer.getLong();
+                IntervalType intervalType = intervals[buffer.getInt()];
+                long coveredFrom = buffer.getLong();
+                int size = buffer.getInt();
+                String symbol = readString(buffer);
+                String exchangeCode = readString(buffer);
+                long[][] columns = new long[6][size];
+                for (long[] column : columns) {
+                    buffer.asLongBuffer().get(column);
+                    buffer.position(buffer.position() + size * Long.BYTES);
+                }
+                CandleSeries restored = new CandleSeries(
+                        instrumentId, intervalType, symbol, exchangeCode, capacity(intervalType), coveredFrom,
+                        changedSince);
+                for (int i = 0; i < size; i++) {
+                    restored.load(columns[0][i], columns[1][i], columns[2][i], columns[3][i], columns[4][i], columns[5][i]);
+                }
+                series.put(new SeriesKey(instrumentId, intervalType), restored);
+            }
+            log.info("Warmed {} hot candle series from {} in {} ms",
+                    count, snapshotPath, (System.nanoTime() - started) / 1_000_000);
+        } catch (IOException | RuntimeException e) {
+            series.clear();
+            log.warn("Failed to load hot candle snapshot {}: {}", snapshotPath, e.getMessage());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${store.hot-window.snapshot-interval-ms:60000}",
+            initialDelayString = "${store.hot-window.snapshot-interval-ms:60000}")
+    @PreDestroy
+    public void snapshot() {
+        if (!enabled || series.isEmpty()) {
+            return;
+        }
+        // Taken before any series is read, so every bar written later is stamped after it.
+        long takenAt = Instant.now().getEpochSecond();
+        List<byte[]> encoded = new ArrayList<>(series.size());
+        long totalBytes = 3L * Integer.BYTES + Long.BYTES;
+        for (CandleSeries s : series.values()) {
+            byte[] bytes = encode(s);
+            encoded.add(bytes);
+            totalBytes += bytes.length;
+        }
+        Path temp = snapshotPath.resolveSibling(snapshotPath.getFileName() + ".tmp");
+        try {
+            if (snapshotPath.getParent() != null) {
+                Files.createDirectories(snapshotPath.getParent());
+            }
+            try (FileChannel channel = FileChannel.open(temp,
+                    StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                    StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, totalBytes);
+                buffer.putInt(SNAPSHOT_MAGIC).putInt(SNAPSHOT_VERSION).putInt(encoded.size()).putLong(takenAt);
+                encoded.forEach(buffer::put);
+                buffer.force();
+            }
+            Files.move(temp, snapshotPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            log.warn("Failed to write hot candle snapshot {}: {}", snapshotPath, e.getMessage());
+        }
+    }
+
+    private byte[] encode(CandleSeries s) {
+        byte[][] result = new byte[1][];
+        s.snapshot((coveredFrom, size, start, open, high, low, close, volume) -> {
+            byte[] symbol = s.symbol.getBytes(StandardCharsets.UTF_8);
+            byte[] exchangeCode = s.exchangeCode.getBytes(StandardCharsets.UTF_8);
+            ByteBuffer buffer = ByteBuffer.allocate(Long.BYTES + Integer.BYTES + Long.BYTES + Integer.BYTES
+                    + Short.BYTES + symbol.length + Short.BYTES + exchangeCode.length
+                    + 6 * size * Long.BYTES);
+            buffer.putLong(s.instrumentId).putInt(s.intervalType.ordinal()).putLong(coveredFrom).putInt(size);
+            buffer.putShort((short) symbol.length).put(symbol);
+            buffer.putShort((short) exchangeCode.length).put(exchangeCode);
+            for (long[] column : new long[][] {start, open, high, low, close, volume}) {
+                buffer.asLongBuffer().put(column, 0, size);
+                buffer.position(buffer.position() + size * Long.BYTES);
+            }
+            result[0] = buffer.array();
+        });
+        return result[0];
+    }
+
+    /**
+     * Registers an unverified series covering the last {@code sessions} session days, or returns
+     * {@code null} when {@code fromSecond} is older than that.
+     */
+    private CandleSeries createSeries(Long instrumentId, IntervalType intervalType, long fromSecond) {
+        int days = Math.max(sessions, 1);
+        Instant now = Instant.now();
+        // No run of that many weekdays reaches further back, so older reads skip the lookup.
+        if (fromSecond < now.getEpochSecond() - (days + 2L * (days / 5 + 1) + 1) * SECONDS_PER_DAY) {
+            return null;
+        }
+        Instrument instrument = instrumentRepository.findById(instrumentId).orElse(null);
+        if (instrument == null) {
+            return null;
+        }
+        long seedFrom = sessionWindowStart(instrument.getExchange(), days, now);
+        if (fromSecond < seedFrom) {
+            return null;
+        }
+        return series.computeIfAbsent(new SeriesKey(instrumentId, intervalType), k -> new CandleSeries(
+                k.instrumentId(),
+                k.intervalType(),
+                instrument.getSymbol(),
+                instrument.getExchange().getCode(),
+                capacity(intervalType),
+                seedFrom,
+                CandleSeries.NOT_RESTORED));
+    }
+
+    /**
+     * Loads the stored bars of the covered range, or for a restored series only those updated
+     * since its snapshot. The series is registered before the query, so a batch committed
+     * meanwhile reaches it through {@link #onCandlesPersisted}; see {@link CandleSeries#load}.
+     */
+    private void topUp(CandleSeries target) {
+        target.topUpLock.lock();
+        try {
+            if (target.isVerified()) {
+                return;
+            }
+            CandleMonthRepository.RowSink sink = (instrumentId, intervalType, start, end, o, h, l, c, v) ->
+                    target.load(start, o, h, l, c, v);
+            long after = target.coveredFrom() - 1;
+            if (target.changedSince == CandleSeries.NOT_RESTORED) {
+                scanRepository.scan(target.instrumentId, target.intervalType, after,
+                        Instant.now().getEpochSecond(), sink);
+            } else {
+                scanRepository.scanChangedSince(target.instrumentId, target.intervalType, after,
+                        target.changedSince, sink);
+            }
+            target.markVerified();
+        } finally {
+            target.topUpLock.unlock();
+        }
+    }
+
+    /**
+     * Bars a series may hold: a third more than {@code sessions} sessions' worth, so trimming the
+     * oldest quarter when full still leaves at least {@code sessions} sessions.
+     */
+    private int capacity(IntervalType intervalType) {
+        int heldSessions = (Math.max(sessions, 1) * 4 + 2) / 3;
+        if (intervalType == IntervalType.ONE_DAY) {
+            return heldSessions;
+        }
+        int perSession = (sessionMinutes + intervalType.getMinutes() - 1) / intervalType.getMinutes();
+        return Math.max(1, heldSessions * perSession);
+    }
+
+    /**
+     * Local midnight, in epoch seconds, of the earliest of the last {@code sessions} weekdays on
+     * {@code exchange}. Today counts once its session has opened. Daily bars start at local
+     * midnight and intraday bars after it, so the window holds every bar of those days.
+     */
+    private static long sessionWindowStart(Exchange exchange, int sessions, Instant now) {
+        ZoneId zone = ZoneId.of(exchange.getTimezone());
+        ZonedDateTime local = now.atZone(zone);
+        LocalDate day = local.toLocalTime().isBefore(exchange.getOpenTime().toLocalTime())
+                ? local.toLocalDate().minusDays(1)
+                : local.toLocalDate();
+        int counted = 0;
+        while (true) {
+            if (day.getDayOfWeek() != DayOfWeek.SATURDAY && day.getDayOfWeek() != DayOfWeek.SUNDAY
+                    && ++counted == sessions) {
+                return day.atStartOfDay(zone).toEpochSecond();
+            }
+            day = day.minusDays(1);
+        }
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.getShort()];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private record SeriesKey(long instrumentId, IntervalType intervalType) {
+    }
+}
@@ -0,0 +1,173 @@
+package com.example.stockanalyzer.marketdata.streaming;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import com.example.stockanalyzer.marketdata.dto.TickerConnectionStatsResponse;
+import com.example.stockanalyzer.marketdata.entites.BrokerSession;
+import com.example.stockanalyzer.marketdata.entites.DataSource;
+import com.example.stockanalyzer.marketdata.entites.Instrument;
+import com.example.stockanalyzer.marketdata.entites.ProviderType;
+import com.example.stockanalyzer.marketdata.repository.DataSourceRepository;
+import com.example.stockanalyzer.marketdata.repository.InstrumentRepository;
+import com.example.stockanalyzer.marketdata.service.BrokerSessionService;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Streams live ticks for every active Kite data source with {@code streaming_enabled}.
+ *
+ * Active instruments are sharded round-robin across up to {@code max_stream_connections}
+ * WebSockets of at most {@code max_instruments_per_connection} tokens each (Kite allows 3
+ * connections of 3000 instruments per API key). Ticks are handed to every {@link TickConsumer}.
+ */
+@Slf4j
+@Component
+public class KiteTickerSubscriptionManager {
+
+    private static final int DEFAULT_MAX_CONNECTIONS = 3;
+    private static final int DEFAULT_MAX_INSTRUMENTS_PER_CONNECTION = 3000;
+
+    private final DataSourceRepository dataSourceRepository;
+    private final InstrumentRepository instrumentRepository;
+    private final BrokerSessionService brokerSessionService;
+    private final ObjectProvider<TickConsumer> tickConsumers;
+    private final boolean startOnBoot;
+    private final ScheduledExecutorService scheduler =
+            Executors.newScheduledThreadPool(1, Thread.ofVirtual().name("kite-ticker-", 0).factory());
+    private final Map<Long, List<TickerConnection>> connections = new ConcurrentHashMap<>();
+
+    public KiteTickerSubscriptionManager(
+            DataSourceRepository dataSourceRepository,
+            InstrumentRepository instrumentRepository,
+            BrokerSessionService brokerSessionService,
+            ObjectProvider<TickConsumer> tickConsumers,
+            @Value("${streaming.start-on-boot:true}") boolean startOnBoot) {
+        this.dataSourceRepository = dataSourceRepository;
+        this.instrumentRepository = instrumentRepository;
+        this.brokerSessionService = brokerSessionService;
+        this.tickConsumers = tickConsumers;
+        this.startOnBoot = startOnBoot;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void startOnReady() {
+        if (startOnBoot) {
+            startAll();
+        }
+    }
+
+    /**
+     * (Re)opens connections for all streaming data sources, picking up the current instrument set
+     * and the access token issued by the morning session refresh.
+     */
+    @Scheduled(cron = "${streaming.scheduler.start-cron:0 5 9 * * MON-FRI}", zone = "Asia/Kolkata")
+    public void startAll() {
+        for (DataSource dataSource : dataSourceRepository.findByIsActiveTrueAndStreamingEnabledTrue()) {
+            try {
+                start(dataSource);
+            } catch (Exception e) {
+                log.error("Failed to start streaming for data source {}", dataSource.getName(), e);
+            }
+        }
+    }
+
+    @Scheduled(cron = "${streaming.scheduler.stop-cron:0 35 15 * * MON-FRI}", zone = "Asia/Kolkata")
+    public void stopAll() {
+        connections.keySet().forEach(this::stop);
+    }
+
+    /**
+     * Closes every connection, then stops the executor running connects and reconnects.
+     */
+    @PreDestroy
+    public void shutdown() {
+        stopAll();
+        scheduler.shutdownNow();
+    }
+
+    public void start(DataSource dataSource) {
+        if (!ProviderType.KITE.equals(dataSource.getProviderType())) {
+            log.warn("Streaming is only supported for Kite data sources, skipping {}", dataSource.getName());
+            return;
+        }
+        BrokerSession session = brokerSessionService.findActiveSession(dataSource).orElse(null);
+        if (session == null) {
+            log.warn("No active session for streaming data source {}", dataSource.getName());
+            return;
+        }
+        List<Long> tokens = instrumentRepository.findByIsActiveTrueAndKiteInstrumentTokenIsNotNull().stream()
+                .map(Instrument::getKiteInstrumentToken)
+                .distinct()
+                .sorted()
+                .toList();
+
+        List<TickConsumer> consumers = tickConsumers.orderedStream().toList();
+        List<TickerConnection> opened = new ArrayList<>();
+        List<List<Long>> shards = shard(tokens, dataSource);
+        for (int i = 0; i < shards.size(); i++) {
+            opened.add(new TickerConnection(
+                    dataSource.getId(),
+                    dataSource.getName() + "#" + i,
+                    dataSource.getApiKey(),
+                    session.getAccessToken(),
+                    shards.get(i),
+                    consumers,
+                    scheduler));
+        }
+
+        stop(dataSource.getId());
+        connections.put(dataSource.getId(), opened);
+        opened.forEach(connection -> scheduler.execute(connection::open));
+        log.info("Streaming {} instruments for {} over {} connections", tokens.size(), dataSource.getName(), shards.size());
+    }
+
+    public void stop(Long dataSourceId) {
+        List<TickerConnection> existing = connections.remove(dataSourceId);
+        if (existing != null) {
+            existing.forEach(TickerConnection::close);
+        }
+    }
+
+    public List<TickerConnectionStatsResponse> stats() {
+        return connections.values().stream()
+                .flatMap(List::stream)
+                .map(TickerConnection::stats)
+                .sorted(Comparator.comparing(TickerConnectionStatsResponse::getConnectionName))
+                .toList();
+    }
+
+    static List<List<Long>> shard(List<Long> tokens, DataSource dataSource) {
+        int maxConnections = positiveOr(dataSource.getMaxStreamConnections(), DEFAULT_MAX_CONNECTIONS);
+        int perConnection = positiveOr(dataSource.getMaxInstrumentsPerConnection(), DEFAULT_MAX_INSTRUMENTS_PER_CONNECTION);
+        int capacity = maxConnections * perConnection;
+        if (tokens.size() > capacity) {
+            log.warn("{} instruments exceed streaming capacity {} for {}; {} will not be streamed",
+                    tokens.size(), capacity, dataSource.getName(), tokens.size() - capacity);
+            tokens = tokens.subList(0, capacity);
+        }
+        int shardCount = Math.max(1, (tokens.size() + perConnection - 1) / perConnection);
+        List<List<Long>> shards = new ArrayList<>(shardCount);
+        for (int i = 0; i < shardCount; i++) {
+            shards.add(new ArrayList<>());
+        }
+        for (int i = 0; i < tokens.size(); i++) {
+            shards.get(i % shardCount).add(tokens.get(i));
+        }
+        return shards;
+    }
+
+    private static int positiveOr(Integer value, int fallback) {
+        return value != null && value > 0 ? value : fallback;
+    }
+}
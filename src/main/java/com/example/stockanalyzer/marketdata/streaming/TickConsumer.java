@@ -0,0 +1,17 @@
+package com.example.stockanalyzer.marketdata.streaming;
+
+import java.util.List;
+import com.zerodhatech.models.Tick;
+
+/**
+ * Receives ticks from a streaming connection. Calls for one connection arrive on that
+ * connection's socket thread, one batch at a time, so implementations may keep per-connection
+ * state without locking but must not block.
+ */
+public interface TickConsumer {
+
+    void onTicks(String connectionName, List<Tick> ticks);
+
+    default void onDisconnected(String connectionName) {
+    }
+}
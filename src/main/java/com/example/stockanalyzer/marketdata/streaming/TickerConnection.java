@@ -0,0 +1,233 @@
+package com.example.stockanalyzer.marketdata.streaming;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import com.example.stockanalyzer.marketdata.dto.TickerConnectionStatsResponse;
+import com.zerodhatech.kiteconnect.kitehttp.exceptions.KiteException;
+import com.zerodhatech.models.Tick;
+import com.zerodhatech.ticker.KiteTicker;
+import com.zerodhatech.ticker.OnError;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * One Kite ticker WebSocket carrying a fixed shard of instrument tokens.
+ *
+ * The library's own reconnect is disabled: on every disconnect or error a fresh socket is opened
+ * with exponential backoff and jitter, and the shard is subscribed again on connect, so a
+ * reconnect never comes back with an empty subscription.
+ *
+ * Tick rate and maximum lag are kept per second over the last {@code WINDOW_SECONDS} seconds, so
+ * the stats describe current traffic and fall back to zero when ticks stop.
+ */
+@Slf4j
+class TickerConnection {
+
+    private static final long INITIAL_BACKOFF_MILLIS = 1_000;
+    private static final long MAX_BACKOFF_MILLIS = 60_000;
+    private static final int WINDOW_SECONDS = 10;
+
+    private final Long dataSourceId;
+    private final String name;
+    private final String apiKey;
+    private final String accessToken;
+    private final ArrayList<Long> tokens;
+    private final List<TickConsumer> consumers;
+    private final ScheduledExecutorService scheduler;
+
+    private final AtomicBoolean stopped = new AtomicBoolean();
+    private final AtomicBoolean reconnectScheduled = new AtomicBoolean();
+    private final AtomicInteger reconnectAttempts = new AtomicInteger();
+    private volatile KiteTicker ticker;
+    private volatile boolean connected;
+
+    private final AtomicLong ticksReceived = new AtomicLong();
+    private volatile long lastTickAtMillis;
+    private volatile long lastLagMillis;
+    private final TickWindow window = new TickWindow();
+
+    TickerConnection(
+            Long dataSourceId,
+            String name,
+            String apiKey,
+            String accessToken,
+            List<Long> tokens,
+            List<TickConsumer> consumers,
+            ScheduledExecutorService scheduler) {
+        this.dataSourceId = dataSourceId;
+        this.name = name;
+        this.apiKey = apiKey;
+        this.accessToken = accessToken;
+        this.tokens = new ArrayList<>(tokens);
+        this.consumers = consumers;
+        this.scheduler = scheduler;
+    }
+
+    String name() {
+        return name;
+    }
+
+    void open() {
+        if (stopped.get()) {
+            return;
+        }
+        KiteTicker newTicker = new KiteTicker(accessToken, apiKey);
+        newTicker.setTryReconnection(false);
+        newTicker.setOnConnectedListener(() -> {
+            connected = true;
+            reconnectAttempts.set(0);
+            newTicker.subscribe(tokens);
+            newTicker.setMode(tokens, KiteTicker.modeFull);
+            log.info("Ticker {} connected, subscribed {} instruments", name, tokens.size());
+        });
+        newTicker.setOnDisconnectedListener(() -> {
+            connected = false;
+            consumers.forEach(consumer -> consumer.onDisconnected(name));
+            scheduleReconnect("disconnected");
+        });
+        newTicker.setOnTickerArrivalListener(this::onTicks);
+        newTicker.setOnErrorListener(new OnError() {
+            @Override
+            public void onError(Exception exception) {
+                log.warn("Ticker {} error: {}", name, exception.getMessage());
+                scheduleReconnect("error");
+            }
+
+            @Override
+            public void onError(KiteException kiteException) {
+                log.warn("Ticker {} error: {}", name, kiteException.message);
+                scheduleReconnect("error");
+            }
+
+            @Override
+            public void onError(String error) {
+                log.warn("Ticker {} error: {}", name, error);
+            }
+        });
+        ticker = newTicker;
+        try {
+            newTicker.connect();
+        } catch (RuntimeException e) {
+            log.warn("Ticker {} failed to connect: {}", name, e.getMessage());
+            scheduleReconnect("connect failed");
+        }
+    }
+
+    void close() {
+        stopped.set(true);
+        KiteTicker current = ticker;
+        if (current != null && current.isConnectionOpen()) {
+            current.disconnect();
+        }
+        connected = false;
+    }
+
+    TickerConnectionStatsResponse stats() {
+        long lastTickAt = lastTickAtMillis;
+        long second = System.currentTimeMillis() / 1000;
+        return new TickerConnectionStatsResponse(
+                dataSourceId,
+                name,
+                tokens.size(),
+                connected,
+                reconnectAttempts.get(),
+                ticksReceived.get(),
+                window.ticksPerSecond(second),
+                lastTickAt > 0 ? Instant.ofEpochMilli(lastTickAt) : null,
+                lastLagMillis,
+                window.maxLagMillis(second));
+    }
+
+    private void onTicks(ArrayList<Tick> ticks) {
+        long now = System.currentTimeMillis();
+        long maxLag = 0;
+        for (int i = 0; i < ticks.size(); i++) {
+            Tick tick = ticks.get(i);
+            if (tick.getTickTimestamp() != null) {
+                maxLag = Math.max(maxLag, now - tick.getTickTimestamp().getTime());
+            }
+        }
+        recordTicks(ticks.size(), now, maxLag);
+        for (TickConsumer consumer : consumers) {
+            try {
+                consumer.onTicks(name, ticks);
+            } catch (RuntimeException e) {
+                log.warn("Tick consumer {} failed on {}: {}", consumer.getClass().getSimpleName(), name, e.getMessage());
+            }
+        }
+    }
+
+    private void recordTicks(int count, long nowMillis, long lagMillis) {
+        window.record(nowMillis / 1000, count, lagMillis);
+        ticksReceived.addAndGet(count);
+        lastTickAtMillis = nowMillis;
+        lastLagMillis = lagMillis;
+    }
+
+    private void scheduleReconnect(String reason) {
+        if (stopped.get() || !reconnectScheduled.compareAndSet(false, true)) {
+            return;
+        }
+        int attempt = reconnectAttempts.incrementAndGet();
+        long backoff = Math.min(MAX_BACKOFF_MILLIS, INITIAL_BACKOFF_MILLIS << Math.min(attempt - 1, 16));
+        long delay = backoff / 2 + ThreadLocalRandom.current().nextLong(backoff / 2 + 1);
+        log.info("Ticker {} {}; reconnect attempt {} in {} ms", name, reason, attempt, delay);
+        scheduler.schedule(() -> {
+            reconnectScheduled.set(false);
+            KiteTicker previous = ticker;
+            if (previous != null && previous.isConnectionOpen()) {
+                previous.disconnect();
+            }
+            open();
+        }, delay, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Tick count and maximum lag per second for the last {@code WINDOW_SECONDS} seconds, in a ring
+     * indexed by epoch second. A slot left over from an older second counts as empty.
+     */
+    private static final class TickWindow {
+
+        private final long[] seconds = new long[WINDOW_SECONDS];
+        private final long[] ticks = new long[WINDOW_SECONDS];
+        private final long[] maxLags = new long[WINDOW_SECONDS];
+
+        synchronized void record(long second, int count, long lagMillis) {
+            int slot = (int) Math.floorMod(second, WINDOW_SECONDS);
+            if (seconds[slot] != second) {
+                seconds[slot] = second;
+                ticks[slot] = 0;
+                maxLags[slot] = 0;
+            }
+            ticks[slot] += count;
+            maxLags[slot] = Math.max(maxLags[slot], lagMillis);
+        }
+
+        // Over the whole seconds before currentSecond, which is still filling up.
+        synchronized double ticksPerSecond(long currentSecond) {
+            long total = 0;
+            for (int i = 0; i < WINDOW_SECONDS; i++) {
+                if (seconds[i] < currentSecond && seconds[i] >= currentSecond - (WINDOW_SECONDS - 1)) {
+                    total += ticks[i];
+                }
+            }
+            return total / (double) (WINDOW_SECONDS - 1);
+        }
+
+        synchronized long maxLagMillis(long currentSecond) {
+            long max = 0;
+            for (int i = 0; i < WINDOW_SECONDS; i++) {
+                if (seconds[i] <= currentSecond && seconds[i] > currentSecond - WINDOW_SECONDS) {
+                    max = Math.max(max, maxLags[i]);
+                }
+            }
+            return max;
+        }
+    }
+}
@@ -0,0 +1,176 @@
+package com.example.stockanalyzer.marketdata.websocket;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.SubProtocolCapable;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.TextWebSocketHandler;
+import com.example.stockanalyzer.marketdata.aggregation.CandlesStreamedEvent;
+import com.example.stockanalyzer.marketdata.dto.CandleMessage;
+import com.example.stockanalyzer.marketdata.dto.CandleSubscriberStatsResponse;
+import com.example.stockanalyzer.marketdata.dto.CandleSubscriptionRequest;
+import com.example.stockanalyzer.marketdata.entites.Instrument;
+import com.example.stockanalyzer.marketdata.ingestion.CandleBatch;
+import com.example.stockanalyzer.marketdata.ingestion.CandlesPersistedEvent;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import tools.jackson.core.JacksonException;
+import tools.jackson.databind.json.JsonMapper;
+
+/**
+ * Pushes every persisted or updated candle, and every bar closed by the tick stream, to the
+ * sessions subscribed to its (instrument, interval) topic. A streamed bar is provisional: the
+ * polled bar for the same start follows once it is persisted and replaces it on the client.
+ *
+ * The publishing thread only wraps each bar once and drops it into the subscribers' conflation
+ * slots; rendering and socket writes happen on per-session virtual threads, so slow clients cannot
+ * stall ingestion and heap use is bounded by sessions times subscriptions. Sessions negotiating the
+ * {@value CandleFrameCodec#BINARY_PROTOCOL} subprotocol get {@link CandleFrameCodec} frames
+ * instead of JSON.
+ */
+@Slf4j
+@Component
+public class CandleBroadcastHandler extends TextWebSocketHandler implements SubProtocolCapable {
+
+    private final JsonMapper jsonMapper;
+    private final int maxSubscriptionsPerSession;
+    private final ExecutorService sender = Executors.newVirtualThreadPerTaskExecutor();
+    private final Map<String, CandleSubscriber> subscribers = new ConcurrentHashMap<>();
+    private final Map<CandleTopic, Set<CandleSubscriber>> topics = new ConcurrentHashMap<>();
+
+    public CandleBroadcastHandler(
+            JsonMapper jsonMapper,
+            @Value("${websocket.candles.max-subscriptions-per-session:200}") int maxSubscriptionsPerSession) {
+        this.jsonMapper = jsonMapper;
+        this.maxSubscriptionsPerSession = maxSubscriptionsPerSession;
+    }
+
+    /**
+     * Offered during the handshake; a client that asks for none gets JSON.
+     */
+    @Override
+    public List<String> getSubProtocols() {
+        return List.of(CandleFrameCodec.BINARY_PROTOCOL, CandleFrameCodec.JSON_PROTOCOL);
+    }
+
+    @Override
+    public void afterConnectionEstablished(WebSocketSession session) {
+        subscribers.put(session.getId(), new CandleSubscriber(session, sender));
+    }
+
+    @Override
+    protected void handleTextMessage(WebSocketSession session, TextMessage message) throws Exception {
+        CandleSubscriber subscriber = subscribers.get(session.getId());
+        if (subscriber == null) {
+            return;
+        }
+        CandleSubscriptionRequest request;
+        try {
+            request = jsonMapper.readValue(message.getPayload(), CandleSubscriptionRequest.class);
+        } catch (JacksonException e) {
+            session.close(CloseStatus.BAD_DATA.withReason("Malformed subscription frame"));
+            return;
+        }
+        if (request.getInstrumentId() == null || request.getIntervalType() == null) {
+            session.close(CloseStatus.BAD_DATA.withReason("instrumentId and intervalType are required"));
+            return;
+        }
+        CandleTopic topic = new CandleTopic(request.getInstrumentId(), request.getIntervalType());
+        if ("unsubscribe".equalsIgnoreCase(request.getAction())) {
+            subscriber.unsubscribe(topic);
+            removeFromTopic(topic, subscriber);
+            return;
+        }
+        if (!"subscribe".equalsIgnoreCase(request.getAction())) {
+            session.close(CloseStatus.BAD_DATA.withReason("Unknown action: " + request.getAction()));
+            return;
+        }
+        if (!subscriber.topics().contains(topic) && subscriber.topics().size() >= maxSubscriptionsPerSession) {
+            session.close(CloseStatus.POLICY_VIOLATION.withReason("Too many subscriptions"));
+            return;
+        }
+        subscriber.topics().add(topic);
+        topics.compute(topic, (t, audience) -> {
+            Set<CandleSubscriber> members = audience != null ? audience : ConcurrentHashMap.newKeySet();
+            members.add(subscriber);
+            return members;
+        });
+    }
+
+    @Override
+    public void afterConnectionClosed(WebSocketSession session, CloseStatus status) {
+        CandleSubscriber subscriber = subscribers.remove(session.getId());
+        if (subscriber == null) {
+            return;
+        }
+        for (CandleTopic topic : subscriber.topics()) {
+            removeFromTopic(topic, subscriber);
+        }
+    }
+
+    @EventListener
+    public void onCandlesPersisted(CandlesPersistedEvent event) {
+        broadcast(event.candles());
+    }
+
+    @EventListener
+    public void onCandlesStreamed(CandlesStreamedEvent event) {
+        broadcast(event.candles());
+    }
+
+    public List<CandleSubscriberStatsResponse> stats() {
+        List<CandleSubscriberStatsResponse> stats = new ArrayList<>(subscribers.size());
+        for (CandleSubscriber subscriber : subscribers.values()) {
+            stats.add(subscriber.stats());
+        }
+        return stats;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        sender.shutdownNow();
+    }
+
+    private void broadcast(CandleBatch candles) {
+        if (topics.isEmpty()) {
+            return;
+        }
+        for (int i = 0; i < candles.size(); i++) {
+            CandleTopic topic = new CandleTopic(candles.instrumentId(i), candles.intervalType(i));
+            Set<CandleSubscriber> audience = topics.get(topic);
+            if (audience == null || audience.isEmpty()) {
+                continue;
+            }
+            CandleFrame frame = CandleFrame.from(candles, i);
+            CandleUpdate update = new CandleUpdate(topic, frame, toMessage(frame, candles.instrument(i)), jsonMapper);
+            for (CandleSubscriber subscriber : audience) {
+                subscriber.offer(update);
+            }
+        }
+    }
+
+    private void removeFromTopic(CandleTopic topic, CandleSubscriber subscriber) {
+        topics.computeIfPresent(topic, (t, audience) -> {
+            audience.remove(subscriber);
+            return audience.isEmpty() ? null : audience;
+        });
+    }
+
+    private static CandleMessage toMessage(CandleFrame frame, Instrument instrument) {
+        CandleMessage message = frame.toMessage();
+        message.setSymbol(instrument.getSymbol());
+        message.setExchangeCode(instrument.getExchange().getCode());
+        message.setInstrumentName(instrument.getName());
+        return message;
+    }
+}
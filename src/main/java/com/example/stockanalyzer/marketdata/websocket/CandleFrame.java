@@ -0,0 +1,53 @@
+package com.example.stockanalyzer.marketdata.websocket;
+
+import java.time.Instant;
+import com.example.stockanalyzer.marketdata.dto.CandleMessage;
+import com.example.stockanalyzer.marketdata.entites.IntervalType;
+import com.example.stockanalyzer.marketdata.ingestion.CandleBatch;
+import com.example.stockanalyzer.marketdata.mapper.PriceScale;
+
+/**
+ * Primitive form of a candle update as carried by {@link CandleFrameCodec}: epoch-millis
+ * timestamps and {@link PriceScale} prices.
+ */
+public record CandleFrame(
+        long instrumentId,
+        IntervalType intervalType,
+        long startMillis,
+        long endMillis,
+        long open,
+        long high,
+        long low,
+        long close,
+        long volume) {
+
+    public static CandleFrame from(CandleBatch candles, int i) {
+        return new CandleFrame(
+                candles.instrumentId(i),
+                candles.intervalType(i),
+                candles.startSecond(i) * 1000L,
+                candles.endSecond(i) * 1000L,
+                candles.open(i),
+                candles.high(i),
+                candles.low(i),
+                candles.close(i),
+                candles.volume(i));
+    }
+
+    /**
+     * The fields a binary frame carries; symbol, name, id, trade count and VWAP stay JSON-only.
+     */
+    public CandleMessage toMessage() {
+        return CandleMessage.builder()
+                .instrumentId(instrumentId)
+                .intervalType(intervalType)
+                .candleStart(Instant.ofEpochMilli(startMillis))
+                .candleEnd(Instant.ofEpochMilli(endMillis))
+                .open(PriceScale.toBigDecimal(open))
+                .high(PriceScale.toBigDecimal(high))
+                .low(PriceScale.toBigDecimal(low))
+                .close(PriceScale.toBigDecimal(close))
+                .volume(volume)
+                .build();
+    }
+}
@@ -0,0 +1,135 @@
+package com.example.stockanalyzer.marketdata.websocket;
+
+import java.nio.ByteBuffer;
+import java.util.HashMap;
+import java.util.Map;
+import com.example.stockanalyzer.marketdata.entites.IntervalType;
+
+/**
+ * Binary encoding of {@link CandleFrame}s for the {@value #BINARY_PROTOCOL} WebSocket subprotocol.
+ *
+ * Every frame starts with a type byte. A full frame ({@code 0x01}) is fixed width, big-endian:
+ * instrument id (8), interval ordinal (1), start and end epoch millis (8 + 8), open, high, low and
+ * close at {@code PriceScale} (4 x 8) and volume (8), 66 bytes in all. A delta frame ({@code 0x02})
+ * carries the instrument id as a varint, the interval ordinal, then the seven remaining fields as
+ * zig-zag varints of their difference from the previous frame sent for the same topic. An update
+ * to the bar in progress is typically 15-20 bytes.
+ */
+public final class CandleFrameCodec {
+
+    public static final String JSON_PROTOCOL = "candles.v1.json";
+    public static final String BINARY_PROTOCOL = "candles.v1.bin";
+
+    static final byte FULL = 0x01;
+    static final byte DELTA = 0x02;
+
+    /** Upper bound of an encoded frame, for sizing buffers. */
+    public static final int MAX_FRAME_BYTES = 1 + 10 + 1 + 7 * 10;
+
+    private CandleFrameCodec() {
+    }
+
+    /**
+     * Encodes {@code frame} into {@code out}, as a delta against {@code previous} when that is the
+     * last frame the receiver decoded for the same topic, else as a full frame.
+     */
+    public static void encode(CandleFrame frame, CandleFrame previous, ByteBuffer out) {
+        if (previous == null
+                || previous.instrumentId() != frame.instrumentId()
+                || previous.intervalType() != frame.intervalType()) {
+            out.put(FULL)
+                    .putLong(frame.instrumentId())
+                    .put((byte) frame.intervalType().ordinal())
+                    .putLong(frame.startMillis())
+                    .putLong(frame.endMillis())
+                    .putLong(frame.open())
+                    .putLong(frame.high())
+                    .putLong(frame.low())
+                    .putLong(frame.close())
+                    .putLong(frame.volume());
+            return;
+        }
+        out.put(DELTA);
+        putVarLong(out, frame.instrumentId());
+        out.put((byte) frame.intervalType().ordinal());
+        putZigZag(out, frame.startMillis() - previous.startMillis());
+        putZigZag(out, frame.endMillis() - previous.endMillis());
+        putZigZag(out, frame.open() - previous.open());
+        putZigZag(out, frame.high() - previous.high());
+        putZigZag(out, frame.low() - previous.low());
+        putZigZag(out, frame.close() - previous.close());
+        putZigZag(out, frame.volume() - previous.volume());
+    }
+
+    private static void putZigZag(ByteBuffer out, long value) {
+        putVarLong(out, (value << 1) ^ (value >> 63));
+    }
+
+    private static void putVarLong(ByteBuffer out, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.put((byte) value);
+    }
+
+    private static long getZigZag(ByteBuffer in) {
+        long raw = getVarLong(in);
+        return (raw >>> 1) ^ -(raw & 1);
+    }
+
+    private static long getVarLong(ByteBuffer in) {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = in.get();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Malformed varint in candle frame");
+    }
+
+    /**
+     * Reference decoder. Keeps the last frame per topic, so one instance must see every frame of
+     * a connection in order.
+     */
+    public static final class Decoder {
+
+        private static final IntervalType[] INTERVALS = IntervalType.values();
+
+        private final Map<CandleTopic, CandleFrame> previous = new HashMap<>();
+
+        public CandleFrame decode(ByteBuffer in) {
+            byte type = in.get();
+            CandleFrame frame;
+            if (type == FULL) {
+                frame = new CandleFrame(
+                        in.getLong(), INTERVALS[in.get()],
+                        in.getLong(), in.getLong(),
+                        in.getLong(), in.getLong(), in.getLong(), in.getLong(),
+                        in.getLong());
+            } else if (type == DELTA) {
+                long instrumentId = getVarLong(in);
+                IntervalType intervalType = INTERVALS[in.get()];
+                CandleFrame base = previous.get(new CandleTopic(instrumentId, intervalType));
+                if (base == null) {
+                    throw new IllegalStateException("Delta frame without a base for " + instrumentId + "/" + intervalType);
+                }
+                frame = new CandleFrame(
+                        instrumentId, intervalType,
+                        base.startMillis() + getZigZag(in),
+                        base.endMillis() + getZigZag(in),
+                        base.open() + getZigZag(in),
+                        base.high() + getZigZag(in),
+                        base.low() + getZigZag(in),
+                        base.close() + getZigZag(in),
+                        base.volume() + getZigZag(in));
+            } else {
+                throw new IllegalArgumentException("Unknown candle frame type " + type);
+            }
+            previous.put(new CandleTopic(frame.instrumentId(), frame.intervalType()), frame);
+            return frame;
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package com.example.stockanalyzer.marketdata.websocket;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import org.springframework.web.socket.BinaryMessage;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.WebSocketMessage;
+import org.springframework.web.socket.WebSocketSession;
+import com.example.stockanalyzer.marketdata.dto.CandleSubscriberStatsResponse;
+import tools.jackson.core.JacksonException;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Outbound side of one WebSocket session.
+ *
+ * Each subscribed topic has a single pending slot holding the latest unsent bar. A newer bar for
+ * the same topic replaces it (conflation), so a slow client costs at most one message per
+ * subscription and never an unbounded queue. At most one drain task per session writes to the
+ * socket, which also keeps {@link WebSocketSession#sendMessage} single-threaded.
+ */
+@Slf4j
+class CandleSubscriber {
+
+    private final WebSocketSession session;
+    private final Executor sender;
+    private final boolean binary;
+    private final Instant connectedAt = Instant.now();
+    private final Set<CandleTopic> topics = ConcurrentHashMap.newKeySet();
+    private final ConcurrentHashMap<CandleTopic, CandleUpdate> pending = new ConcurrentHashMap<>();
+    private final AtomicBoolean draining = new AtomicBoolean();
+    // Delta bases per topic; only the active drain task touches these.
+    private final Map<CandleTopic, CandleFrame> lastSent = new HashMap<>();
+    private final ByteBuffer frameBuffer = ByteBuffer.allocate(CandleFrameCodec.MAX_FRAME_BYTES);
+
+    private final AtomicLong sent = new AtomicLong();
+    private final AtomicLong sentBytes = new AtomicLong();
+    private final AtomicLong conflated = new AtomicLong();
+    private final AtomicLong sendFailures = new AtomicLong();
+
+    CandleSubscriber(WebSocketSession session, Executor sender) {
+        this.session = session;
+        this.sender = sender;
+        this.binary = CandleFrameCodec.BINARY_PROTOCOL.equals(session.getAcceptedProtocol());
+    }
+
+    String id() {
+        return session.getId();
+    }
+
+    Set<CandleTopic> topics() {
+        return topics;
+    }
+
+    void offer(CandleUpdate update) {
+        if (pending.put(update.topic, update) != null) {
+            conflated.incrementAndGet();
+        }
+        if (draining.compareAndSet(false, true)) {
+            sender.execute(this::drain);
+        }
+    }
+
+    void unsubscribe(CandleTopic topic) {
+        topics.remove(topic);
+        pending.remove(topic);
+    }
+
+    CandleSubscriberStatsResponse stats() {
+        return new CandleSubscriberStatsResponse(
+                session.getId(),
+                binary ? CandleFrameCodec.BINARY_PROTOCOL : CandleFrameCodec.JSON_PROTOCOL,
+                connectedAt,
+                topics.size(),
+                pending.size(),
+                sent.get(),
+                sentBytes.get(),
+                conflated.get(),
+                sendFailures.get());
+    }
+
+    private void drain() {
+        do {
+            for (CandleTopic topic : pending.keySet()) {
+                CandleUpdate update = pending.remove(topic);
+                if (update == null) {
+                    continue;
+                }
+                if (!session.isOpen()) {
+                    pending.clear();
+                    break;
+                }
+                try {
+                    WebSocketMessage<?> message = binary ? encode(update) : update.json();
+                    session.sendMessage(message);
+                    sent.incrementAndGet();
+                    sentBytes.addAndGet(message.getPayloadLength());
+                } catch (IOException | IllegalStateException | JacksonException e) {
+                    sendFailures.incrementAndGet();
+                    log.debug("Closing candle subscriber {} after send failure: {}", session.getId(), e.getMessage());
+                    pending.clear();
+                    closeQuietly();
+                    break;
+                }
+            }
+            draining.set(false);
+            // An offer may have landed after the last pass but before the flag was cleared.
+        } while (!pending.isEmpty() && draining.compareAndSet(false, true));
+    }
+
+    private BinaryMessage encode(CandleUpdate update) {
+        frameBuffer.clear();
+        CandleFrameCodec.encode(update.frame, lastSent.get(update.topic), frameBuffer);
+        lastSent.put(update.topic, update.frame);
+        frameBuffer.flip();
+        ByteBuffer payload = ByteBuffer.allocate(frameBuffer.remaining());
+        payload.put(frameBuffer).flip();
+        return new BinaryMessage(payload);
+    }
+
+    private void closeQuietly() {
+        try {
+            session.close(CloseStatus.SESSION_NOT_RELIABLE);
+        } catch (IOException ignored) {
+            // already gone
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package com.example.stockanalyzer.marketdata.websocket;
+
+import com.example.stockanalyzer.marketdata.entites.IntervalType;
+
+/**
+ * Broadcast topic: all updates of one instrument at one interval.
+ */
+record CandleTopic(long instrumentId, IntervalType intervalType) {
+}
@@ -0,0 +1,36 @@
+package com.example.stockanalyzer.marketdata.websocket;
+
+import org.springframework.web.socket.TextMessage;
+import com.example.stockanalyzer.marketdata.dto.CandleMessage;
+import tools.jackson.databind.json.JsonMapper;
+
+/**
+ * One persisted bar on its way to subscribers. The JSON text is rendered at most once, on first
+ * use by a JSON session, and shared by all of them; binary sessions encode {@link #frame} against
+ * their own previous frame instead.
+ */
+final class CandleUpdate {
+
+    final CandleTopic topic;
+    final CandleFrame frame;
+    private final CandleMessage message;
+    private final JsonMapper jsonMapper;
+    private volatile TextMessage json;
+
+    CandleUpdate(CandleTopic topic, CandleFrame frame, CandleMessage message, JsonMapper jsonMapper) {
+        this.topic = topic;
+        this.frame = frame;
+        this.message = message;
+        this.jsonMapper = jsonMapper;
+    }
+
+    TextMessage json() {
+        TextMessage rendered = json;
+        if (rendered == null) {
+            // A race renders the same text twice at worst.
+            rendered = new TextMessage(jsonMapper.writeValueAsString(message));
+            json = rendered;
+        }
+        return rendered;
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.stockanalyzer.marketdata.websocket;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.socket.config.annotation.EnableWebSocket;
+import org.springframework.web.socket.config.annotation.WebSocketConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketHandlerRegistry;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Exposes the live candle feed at {@code /ws/candles}.
+ *
+ * Handshakes are accepted from the app's own origin only, plus the origins listed in
+ * {@code websocket.candles.allowed-origins}; a cross-origin client has to be configured there.
+ */
+@Configuration
+@EnableWebSocket
+@RequiredArgsConstructor
+public class CandleWebSocketConfig implements WebSocketConfigurer {
+
+    private final CandleBroadcastHandler candleBroadcastHandler;
+
+    // Empty keeps Spring's same-origin check.
+    @Value("${websocket.candles.allowed-origins:}")
+    private String[] allowedOrigins;
+
+    @Override
+    public void registerWebSocketHandlers(WebSocketHandlerRegistry registry) {
+        registry.addHandler(candleBroadcastHandler, "/ws/candles").setAllowedOrigins(allowedOrigins);
+    }
+}
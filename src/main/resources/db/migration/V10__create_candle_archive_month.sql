@@ -0,0 +1,17 @@
+-- Catalog of months moved from candles to the file archive. Reads use the files of ARCHIVED
+-- months only; WRITING marks a month whose files may be incomplete and whose rows are still in
+-- candles.
+CREATE TABLE candle_archive_month (
+    id            BIGINT       NOT NULL AUTO_INCREMENT,
+    month_start   DATE         NOT NULL,
+    status        VARCHAR(20)  NOT NULL,
+    series_count  INT          NOT NULL,
+    row_count     BIGINT       NOT NULL,
+    file_bytes    BIGINT       NOT NULL,
+    archived_at   DATETIME(6),
+    created_at    DATETIME(6)  NOT NULL,
+    updated_at    DATETIME(6)  NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_candle_archive_month_start
+        UNIQUE (month_start)
+) ENGINE = InnoDB;
@@ -0,0 +1,14 @@
+-- Packed storage for high-row-count intervals (candles.storage.block-intervals): one row per
+-- instrument, interval and UTC day whose bars column holds every bar of that day, varint encoded.
+-- Trading sessions of the configured exchanges fall inside one UTC day, so a block is a session.
+CREATE TABLE candle_blocks (
+    instrument_id BIGINT       NOT NULL,
+    interval_type VARCHAR(20)  NOT NULL,
+    block_day     DATE         NOT NULL,
+    bar_count     INT          NOT NULL,
+    bars          MEDIUMBLOB   NOT NULL,
+    updated_at    DATETIME(6)  NOT NULL,
+    PRIMARY KEY (instrument_id, interval_type, block_day),
+    CONSTRAINT fk_candle_blocks_instrument
+        FOREIGN KEY (instrument_id) REFERENCES instrument (id)
+) ENGINE = InnoDB;
@@ -0,0 +1,13 @@
+CREATE TABLE ingestion_watermark (
+    id                BIGINT       NOT NULL AUTO_INCREMENT,
+    instrument_id     BIGINT       NOT NULL,
+    interval_type     VARCHAR(20)  NOT NULL,
+    last_candle_start DATETIME(6)  NOT NULL,
+    created_at        DATETIME(6)  NOT NULL,
+    updated_at        DATETIME(6)  NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT fk_ingestion_watermark_instrument
+        FOREIGN KEY (instrument_id) REFERENCES instrument (id),
+    CONSTRAINT uk_ingestion_watermark_instrument_interval
+        UNIQUE (instrument_id, interval_type)
+) ENGINE = InnoDB;
@@ -0,0 +1,46 @@
+CREATE TABLE backfill_job (
+    id                BIGINT        NOT NULL AUTO_INCREMENT,
+    data_source_id    BIGINT        NOT NULL,
+    interval_type     VARCHAR(20)   NOT NULL,
+    range_from        DATETIME(6)   NOT NULL,
+    range_to          DATETIME(6)   NOT NULL,
+    status            VARCHAR(20)   NOT NULL,
+    total_chunks      INT           NOT NULL,
+    completed_chunks  INT           NOT NULL,
+    failed_chunks     INT           NOT NULL,
+    candles_fetched   BIGINT        NOT NULL,
+    candles_inserted  BIGINT        NOT NULL,
+    started_at        DATETIME(6),
+    finished_at       DATETIME(6),
+    last_error        VARCHAR(1000),
+    created_at        DATETIME(6)   NOT NULL,
+    updated_at        DATETIME(6)   NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT fk_backfill_job_data_source
+        FOREIGN KEY (data_source_id) REFERENCES data_sources (id)
+) ENGINE = InnoDB;
+-- supports findByStatusIn on startup resume
+CREATE INDEX idx_backfill_job_status
+    ON backfill_job (status);
+
+CREATE TABLE backfill_chunk (
+    id                BIGINT        NOT NULL AUTO_INCREMENT,
+    job_id            BIGINT        NOT NULL,
+    instrument_id     BIGINT        NOT NULL,
+    chunk_from        DATETIME(6)   NOT NULL,
+    chunk_to          DATETIME(6)   NOT NULL,
+    status            VARCHAR(20)   NOT NULL,
+    attempts          INT           NOT NULL,
+    candles_inserted  INT           NOT NULL,
+    last_error        VARCHAR(1000),
+    created_at        DATETIME(6)   NOT NULL,
+    updated_at        DATETIME(6)   NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT fk_backfill_chunk_job
+        FOREIGN KEY (job_id) REFERENCES backfill_job (id),
+    CONSTRAINT fk_backfill_chunk_instrument
+        FOREIGN KEY (instrument_id) REFERENCES instrument (id)
+) ENGINE = InnoDB;
+-- supports findByJobIdAndStatusOrderByIdAsc
+CREATE INDEX idx_backfill_chunk_job_status
+    ON backfill_chunk (job_id, status);
@@ -0,0 +1,4 @@
+ALTER TABLE data_sources
+    ADD COLUMN streaming_enabled              BIT(1) NOT NULL DEFAULT b'0',
+    ADD COLUMN max_stream_connections         INT,
+    ADD COLUMN max_instruments_per_connection INT;
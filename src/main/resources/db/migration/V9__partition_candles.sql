@@ -0,0 +1,51 @@
+-- Range-partition candles on candle_start so each month's rows (all intervals) live in their own
+-- B-trees: inserts touch only the current partition and range reads prune to the months they cover.
+--
+-- MySQL requires every unique key, the primary key included, to contain the partitioning column,
+-- and InnoDB does not support foreign keys on partitioned tables, so instrument_id is no longer
+-- enforced by the database. Values are UTC (Hibernate's Instant storage), so months are UTC months.
+-- History before 2025 is kept in yearly partitions; CandlePartitionScheduler adds monthly
+-- partitions ahead of time by splitting p_future, which must stay empty.
+--
+-- Rebuilds the table: on a large existing table run it in a maintenance window.
+ALTER TABLE candles
+    DROP FOREIGN KEY fk_candles_instrument;
+
+ALTER TABLE candles
+    DROP PRIMARY KEY,
+    ADD PRIMARY KEY (id, candle_start);
+
+ALTER TABLE candles
+    PARTITION BY RANGE COLUMNS (candle_start) (
+        PARTITION p_history VALUES LESS THAN ('2020-01-01 00:00:00'),
+        PARTITION p2020 VALUES LESS THAN ('2021-01-01 00:00:00'),
+        PARTITION p2021 VALUES LESS THAN ('2022-01-01 00:00:00'),
+        PARTITION p2022 VALUES LESS THAN ('2023-01-01 00:00:00'),
+        PARTITION p2023 VALUES LESS THAN ('2024-01-01 00:00:00'),
+        PARTITION p2024 VALUES LESS THAN ('2025-01-01 00:00:00'),
+        PARTITION p202501 VALUES LESS THAN ('2025-02-01 00:00:00'),
+        PARTITION p202502 VALUES LESS THAN ('2025-03-01 00:00:00'),
+        PARTITION p202503 VALUES LESS THAN ('2025-04-01 00:00:00'),
+        PARTITION p202504 VALUES LESS THAN ('2025-05-01 00:00:00'),
+        PARTITION p202505 VALUES LESS THAN ('2025-06-01 00:00:00'),
+        PARTITION p202506 VALUES LESS THAN ('2025-07-01 00:00:00'),
+        PARTITION p202507 VALUES LESS THAN ('2025-08-01 00:00:00'),
+        PARTITION p202508 VALUES LESS THAN ('2025-09-01 00:00:00'),
+        PARTITION p202509 VALUES LESS THAN ('2025-10-01 00:00:00'),
+        PARTITION p202510 VALUES LESS THAN ('2025-11-01 00:00:00'),
+        PARTITION p202511 VALUES LESS THAN ('2025-12-01 00:00:00'),
+        PARTITION p202512 VALUES LESS THAN ('2026-01-01 00:00:00'),
+        PARTITION p202601 VALUES LESS THAN ('2026-02-01 00:00:00'),
+        PARTITION p202602 VALUES LESS THAN ('2026-03-01 00:00:00'),
+        PARTITION p202603 VALUES LESS THAN ('2026-04-01 00:00:00'),
+        PARTITION p202604 VALUES LESS THAN ('2026-05-01 00:00:00'),
+        PARTITION p202605 VALUES LESS THAN ('2026-06-01 00:00:00'),
+        PARTITION p202606 VALUES LESS THAN ('2026-07-01 00:00:00'),
+        PARTITION p202607 VALUES LESS THAN ('2026-08-01 00:00:00'),
+        PARTITION p202608 VALUES LESS THAN ('2026-09-01 00:00:00'),
+        PARTITION p202609 VALUES LESS THAN ('2026-10-01 00:00:00'),
+        PARTITION p202610 VALUES LESS THAN ('2026-11-01 00:00:00'),
+        PARTITION p202611 VALUES LESS THAN ('2026-12-01 00:00:00'),
+        PARTITION p202612 VALUES LESS THAN ('2027-01-01 00:00:00'),
+        PARTITION p_future VALUES LESS THAN (MAXVALUE)
+    );
@@ -0,0 +1,135 @@
+package com.example.stockanalyzer.marketdata.archive;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+import java.util.SplittableRandom;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import com.example.stockanalyzer.marketdata.dto.CandleResponse;
+import com.example.stockanalyzer.marketdata.entites.IntervalType;
+import com.example.stockanalyzer.marketdata.mapper.PriceScale;
+
+class CandleArchiveFileTest {
+
+    private static final long MONTH_START = 1_735_689_600L; // 2025-01-01T00:00:00Z
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void writtenMonthReadsBackBarForBar() throws IOException {
+        long[][] bars = bars(5_000, 3);
+        Path path = directory.resolve("42/ONE_MINUTE/2025-01.car");
+
+        long written = writer(bars).writeTo(path);
+        CandleArchiveFile file = CandleArchiveFile.map(path);
+
+        assertEquals(Files.size(path), written);
+        assertEquals(42L, file.instrumentId);
+        assertEquals(IntervalType.ONE_MINUTE, file.intervalType);
+        assertEquals("INFY", file.symbol);
+        assertEquals("NSE", file.exchangeCode);
+        assertEquals(bars.length, file.rowCount);
+        assertEquals(bars[0][0], file.firstStart);
+        assertEquals(bars[bars.length - 1][0], file.lastStart);
+
+        List<CandleResponse> read = file.read(Long.MIN_VALUE, Long.MAX_VALUE, Integer.MAX_VALUE);
+        assertEquals(bars.length, read.size());
+        for (int i = 0; i < bars.length; i++) {
+            assertBar(bars[i], read.get(i));
+        }
+    }
+
+    @Test
+    void readsOnlyTheRequestedRangeAndLimit() throws IOException {
+        long[][] bars = bars(100, 5);
+        Path path = directory.resolve("range.car");
+        writer(bars).writeTo(path);
+        CandleArchiveFile file = CandleArchiveFile.map(path);
+
+        List<CandleResponse> range = file.read(bars[9][0], bars[19][0], 100);
+        assertEquals(10, range.size());
+        assertBar(bars[10], range.getFirst());
+        assertBar(bars[19], range.getLast());
+
+        List<CandleResponse> limited = file.read(bars[9][0], bars[19][0], 3);
+        assertEquals(3, limited.size());
+        assertBar(bars[12], limited.getLast());
+
+        assertTrue(file.read(bars[99][0], Long.MAX_VALUE, 100).isEmpty());
+        assertTrue(file.read(Long.MIN_VALUE, bars[0][0] - 1, 100).isEmpty());
+        assertTrue(file.read(Long.MIN_VALUE, Long.MAX_VALUE, 0).isEmpty());
+    }
+
+    @Test
+    void emptyMonthReadsBackEmpty() throws IOException {
+        Path path = directory.resolve("empty.car");
+        new CandleArchiveFile.Writer(42L, IntervalType.ONE_DAY, "INFY", "NSE").writeTo(path);
+
+        CandleArchiveFile file = CandleArchiveFile.map(path);
+
+        assertEquals(0, file.rowCount);
+        assertTrue(file.read(Long.MIN_VALUE, Long.MAX_VALUE, 100).isEmpty());
+    }
+
+    @Test
+    void rejectsRowsOutOfStartOrder() {
+        CandleArchiveFile.Writer writer = new CandleArchiveFile.Writer(42L, IntervalType.ONE_MINUTE, "INFY", "NSE");
+        writer.add(MONTH_START + 60, MONTH_START + 120, 1, 1, 1, 1, 1);
+
+        assertThrows(IllegalArgumentException.class,
+                () -> writer.add(MONTH_START + 60, MONTH_START + 120, 1, 1, 1, 1, 1));
+        assertThrows(IllegalArgumentException.class,
+                () -> writer.add(MONTH_START, MONTH_START + 60, 1, 1, 1, 1, 1));
+    }
+
+    @Test
+    void rejectsAFileThatIsNotAnArchive() throws IOException {
+        Path path = directory.resolve("other.car");
+        Files.write(path, new byte[64]);
+
+        assertThrows(IllegalStateException.class, () -> CandleArchiveFile.map(path));
+    }
+
+    // Minutes of a month with overnight gaps, and prices wandering in both directions.
+    private static long[][] bars(int count, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        long[][] bars = new long[count][];
+        long start = MONTH_START + 3 * 3_600 + 45 * 60;
+        long close = 1_850_000L;
+        for (int i = 0; i < count; i++) {
+            start += i % 375 == 0 && i > 0 ? 86_400 - 374 * 60 : 60;
+            long open = close;
+            close = Math.max(1, open + random.nextLong(-20_000, 20_001));
+            long high = Math.max(open, close) + random.nextLong(5_000);
+            long low = Math.max(0, Math.min(open, close) - random.nextLong(5_000));
+            bars[i] = new long[] {start, start + 60, open, high, low, close, random.nextLong(2_000_000)};
+        }
+        return bars;
+    }
+
+    private static CandleArchiveFile.Writer writer(long[][] bars) {
+        CandleArchiveFile.Writer writer = new CandleArchiveFile.Writer(42L, IntervalType.ONE_MINUTE, "INFY", "NSE");
+        for (long[] bar : bars) {
+            writer.add(bar[0], bar[1], bar[2], bar[3], bar[4], bar[5], bar[6]);
+        }
+        return writer;
+    }
+
+    private static void assertBar(long[] expected, CandleResponse actual) {
+        assertEquals(Instant.ofEpochSecond(expected[0]), actual.getCandleStart());
+        assertEquals(Instant.ofEpochSecond(expected[1]), actual.getCandleEnd());
+        assertEquals(PriceScale.toBigDecimal(expected[2]), actual.getOpen());
+        assertEquals(PriceScale.toBigDecimal(expected[3]), actual.getHigh());
+        assertEquals(PriceScale.toBigDecimal(expected[4]), actual.getLow());
+        assertEquals(PriceScale.toBigDecimal(expected[5]), actual.getClose());
+        assertEquals(expected[6], actual.getVolume().longValue());
+    }
+}
@@ -0,0 +1,103 @@
+package com.example.stockanalyzer.marketdata.mapper;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.SplittableRandom;
+import org.junit.jupiter.api.Test;
+import com.example.stockanalyzer.marketdata.exception.MarketDataException;
+
+class KiteTimestampParserTest {
+
+    private static final ZoneOffsets KOLKATA = ZoneOffsets.of("Asia/Kolkata");
+    private static final ZoneOffsets NEW_YORK = ZoneOffsets.of("America/New_York");
+    private static final DateTimeFormatter LOCAL = DateTimeFormatter.ofPattern("uuuu-MM-dd HH:mm:ss");
+
+    @Test
+    void parsesEveryKiteLayoutLikeJavaTime() {
+        assertEquals(
+                OffsetDateTime.parse("2025-01-02T09:15:00+05:30").toEpochSecond(),
+                KiteTimestampParser.toEpochSecond("2025-01-02T09:15:00+0530", KOLKATA));
+        assertEquals(
+                OffsetDateTime.parse("2025-01-02T09:15:00+05:30").toEpochSecond(),
+                KiteTimestampParser.toEpochSecond("2025-01-02T09:15:00+05:30", KOLKATA));
+        assertEquals(
+                OffsetDateTime.parse("2025-01-02T03:45:00Z").toEpochSecond(),
+                KiteTimestampParser.toEpochSecond("2025-01-02T03:45:00Z", KOLKATA));
+        assertEquals(
+                OffsetDateTime.parse("2025-01-02T09:15:00-04:00").toEpochSecond(),
+                KiteTimestampParser.toEpochSecond("2025-01-02T09:15:00-04", KOLKATA));
+        assertEquals(
+                LocalDateTime.parse("2025-01-02T09:15:00").atZone(KOLKATA.zone()).toEpochSecond(),
+                KiteTimestampParser.toEpochSecond("2025-01-02 09:15:00", KOLKATA));
+    }
+
+    @Test
+    void truncatesFractionalSeconds() {
+        assertEquals(
+                OffsetDateTime.parse("2025-01-02T09:15:07+05:30").toEpochSecond(),
+                KiteTimestampParser.toEpochSecond("2025-01-02T09:15:07.999+0530", KOLKATA));
+        assertEquals(
+                LocalDateTime.parse("2025-01-02T09:15:07").atZone(KOLKATA.zone()).toEpochSecond(),
+                KiteTimestampParser.toEpochSecond("2025-01-02 09:15:07.123456", KOLKATA));
+    }
+
+    @Test
+    void matchesJavaTimeOnRandomLocalAndOffsetTimestamps() {
+        SplittableRandom random = new SplittableRandom(17);
+        for (ZoneOffsets zone : new ZoneOffsets[] {KOLKATA, NEW_YORK, ZoneOffsets.of("Europe/London")}) {
+            for (int i = 0; i < 20_000; i++) {
+                LocalDateTime local = LocalDateTime.of(1900, 1, 1, 0, 0)
+                        .plusSeconds(random.nextLong(200L * 366 * 86_400));
+                String text = local.format(LOCAL);
+                assertEquals(local.atZone(zone.zone()).toEpochSecond(),
+                        KiteTimestampParser.toEpochSecond(text, zone), text + " in " + zone.zone());
+
+                int offsetMinutes = random.nextInt(-12 * 60, 14 * 60 + 1);
+                String offset = String.format("%s%02d%02d",
+                        offsetMinutes < 0 ? "-" : "+", Math.abs(offsetMinutes) / 60, Math.abs(offsetMinutes) % 60);
+                String withOffset = text.replace(' ', 'T') + offset;
+                assertEquals(OffsetDateTime.parse(withOffset, DateTimeFormatter.ofPattern("uuuu-MM-dd'T'HH:mm:ssxx"))
+                        .toEpochSecond(), KiteTimestampParser.toEpochSecond(withOffset, zone), withOffset);
+            }
+        }
+    }
+
+    @Test
+    void resolvesLocalTimesInDstGapsAndOverlapsLikeAtZone() {
+        ZoneId zone = NEW_YORK.zone();
+        // 2024-03-10 02:00-03:00 does not exist; 2024-11-03 01:00-02:00 happens twice.
+        for (String text : new String[] {
+                "2024-03-10 01:59:59", "2024-03-10 02:00:00", "2024-03-10 02:30:00", "2024-03-10 02:59:59",
+                "2024-03-10 03:00:00", "2024-11-03 00:59:59", "2024-11-03 01:00:00", "2024-11-03 01:30:00",
+                "2024-11-03 01:59:59", "2024-11-03 02:00:00"}) {
+            assertEquals(LocalDateTime.parse(text, LOCAL).atZone(zone).toEpochSecond(),
+                    KiteTimestampParser.toEpochSecond(text, NEW_YORK), text);
+        }
+    }
+
+    @Test
+    void acceptsLeapDaysOnlyInLeapYears() {
+        assertEquals(LocalDateTime.parse("2024-02-29T10:00:00").atZone(KOLKATA.zone()).toEpochSecond(),
+                KiteTimestampParser.toEpochSecond("2024-02-29 10:00:00", KOLKATA));
+        assertEquals(LocalDateTime.parse("2000-02-29T10:00:00").atZone(KOLKATA.zone()).toEpochSecond(),
+                KiteTimestampParser.toEpochSecond("2000-02-29 10:00:00", KOLKATA));
+        assertThrows(MarketDataException.class, () -> KiteTimestampParser.toEpochSecond("2023-02-29 10:00:00", KOLKATA));
+        assertThrows(MarketDataException.class, () -> KiteTimestampParser.toEpochSecond("1900-02-29 10:00:00", KOLKATA));
+    }
+
+    @Test
+    void rejectsMalformedTimestamps() {
+        for (String text : new String[] {
+                "", "2025-01-02", "2025/01/02 09:15:00", "2025-13-02 09:15:00", "2025-04-31 09:15:00",
+                "2025-01-02 24:00:00", "2025-01-02 09:60:00", "2025-01-02 09:15:60", "2025-01-02T09:15:00+5",
+                "2025-01-02T09:15:00+05:3", "2025-01-02T09:15:00+1900", "2025-01-02T09:15:00X",
+                "2025-01-02T09:15:00Z1", "2O25-01-02 09:15:00"}) {
+            assertThrows(MarketDataException.class, () -> KiteTimestampParser.toEpochSecond(text, KOLKATA), text);
+        }
+    }
+}
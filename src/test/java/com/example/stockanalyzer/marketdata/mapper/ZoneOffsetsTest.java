@@ -0,0 +1,66 @@
+package com.example.stockanalyzer.marketdata.mapper;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.zone.ZoneOffsetTransition;
+import org.junit.jupiter.api.Test;
+
+class ZoneOffsetsTest {
+
+    @Test
+    void resolvesToTheSameInstantAsAtZoneEveryQuarterHour() {
+        for (String id : new String[] {"Asia/Kolkata", "America/New_York", "Europe/London", "Australia/Sydney", "UTC"}) {
+            ZoneOffsets offsets = ZoneOffsets.of(id);
+            ZoneId zone = ZoneId.of(id);
+            for (LocalDateTime local = LocalDateTime.of(1940, 1, 1, 0, 0);
+                 local.getYear() < 2031;
+                 local = local.plusMinutes(local.getYear() < 2020 ? 997 : 15)) {
+                assertResolvesLikeAtZone(offsets, zone, local);
+            }
+        }
+    }
+
+    @Test
+    void resolvesAroundEveryTransitionLikeAtZone() {
+        for (String id : new String[] {"Asia/Kolkata", "America/New_York", "Europe/London"}) {
+            ZoneOffsets offsets = ZoneOffsets.of(id);
+            ZoneId zone = ZoneId.of(id);
+            for (ZoneOffsetTransition transition : zone.getRules().getTransitions()) {
+                for (LocalDateTime around : new LocalDateTime[] {transition.getDateTimeBefore(), transition.getDateTimeAfter()}) {
+                    for (int second = -2; second <= 2; second++) {
+                        assertResolvesLikeAtZone(offsets, zone, around.plusSeconds(second));
+                    }
+                    assertResolvesLikeAtZone(offsets, zone, around.plusMinutes(30));
+                    assertResolvesLikeAtZone(offsets, zone, around.minusMinutes(30));
+                }
+            }
+        }
+    }
+
+    @Test
+    void usesTheOffsetBeforeTheTransitionInGapsAndOverlaps() {
+        ZoneOffsets newYork = ZoneOffsets.of("America/New_York");
+        // Spring-forward gap and fall-back overlap, both resolved with the earlier offset (EST then EDT).
+        assertEquals(-5 * 3_600, newYork.offsetSecondsAtLocal(localSecond(LocalDateTime.of(2024, 3, 10, 2, 30))));
+        assertEquals(-4 * 3_600, newYork.offsetSecondsAtLocal(localSecond(LocalDateTime.of(2024, 11, 3, 1, 30))));
+    }
+
+    @Test
+    void cachesOneInstancePerZone() {
+        assertSame(ZoneOffsets.of("Asia/Kolkata"), ZoneOffsets.of("Asia/Kolkata"));
+    }
+
+    private static void assertResolvesLikeAtZone(ZoneOffsets offsets, ZoneId zone, LocalDateTime local) {
+        long localSecond = localSecond(local);
+        assertEquals(local.atZone(zone).toEpochSecond(), localSecond - offsets.offsetSecondsAtLocal(localSecond),
+                local + " in " + zone);
+    }
+
+    private static long localSecond(LocalDateTime local) {
+        return local.toEpochSecond(ZoneOffset.UTC);
+    }
+}
@@ -0,0 +1,145 @@
+package com.example.stockanalyzer.marketdata.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import org.junit.jupiter.api.Test;
+import com.example.stockanalyzer.marketdata.dto.CandleResponse;
+import com.example.stockanalyzer.marketdata.entites.IntervalType;
+import com.example.stockanalyzer.marketdata.mapper.PriceScale;
+
+class CandleBlockTest {
+
+    private static final long DAY_START = 20_090L * 86_400L; // 2025-01-02T00:00:00Z
+    private static final long SESSION_OPEN = DAY_START + 3 * 3_600 + 45 * 60;
+
+    @Test
+    void encodedSessionDecodesToTheSameBars() {
+        long[][] bars = session(375, 11);
+        CandleBlock block = new CandleBlock(DAY_START, 0);
+        for (long[] bar : bars) {
+            assertTrue(put(block, bar, false));
+        }
+
+        CandleBlock decoded = CandleBlock.decode(DAY_START, block.encode());
+
+        assertEquals(bars.length, decoded.size());
+        assertEquals(List.of(bars).stream().map(CandleBlockTest::row).toList(), scanAll(decoded));
+        assertEquals(decoded.size(), CandleBlock.decode(DAY_START, decoded.encode()).size());
+    }
+
+    @Test
+    void emptyBlockRoundTrips() {
+        CandleBlock decoded = CandleBlock.decode(DAY_START, new CandleBlock(DAY_START, 0).encode());
+
+        assertEquals(0, decoded.size());
+        assertTrue(scanAll(decoded).isEmpty());
+    }
+
+    @Test
+    void barsPutOutOfOrderAreStoredInStartOrder() {
+        long[][] bars = session(50, 3);
+        CandleBlock block = new CandleBlock(DAY_START, 0);
+        for (int i = bars.length - 1; i >= 0; i -= 2) {
+            put(block, bars[i], false);
+        }
+        for (int i = bars.length - 2; i >= 0; i -= 2) {
+            put(block, bars[i], false);
+        }
+
+        assertEquals(List.of(bars).stream().map(CandleBlockTest::row).toList(),
+                scanAll(CandleBlock.decode(DAY_START, block.encode())));
+    }
+
+    @Test
+    void existingBarIsKeptUnlessOverwriting() {
+        long[] stored = {SESSION_OPEN, SESSION_OPEN + 60, 1_000_000, 1_010_000, 990_000, 1_005_000, 700};
+        long[] revised = {SESSION_OPEN, SESSION_OPEN + 60, 1_000_000, 1_020_000, 990_000, 1_015_000, 900};
+        CandleBlock block = CandleBlock.decode(DAY_START, blockOf(stored).encode());
+
+        assertFalse(put(block, revised, false));
+        assertFalse(block.changed());
+        assertEquals(List.of(row(stored)), scanAll(block));
+
+        assertFalse(put(block, revised, true));
+        assertTrue(block.changed());
+        assertEquals(List.of(row(revised)), scanAll(CandleBlock.decode(DAY_START, block.encode())));
+    }
+
+    @Test
+    void readReturnsBarsAfterTheCursorUpToTheEndAndLimit() {
+        long[][] bars = session(10, 5);
+        CandleBlock block = CandleBlock.decode(DAY_START, blockOf(bars).encode());
+        List<CandleResponse> out = new ArrayList<>();
+
+        block.read(bars[2][0], bars[7][0], 100, 42L, IntervalType.ONE_MINUTE, "INFY", "NSE", out);
+
+        assertEquals(5, out.size());
+        CandleResponse first = out.getFirst();
+        assertEquals(Instant.ofEpochSecond(bars[3][0]), first.getCandleStart());
+        assertEquals(Instant.ofEpochSecond(bars[3][1]), first.getCandleEnd());
+        assertEquals(PriceScale.toBigDecimal(bars[3][2]), first.getOpen());
+        assertEquals(PriceScale.toBigDecimal(bars[3][5]), first.getClose());
+        assertEquals(bars[3][6], first.getVolume().longValue());
+        assertEquals("INFY", first.getSymbol());
+        assertEquals(Instant.ofEpochSecond(bars[7][0]), out.getLast().getCandleStart());
+
+        out.clear();
+        block.read(bars[2][0], bars[7][0], 2, 42L, IntervalType.ONE_MINUTE, "INFY", "NSE", out);
+        assertEquals(2, out.size());
+    }
+
+    @Test
+    void rejectsAnUnknownVersion() {
+        byte[] bytes = new CandleBlock(DAY_START, 0).encode();
+        bytes[0] = 99;
+
+        assertThrows(IllegalStateException.class, () -> CandleBlock.decode(DAY_START, bytes));
+    }
+
+    // Prices wander up and down so the zigzag deltas are exercised in both directions.
+    private static long[][] session(int count, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        long[][] bars = new long[count][];
+        long close = 1_850_000L;
+        for (int i = 0; i < count; i++) {
+            long start = SESSION_OPEN + i * 60L;
+            long open = close;
+            close = Math.max(1, open + random.nextLong(-20_000, 20_001));
+            long high = Math.max(open, close) + random.nextLong(5_000);
+            long low = Math.max(0, Math.min(open, close) - random.nextLong(5_000));
+            bars[i] = new long[] {start, start + 60, open, high, low, close, random.nextLong(2_000_000)};
+        }
+        return bars;
+    }
+
+    private static CandleBlock blockOf(long[]... bars) {
+        CandleBlock block = new CandleBlock(DAY_START, bars.length);
+        for (long[] bar : bars) {
+            put(block, bar, false);
+        }
+        return block;
+    }
+
+    private static boolean put(CandleBlock block, long[] bar, boolean overwrite) {
+        return block.put(bar[0], bar[1], bar[2], bar[3], bar[4], bar[5], bar[6], overwrite);
+    }
+
+    private static List<List<Long>> scanAll(CandleBlock block) {
+        List<List<Long>> rows = new ArrayList<>();
+        block.scan(Long.MIN_VALUE, Long.MAX_VALUE, 42L, IntervalType.ONE_MINUTE,
+                (instrumentId, intervalType, start, end, open, high, low, close, volume) ->
+                        rows.add(List.of(start, end, open, high, low, close, volume)));
+        return rows;
+    }
+
+    private static List<Long> row(long[] bar) {
+        return List.of(bar[0], bar[1], bar[2], bar[3], bar[4], bar[5], bar[6]);
+    }
+}
@@ -0,0 +1,102 @@
+package com.example.stockanalyzer.marketdata.websocket;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.ByteBuffer;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+import org.junit.jupiter.api.Test;
+import com.example.stockanalyzer.marketdata.entites.IntervalType;
+
+class CandleFrameCodecTest {
+
+    private static final long START = 1_735_789_500_000L;
+
+    private final ByteBuffer buffer = ByteBuffer.allocate(CandleFrameCodec.MAX_FRAME_BYTES);
+
+    @Test
+    void fullFrameRoundTrips() {
+        CandleFrame frame = new CandleFrame(408_065L, IntervalType.FIVE_MINUTE, START, START + 300_000L,
+                18_900_500L, 18_946_000L, 18_880_000L, 18_935_000L, 125_911L);
+
+        CandleFrameCodec.encode(frame, null, buffer);
+
+        assertEquals(66, buffer.position());
+        assertEquals(frame, new CandleFrameCodec.Decoder().decode(buffer.flip()));
+    }
+
+    @Test
+    void deltaFramesRoundTripAcrossInterleavedTopics() {
+        SplittableRandom random = new SplittableRandom(7);
+        Map<CandleTopic, CandleFrame> sent = new HashMap<>();
+        CandleFrameCodec.Decoder decoder = new CandleFrameCodec.Decoder();
+        int deltas = 0;
+        for (int u = 0; u < 50_000; u++) {
+            long instrumentId = 100_000L + random.nextInt(40);
+            IntervalType intervalType = random.nextBoolean() ? IntervalType.ONE_MINUTE : IntervalType.ONE_HOUR;
+            long barStart = START + random.nextInt(400) * 60_000L;
+            long open = 1_000_000L + random.nextLong(50_000_000L);
+            CandleFrame frame = new CandleFrame(instrumentId, intervalType, barStart, barStart + 60_000L,
+                    open, open + random.nextLong(10_000), open - random.nextLong(10_000),
+                    open + random.nextLong(-5_000, 5_001), random.nextLong(1L << 40));
+
+            CandleFrame previous = sent.put(new CandleTopic(instrumentId, intervalType), frame);
+            buffer.clear();
+            CandleFrameCodec.encode(frame, previous, buffer);
+            buffer.flip();
+            if (buffer.get(0) == CandleFrameCodec.DELTA) {
+                deltas++;
+            }
+
+            assertEquals(frame, decoder.decode(buffer), "update " + u);
+            assertFalse(buffer.hasRemaining(), "update " + u + " left bytes unread");
+        }
+        assertTrue(deltas > 40_000, "most updates should be deltas");
+    }
+
+    @Test
+    void deltaOfAnUpdateToTheBarInProgressIsSmall() {
+        CandleFrame previous = new CandleFrame(408_065L, IntervalType.ONE_MINUTE, START, START + 60_000L,
+                18_900_500L, 18_946_000L, 18_880_000L, 18_933_500L, 125_430L);
+        CandleFrame frame = new CandleFrame(408_065L, IntervalType.ONE_MINUTE, START, START + 60_000L,
+                18_900_500L, 18_946_000L, 18_880_000L, 18_935_000L, 125_911L);
+        CandleFrameCodec.Decoder decoder = new CandleFrameCodec.Decoder();
+        CandleFrameCodec.encode(previous, null, buffer);
+        decoder.decode(buffer.flip());
+
+        buffer.clear();
+        CandleFrameCodec.encode(frame, previous, buffer);
+
+        assertTrue(buffer.position() <= 20, "delta took " + buffer.position() + " bytes");
+        assertEquals(frame, decoder.decode(buffer.flip()));
+    }
+
+    @Test
+    void extremeValuesRoundTrip() {
+        CandleFrame previous = new CandleFrame(Long.MAX_VALUE, IntervalType.ONE_DAY, Long.MIN_VALUE, Long.MAX_VALUE,
+                Long.MIN_VALUE, Long.MAX_VALUE, 0, -1, 0);
+        CandleFrame frame = new CandleFrame(Long.MAX_VALUE, IntervalType.ONE_DAY, Long.MAX_VALUE, Long.MIN_VALUE,
+                Long.MAX_VALUE, Long.MIN_VALUE, -1, 0, Long.MAX_VALUE);
+        CandleFrameCodec.Decoder decoder = new CandleFrameCodec.Decoder();
+        CandleFrameCodec.encode(previous, null, buffer);
+        assertEquals(previous, decoder.decode(buffer.flip()));
+
+        buffer.clear();
+        CandleFrameCodec.encode(frame, previous, buffer);
+
+        assertEquals(frame, decoder.decode(buffer.flip()));
+    }
+
+    @Test
+    void rejectsADeltaWithoutItsBase() {
+        CandleFrame previous = new CandleFrame(1L, IntervalType.ONE_MINUTE, START, START + 60_000L, 1, 2, 0, 1, 5);
+        CandleFrame frame = new CandleFrame(1L, IntervalType.ONE_MINUTE, START, START + 60_000L, 1, 3, 0, 2, 9);
+        CandleFrameCodec.encode(frame, previous, buffer);
+
+        assertThrows(IllegalStateException.class, () -> new CandleFrameCodec.Decoder().decode(buffer.flip()));
+    }
+}